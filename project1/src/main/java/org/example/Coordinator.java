@@ -0,0 +1,376 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Runs the test suite across several worker JVMs on this machine and merges their results.
+ * <p>
+ * Test classes are split across workers longest-processing-time-first, using the per-method durations in the test
+ * history file when there is one (see {@code HistoryScheduler}) and the median for classes it does not know. Each
+ * worker is a {@code java} process running {@link Options#workerMain()} from the test classpath; it connects back
+ * over a loopback socket, receives its shard and streams every result as it happens (see {@link WorkerProtocol}),
+ * so failures show up on the console while the rest of the suite is still running. Only the socket ties a worker
+ * to this process, which is what will let workers on other nodes connect later.
+ * <p>
+ * With {@link Options#stub()} every worker starts its own books stub on a free port, so workers never see each
+ * other's data; otherwise they all use the configured {@code base.url}. Worker output goes to
+ * {@code worker-<n>.log} and the merged results to {@code testng-results.xml}, both in the report directory;
+ * every worker also streams its results to {@code results/results-<pid>.ndjson} there, for {@code ResultSummary}.
+ * Each worker also gets its own {@code testdata.salt}, so workers sharing a server never create the same book.
+ */
+public final class Coordinator {
+
+    private static final Pattern TEST_CLASS = Pattern.compile("(Test[^$]*|[^$]*Test|[^$]*Tests|[^$]*TestCase)\\.class");
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(60);
+
+    private final Options options;
+
+    public Coordinator(Options options) {
+        this.options = options;
+    }
+
+    /**
+     * @param workers        worker JVMs to fork
+     * @param classes        test classes to run; empty to discover them in the classpath's {@code test-classes}
+     * @param classpath      classpath for the workers, holding the test classes and TestNG
+     * @param groups         TestNG groups to include, comma-separated, or empty for all
+     * @param excludedGroups TestNG groups to exclude, comma-separated
+     * @param reportDir      where worker logs and the merged report go
+     * @param history        test history file used to weight the shards; may be missing
+     * @param stub           give each worker its own books stub instead of the configured server
+     * @param jvmArgs        extra arguments for each worker JVM, e.g. {@code -Xmx512m} or {@code -Dload.users=64}
+     * @param timeout        how long the whole run may take before the workers are killed
+     * @param workerMain     main class each worker JVM runs; it must speak {@link WorkerProtocol}, as
+     *                       {@code SuiteWorker} does
+     */
+    public record Options(int workers, List<String> classes, String classpath, String groups, String excludedGroups,
+                          Path reportDir, Path history, boolean stub, List<String> jvmArgs, Duration timeout,
+                          String workerMain) {
+
+        public Options {
+            if (workers < 1) {
+                throw new IllegalArgumentException("workers must be at least 1: " + workers);
+            }
+            classes = List.copyOf(classes);
+            jvmArgs = List.copyOf(jvmArgs);
+        }
+
+        public static Options defaults() {
+            return new Options(Runtime.getRuntime().availableProcessors(), List.of(),
+                    System.getProperty("java.class.path"), "", "load", Path.of("target", "distributed-reports"),
+                    Path.of(System.getProperty("test.history.file", "target/test-history.tsv")), true, List.of(),
+                    Duration.ofMinutes(30), "SuiteWorker");
+        }
+    }
+
+    /**
+     * Counts over every worker; a worker that died before finishing counts as one failure.
+     */
+    public record Summary(int workers, long passed, long failed, long skipped, int crashedWorkers, Duration elapsed,
+                          Path report) {
+
+        public long total() {
+            return passed + failed + skipped;
+        }
+
+        public int exitCode() {
+            return failed > 0 || crashedWorkers > 0 ? 1 : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Distributed run on %d worker(s): %d tests, %d passed, %d failed, %d skipped%s in %.1f s; report %s",
+                    workers, total(), passed, failed, skipped,
+                    crashedWorkers == 0 ? "" : ", " + crashedWorkers + " worker(s) crashed",
+                    elapsed.toNanos() / 1e9, report);
+        }
+    }
+
+    public Summary run() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        List<String> classes = options.classes().isEmpty() ? discover(options.classpath()) : options.classes();
+        if (classes.isEmpty()) {
+            throw new IllegalStateException("No test classes found on " + options.classpath());
+        }
+        List<List<String>> shards = shard(classes, classWeights(options.history()), options.workers());
+        Files.createDirectories(options.reportDir());
+        Map<String, List<WorkerProtocol.TestResult>> results = new LinkedHashMap<>();
+        int crashed = 0;
+        List<Process> processes = new ArrayList<>();
+        long salt = firstSalt(shards.size());
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+             ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < shards.size(); i++) {
+                processes.add(fork(i, server.getLocalPort(), salt + i));
+            }
+            long deadline = System.nanoTime() + options.timeout().toNanos();
+            Map<Integer, Future<Boolean>> finished = new HashMap<>();
+            for (int i = 0; i < shards.size(); i++) {
+                results.put(workerName(i), Collections.synchronizedList(new ArrayList<>()));
+            }
+            server.setSoTimeout(1000);
+            long connectDeadline = System.nanoTime() + CONNECT_TIMEOUT.toNanos();
+            while (finished.size() < shards.size() && System.nanoTime() < connectDeadline
+                    && processes.stream().anyMatch(Process::isAlive)) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketTimeoutException e) {
+                    continue;
+                }
+                WorkerProtocol.Connection connection = new WorkerProtocol.Connection(socket);
+                int index = greeting(socket, connection, shards.size());
+                if (index < 0 || finished.containsKey(index)) {
+                    // a stray or repeated connection must not take over a shard that is already running
+                    connection.close();
+                    continue;
+                }
+                List<String> shard = shards.get(index);
+                connection.send(WorkerProtocol.RUN, String.join(",", shard), options.groups(), options.excludedGroups());
+                List<WorkerProtocol.TestResult> sink = results.get(workerName(index));
+                finished.put(index, readers.submit(() -> collect(index, connection, sink)));
+            }
+            for (int i = 0; i < shards.size(); i++) {
+                Process process = processes.get(i);
+                boolean exited = process.waitFor(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                if (!exited) {
+                    process.destroyForcibly().waitFor();
+                }
+                Future<Boolean> done = finished.get(i);
+                boolean completed = false;
+                if (done != null) {
+                    try {
+                        completed = done.get(5, TimeUnit.SECONDS);
+                    } catch (ExecutionException | TimeoutException e) {
+                        completed = false;
+                    }
+                }
+                if (!completed) {
+                    crashed++;
+                    String reason = exited ? "exited with code " + process.exitValue() : "timed out after " + options.timeout();
+                    results.get(workerName(i)).add(new WorkerProtocol.TestResult("FAIL", "worker-" + i, "run", false,
+                            System.currentTimeMillis(), System.currentTimeMillis(), "", "java.lang.IllegalStateException",
+                            "Worker " + i + " " + reason + " before finishing " + shards.get(i) + "; see "
+                            + log(i), ""));
+                    System.out.println("[" + workerName(i) + "] " + reason + " before finishing; see " + log(i));
+                }
+            }
+        } finally {
+            processes.forEach(Process::destroyForcibly);
+        }
+        Path report = options.reportDir().resolve("testng-results.xml");
+        TestNgReport.write(report, "Distributed suite", results);
+        long passed = 0;
+        long failed = 0;
+        long skipped = 0;
+        for (List<WorkerProtocol.TestResult> workerResults : results.values()) {
+            for (WorkerProtocol.TestResult result : workerResults) {
+                if (result.config() && !"FAIL".equals(result.status())) {
+                    continue;
+                }
+                switch (result.status()) {
+                    case "PASS" -> passed++;
+                    case "FAIL" -> failed++;
+                    default -> skipped++;
+                }
+            }
+        }
+        return new Summary(shards.size(), passed, failed, skipped, crashed, Duration.ofNanos(System.nanoTime() - start),
+                report);
+    }
+
+    /**
+     * The worker index the {@code HELLO} on a new connection names, or -1 if the connection sends anything else,
+     * nothing within ten seconds, or an index that is not one of ours.
+     */
+    private static int greeting(Socket socket, WorkerProtocol.Connection connection, int workers) {
+        String[] hello;
+        try {
+            socket.setSoTimeout(10_000);
+            hello = connection.receive();
+            socket.setSoTimeout(0);
+        } catch (IOException e) {
+            return -1;
+        }
+        if (hello == null || hello.length != 2 || !WorkerProtocol.HELLO.equals(hello[0])) {
+            return -1;
+        }
+        try {
+            int index = Integer.parseInt(hello[1]);
+            return index >= 0 && index < workers ? index : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Reads results until the worker reports it is finished; failures are printed as they arrive.
+     */
+    private Boolean collect(int index, WorkerProtocol.Connection connection, List<WorkerProtocol.TestResult> sink)
+            throws IOException {
+        try (connection) {
+            for (String[] message; (message = connection.receive()) != null; ) {
+                if (WorkerProtocol.FINISHED.equals(message[0])) {
+                    return true;
+                }
+                WorkerProtocol.TestResult result = WorkerProtocol.TestResult.of(message);
+                sink.add(result);
+                if ("FAIL".equals(result.status())) {
+                    System.out.println("[" + workerName(index) + "] " + result);
+                }
+            }
+            return false;
+        }
+    }
+
+    private Process fork(int index, int port, long salt) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Dresults.stream.dir=" + options.reportDir().resolve("results"));
+        command.add("-Dtestdata.salt=" + salt);
+        command.addAll(options.jvmArgs());
+        if (options.stub()) {
+            command.add("-Dbooks.stub=on");
+            command.add("-Dbase.url=http://127.0.0.1:" + freePort());
+        }
+        command.add("-Dtest.history.file=" + options.history());
+        command.add("-cp");
+        command.add(options.classpath());
+        command.add(options.workerMain());
+        command.add(InetAddress.getLoopbackAddress().getHostAddress());
+        command.add(Integer.toString(port));
+        command.add(Integer.toString(index));
+        command.add(options.reportDir().resolve(workerName(index)).toString());
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log(index).toFile())
+                .start();
+    }
+
+    /**
+     * The {@code testdata.salt} of worker 0; worker {@code i} gets this plus {@code i}. Like the salt {@code TestData}
+     * draws for itself, it has the current minute in the high bits and a random start in the ten low bits, chosen so
+     * that every worker's salt still fits below the minute.
+     */
+    private static long firstSalt(int workers) {
+        int start = ThreadLocalRandom.current().nextInt(Math.max(1025 - workers, 1));
+        return System.currentTimeMillis() / 60_000 << 10 | start;
+    }
+
+    private Path log(int index) {
+        return options.reportDir().resolve(workerName(index) + ".log");
+    }
+
+    private static String workerName(int index) {
+        return "worker-" + index;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Test classes in every {@code test-classes} directory of {@code classpath}, matched with Surefire's default
+     * includes ({@code Test*}, {@code *Test}, {@code *Tests}, {@code *TestCase}).
+     */
+    static List<String> discover(String classpath) throws IOException {
+        List<String> classes = new ArrayList<>();
+        for (String entry : classpath.split(File.pathSeparator)) {
+            Path root = Path.of(entry);
+            if (!Files.isDirectory(root) || !root.getFileName().toString().equals("test-classes")) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(root)) {
+                files.filter(f -> TEST_CLASS.matcher(f.getFileName().toString()).matches())
+                        .map(f -> root.relativize(f).toString())
+                        .map(name -> name.substring(0, name.length() - ".class".length()).replace(File.separatorChar, '.'))
+                        .sorted()
+                        .forEach(classes::add);
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Expected milliseconds per class, summed from the {@code Class.method} lines of the test history.
+     */
+    static Map<String, Double> classWeights(Path history) {
+        Map<String, Double> weights = new HashMap<>();
+        if (!Files.exists(history)) {
+            return weights;
+        }
+        try {
+            for (String line : Files.readAllLines(history, StandardCharsets.UTF_8)) {
+                String[] fields = line.split("\t");
+                int dot = fields[0].lastIndexOf('.');
+                if (line.startsWith("#") || fields.length < 3 || dot < 0) {
+                    continue;
+                }
+                try {
+                    weights.merge(fields[0].substring(0, dot), Double.parseDouble(fields[2]), Double::sum);
+                } catch (NumberFormatException e) {
+                    // an unreadable line only costs that class its weight
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return weights;
+    }
+
+    /**
+     * Longest-processing-time-first split of {@code classes} into at most {@code workers} non-empty shards.
+     */
+    static List<List<String>> shard(List<String> classes, Map<String, Double> weights, int workers) {
+        double[] known = classes.stream().filter(weights::containsKey).mapToDouble(weights::get).sorted().toArray();
+        double unknown = known.length == 0 ? 1 : known[known.length / 2];
+        List<String> ordered = new ArrayList<>(classes);
+        ordered.sort(Comparator.comparingDouble((String c) -> -weights.getOrDefault(c, unknown))
+                .thenComparing(Comparator.naturalOrder()));
+        int count = Math.min(workers, classes.size());
+        List<List<String>> shards = new ArrayList<>();
+        double[] load = new double[count];
+        for (int i = 0; i < count; i++) {
+            shards.add(new ArrayList<>());
+        }
+        for (String cls : ordered) {
+            int least = 0;
+            for (int i = 1; i < count; i++) {
+                if (load[i] < load[least]) {
+                    least = i;
+                }
+            }
+            shards.get(least).add(cls);
+            load[least] += Math.max(weights.getOrDefault(cls, unknown), 1);
+        }
+        return shards;
+    }
+}
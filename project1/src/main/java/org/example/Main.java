@@ -1,19 +1,85 @@
 package org.example;
 
-// Press Shift twice to open the Search Everywhere dialog and type `show whitespaces`,
-// then press Enter. You can now see whitespace characters in your code.
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Command line entry point of the distributed suite runner; see {@link Coordinator}.
+ * <p>
+ * Run it with the test classpath, e.g. {@code mvn test-compile exec:exec -Pdistributed -Ddist.args="--workers 4"}.
+ */
 public class Main {
-    public static void main(String[] args) {
-        // Press Alt+Enter with your caret at the highlighted text to see how
-        // IntelliJ IDEA suggests fixing it.
-        System.out.printf("Hello and welcome!");
 
-        // Press Shift+F10 or click the green arrow button in the gutter to run the code.
-        for (int i = 1; i <= 5; i++) {
+    private static final String USAGE = """
+            Usage: Main [options]
+              --workers N           worker JVMs to fork (default: available processors)
+              --classes A,B         test classes to run (default: every test class in test-classes)
+              --groups G            TestNG groups to include, comma-separated
+              --exclude-groups G    TestNG groups to exclude (default: load)
+              --report DIR          worker logs and merged testng-results.xml (default: target/distributed-reports)
+              --history FILE        test history used to balance the shards (default: target/test-history.tsv)
+              --external            run every worker against the configured base.url instead of its own stub
+              --jvm-arg ARG         extra worker JVM argument, repeatable
+              --timeout MINUTES     kill the workers after this long (default: 30)
+              --help                print this help
+            """;
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.print(USAGE);
+            return;
+        }
+        Coordinator.Options options;
+        try {
+            options = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            System.exit(2);
+            return;
+        }
+        Coordinator.Summary summary = new Coordinator(options).run();
+        System.out.println(summary);
+        System.exit(summary.exitCode());
+    }
 
-            // Press Shift+F9 to start debugging your code. We have set one breakpoint
-            // for you, but you can always add more by pressing Ctrl+F8.
-            System.out.println("i = " + i);
+    static Coordinator.Options parse(String[] args) {
+        Coordinator.Options defaults = Coordinator.Options.defaults();
+        int workers = defaults.workers();
+        List<String> classes = defaults.classes();
+        String groups = defaults.groups();
+        String excludedGroups = defaults.excludedGroups();
+        Path reportDir = defaults.reportDir();
+        Path history = defaults.history();
+        boolean stub = defaults.stub();
+        List<String> jvmArgs = new ArrayList<>(defaults.jvmArgs());
+        Duration timeout = defaults.timeout();
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--external")) {
+                stub = false;
+                continue;
+            }
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--workers" -> workers = Integer.parseInt(value);
+                case "--classes" -> classes = Arrays.stream(value.split(",")).map(String::trim).filter(c -> !c.isEmpty()).toList();
+                case "--groups" -> groups = value;
+                case "--exclude-groups" -> excludedGroups = value;
+                case "--report" -> reportDir = Path.of(value);
+                case "--history" -> history = Path.of(value);
+                case "--jvm-arg" -> jvmArgs.add(value);
+                case "--timeout" -> timeout = Duration.ofMinutes(Long.parseLong(value));
+                default -> throw new IllegalArgumentException("Unknown option " + option);
+            }
         }
+        return new Coordinator.Options(workers, classes, defaults.classpath(), groups, excludedGroups, reportDir,
+                history, stub, jvmArgs, timeout, defaults.workerMain());
     }
-}
\ No newline at end of file
+}
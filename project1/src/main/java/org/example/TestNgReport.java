@@ -0,0 +1,122 @@
+package org.example;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes merged worker results as a {@code testng-results.xml} in the layout TestNG's own XML reporter uses, so
+ * CI plugins that read TestNG reports pick up a distributed run like a local one. Each worker becomes a
+ * {@code <test>} of one suite.
+ */
+public final class TestNgReport {
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+            .withZone(ZoneOffset.UTC);
+
+    private TestNgReport() {
+    }
+
+    public static void write(Path file, String suiteName, Map<String, List<WorkerProtocol.TestResult>> resultsByWorker)
+            throws IOException {
+        long passed = 0;
+        long failed = 0;
+        long skipped = 0;
+        long start = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        for (List<WorkerProtocol.TestResult> results : resultsByWorker.values()) {
+            for (WorkerProtocol.TestResult result : results) {
+                start = Math.min(start, result.startMillis());
+                end = Math.max(end, result.endMillis());
+                if (result.config() && !"FAIL".equals(result.status())) {
+                    continue;
+                }
+                switch (result.status()) {
+                    case "PASS" -> passed++;
+                    case "FAIL" -> failed++;
+                    default -> skipped++;
+                }
+            }
+        }
+        if (start > end) {
+            start = end = System.currentTimeMillis();
+        }
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            out.write("<testng-results ignored=\"0\" total=\"" + (passed + failed + skipped) + "\" passed=\"" + passed
+                    + "\" failed=\"" + failed + "\" skipped=\"" + skipped + "\">\n");
+            out.write("  <reporter-output>\n  </reporter-output>\n");
+            out.write("  <suite name=\"" + attribute(suiteName) + "\"" + span(start, end) + ">\n");
+            out.write("    <groups>\n    </groups>\n");
+            for (Map.Entry<String, List<WorkerProtocol.TestResult>> worker : resultsByWorker.entrySet()) {
+                writeTest(out, worker.getKey(), worker.getValue());
+            }
+            out.write("  </suite>\n");
+            out.write("</testng-results>\n");
+        }
+    }
+
+    private static void writeTest(BufferedWriter out, String name, List<WorkerProtocol.TestResult> results)
+            throws IOException {
+        Map<String, StringBuilder> classes = new LinkedHashMap<>();
+        long start = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        for (WorkerProtocol.TestResult result : results) {
+            start = Math.min(start, result.startMillis());
+            end = Math.max(end, result.endMillis());
+            StringBuilder methods = classes.computeIfAbsent(result.className(), k -> new StringBuilder());
+            methods.append("        <test-method status=\"").append(result.status()).append('"');
+            if (result.config()) {
+                methods.append(" is-config=\"true\"");
+            }
+            methods.append(" signature=\"").append(attribute(result.method())).append("()\" name=\"")
+                    .append(attribute(result.method())).append('"').append(span(result.startMillis(), result.endMillis()))
+                    .append(">\n");
+            if (!result.parameters().isEmpty()) {
+                methods.append("          <params>\n            <param index=\"0\">\n              <value>")
+                        .append(cdata(result.parameters())).append("</value>\n            </param>\n          </params>\n");
+            }
+            if (!result.exceptionClass().isEmpty()) {
+                methods.append("          <exception class=\"").append(attribute(result.exceptionClass())).append("\">\n")
+                        .append("            <message>").append(cdata(result.message())).append("</message>\n")
+                        .append("            <full-stacktrace>").append(cdata(result.stackTrace()))
+                        .append("</full-stacktrace>\n          </exception>\n");
+            }
+            methods.append("        </test-method>\n");
+        }
+        if (start > end) {
+            start = end = System.currentTimeMillis();
+        }
+        out.write("    <test name=\"" + attribute(name) + "\"" + span(start, end) + ">\n");
+        for (Map.Entry<String, StringBuilder> cls : classes.entrySet()) {
+            out.write("      <class name=\"" + attribute(cls.getKey()) + "\">\n");
+            out.append(cls.getValue());
+            out.write("      </class>\n");
+        }
+        out.write("    </test>\n");
+    }
+
+    private static String span(long start, long end) {
+        return " duration-ms=\"" + (end - start) + "\" started-at=\"" + TIME.format(Instant.ofEpochMilli(start))
+                + "\" finished-at=\"" + TIME.format(Instant.ofEpochMilli(end)) + "\"";
+    }
+
+    private static String attribute(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static String cdata(String text) {
+        return "<![CDATA[" + text.replace("]]>", "]]]]><![CDATA[>") + "]]>";
+    }
+}
@@ -0,0 +1,145 @@
+package org.example;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The line protocol between the {@link Coordinator} and its worker JVMs.
+ * <p>
+ * Every message is one line of tab-separated fields, the first naming the message; backslash, tab and line breaks
+ * inside a field are escaped. A worker connects and sends {@code HELLO <index>}, receives one
+ * {@code RUN <classes> <groups> <excludedGroups>} with comma-separated lists, then streams a {@code RESULT} per
+ * finished test or failed configuration method and ends with {@code FINISHED <status>}. The coordinator closes a
+ * connection whose {@code HELLO} names an index it did not fork, or one that has already connected.
+ */
+public final class WorkerProtocol {
+
+    public static final String HELLO = "HELLO";
+    public static final String RUN = "RUN";
+    public static final String RESULT = "RESULT";
+    public static final String FINISHED = "FINISHED";
+
+    private WorkerProtocol() {
+    }
+
+    public static String encode(String... fields) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            String field = fields[i] == null ? "" : fields[i];
+            for (int j = 0; j < field.length(); j++) {
+                char c = field.charAt(j);
+                switch (c) {
+                    case '\\' -> line.append("\\\\");
+                    case '\t' -> line.append("\\t");
+                    case '\n' -> line.append("\\n");
+                    case '\r' -> line.append("\\r");
+                    default -> line.append(c);
+                }
+            }
+        }
+        return line.toString();
+    }
+
+    public static String[] decode(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\t') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char next = line.charAt(++i);
+                field.append(switch (next) {
+                    case 't' -> '\t';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    default -> next;
+                });
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * One end of a worker connection; {@link #send} may be called from several threads.
+     */
+    public static final class Connection implements AutoCloseable {
+
+        private final Socket socket;
+        private final BufferedReader in;
+        private final BufferedWriter out;
+
+        public Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        public synchronized void send(String... fields) throws IOException {
+            out.write(encode(fields));
+            out.write('\n');
+            out.flush();
+        }
+
+        /**
+         * The next message's fields, or {@code null} once the other side has closed the connection.
+         */
+        public String[] receive() throws IOException {
+            String line = in.readLine();
+            return line == null ? null : decode(line);
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    /**
+     * The outcome of one test method invocation, or of a failed configuration method when {@code config} is set.
+     *
+     * @param status     {@code PASS}, {@code FAIL} or {@code SKIP}, as in {@code testng-results.xml}
+     * @param parameters the data provider row, already rendered, or empty
+     */
+    public record TestResult(String status, String className, String method, boolean config, long startMillis,
+                             long endMillis, String parameters, String exceptionClass, String message,
+                             String stackTrace) {
+
+        public String[] fields() {
+            return new String[]{RESULT, status, className, method, Boolean.toString(config), Long.toString(startMillis),
+                    Long.toString(endMillis), parameters, exceptionClass, message, stackTrace};
+        }
+
+        public static TestResult of(String[] fields) {
+            if (fields.length != 11 || !RESULT.equals(fields[0])) {
+                throw new IllegalArgumentException("Malformed " + RESULT + " message with " + fields.length + " fields");
+            }
+            return new TestResult(fields[1], fields[2], fields[3], Boolean.parseBoolean(fields[4]),
+                    Long.parseLong(fields[5]), Long.parseLong(fields[6]), fields[7], fields[8], fields[9], fields[10]);
+        }
+
+        public long durationMillis() {
+            return endMillis - startMillis;
+        }
+
+        @Override
+        public String toString() {
+            return status + " " + className + "." + method + (parameters.isEmpty() ? "" : parameters)
+                    + " (" + durationMillis() + " ms)" + (message.isEmpty() ? "" : ": " + message);
+        }
+    }
+}
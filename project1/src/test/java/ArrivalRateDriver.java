@@ -0,0 +1,107 @@
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator: issues requests on the schedule given by a {@link RateProfile}, whether or not earlier
+ * responses have come back.
+ * <p>
+ * A single scheduler thread computes each request's intended send time from the profile and hands the request to
+ * a fresh virtual thread at that moment. If the scheduler falls behind it sends immediately and records the lag
+ * rather than skipping slots, and latency is always taken from the intended time; see {@link ArrivalRateReport}.
+ * <p>
+ * Arrivals follow the integral of the rate: the gap to the next request is sized for the current rate, but the
+ * rate is sampled again at least every millisecond on the way, so a slow start such as a linear ramp from zero
+ * does not stretch one early gap over most of the run.
+ */
+public final class ArrivalRateDriver {
+
+    public static final int DEFAULT_MAX_OUTSTANDING = 10_000;
+
+    private static final long IDLE_STEP_NANOS = Duration.ofMillis(1).toNanos();
+
+    private ArrivalRateDriver() {
+    }
+
+    public static ArrivalRateReport run(Scenario scenario, RateProfile profile) {
+        return run(scenario, profile, DEFAULT_MAX_OUTSTANDING);
+    }
+
+    /**
+     * @param maxOutstanding upper bound on requests in flight; scheduled requests beyond it are dropped instead of
+     *                       growing the backlog without limit. A drop still counts as a failed sample, with the
+     *                       latency it would have had at best: until the next request in flight freed its slot.
+     */
+    public static ArrivalRateReport run(Scenario scenario, RateProfile profile, int maxOutstanding) {
+        ArrivalRateReport report = new ArrivalRateReport(profile);
+        Semaphore outstanding = new Semaphore(maxOutstanding);
+        Queue<Long> dropped = new ConcurrentLinkedQueue<>();
+        long durationNanos = profile.duration().toNanos();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("arrival-", 0).factory())) {
+            long offset = 0;
+            // fraction of the next request accumulated so far; the first one is due as soon as the rate is positive
+            double due = 1;
+            while (offset < durationNanos) {
+                double rate = profile.rateAt(offset);
+                if (rate <= 0) {
+                    offset += IDLE_STEP_NANOS;
+                    continue;
+                }
+                long gap = Math.max(Math.round((1 - due) * 1e9 / rate), 0);
+                if (gap > IDLE_STEP_NANOS) {
+                    due += rate * IDLE_STEP_NANOS / 1e9;
+                    offset += IDLE_STEP_NANOS;
+                    continue;
+                }
+                offset += gap;
+                due = 0;
+                if (offset >= durationNanos) {
+                    break;
+                }
+                long intended = start + offset;
+                long now;
+                while ((now = System.nanoTime()) < intended) {
+                    LockSupport.parkNanos(intended - now);
+                }
+                report.scheduled(now - intended);
+                if (outstanding.tryAcquire()) {
+                    executor.execute(() -> {
+                        long sent = System.nanoTime();
+                        String error;
+                        try {
+                            error = scenario.execute();
+                        } catch (Exception e) {
+                            // also the checked I/O exceptions RestAssured rethrows undeclared, e.g. a reset connection
+                            error = scenario.name() + ": " + e;
+                        } finally {
+                            outstanding.release();
+                            recordDrops(dropped, report);
+                        }
+                        report.completed(intended, sent, System.nanoTime(), error);
+                    });
+                } else {
+                    dropped.add(intended);
+                    // a slot freed up since tryAcquire, before the drop was queued
+                    if (outstanding.availablePermits() > 0) {
+                        recordDrops(dropped, report);
+                    }
+                }
+            }
+        }
+        recordDrops(dropped, report);
+        report.finish(Duration.ofNanos(System.nanoTime() - start));
+        return report;
+    }
+
+    private static void recordDrops(Queue<Long> dropped, ArrivalRateReport report) {
+        long now = System.nanoTime();
+        for (Long intended = dropped.poll(); intended != null; intended = dropped.poll()) {
+            report.drop(intended, now);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Results of an open-loop run.
+ * <p>
+ * {@link #latency()} is measured from each request's <em>intended</em> send time, so time spent waiting behind a
+ * stalled server or a late scheduler counts against the request (no coordinated omission). {@link #serviceTime()}
+ * is the classic send-to-response time for comparison, and {@link #scheduleLag()} is how late the driver
+ * actually dispatched each request.
+ * <p>
+ * A request dropped because too many were outstanding is an error and a latency sample as well, lasting until a
+ * slot freed up; leaving it out would hide exactly the requests an overloaded target made wait longest.
+ */
+public final class ArrivalRateReport {
+
+    private final String profile;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+    private final LatencyHistogram scheduleLag = new LatencyHistogram();
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicReference<String> firstError = new AtomicReference<>();
+    private volatile Duration elapsed = Duration.ZERO;
+
+    ArrivalRateReport(RateProfile profile) {
+        this.profile = profile.toString();
+    }
+
+    void scheduled(long lagNanos) {
+        scheduled.increment();
+        scheduleLag.record(lagNanos);
+    }
+
+    void drop(long intendedNanos, long freedNanos) {
+        dropped.increment();
+        latency.record(freedNanos - intendedNanos);
+        error("dropped: too many requests outstanding");
+    }
+
+    void completed(long intendedNanos, long sentNanos, long doneNanos, String error) {
+        completed.increment();
+        latency.record(doneNanos - intendedNanos);
+        serviceTime.record(doneNanos - sentNanos);
+        if (error != null) {
+            error(error);
+        }
+    }
+
+    private void error(String error) {
+        errors.increment();
+        firstError.compareAndSet(null, error);
+    }
+
+    void finish(Duration elapsed) {
+        this.elapsed = elapsed;
+    }
+
+    public LatencyHistogram latency() {
+        return latency;
+    }
+
+    public LatencyHistogram serviceTime() {
+        return serviceTime;
+    }
+
+    public LatencyHistogram scheduleLag() {
+        return scheduleLag;
+    }
+
+    public long scheduledCount() {
+        return scheduled.sum();
+    }
+
+    public long completed() {
+        return completed.sum();
+    }
+
+    /**
+     * Failed requests, drops included.
+     */
+    public long errors() {
+        return errors.sum();
+    }
+
+    /**
+     * Requests not sent because too many were already outstanding.
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public String firstError() {
+        return firstError.get();
+    }
+
+    public Duration elapsed() {
+        return elapsed;
+    }
+
+    public double achievedRate() {
+        double seconds = elapsed.toNanos() / 1e9;
+        return seconds == 0 ? 0 : completed() / seconds;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("profile %s: scheduled %d, completed %d, errors %d, dropped %d in %.1f s (achieved %.1f req/s)%n",
+                profile, scheduledCount(), completed(), errors(), dropped(), elapsed.toNanos() / 1e9, achievedRate()));
+        out.append(String.format("%-16s %9s %9s %9s %9s %9s%n", "ms", "p50", "p90", "p99", "p99.9", "max"));
+        row(out, "latency", latency);
+        row(out, "service time", serviceTime);
+        row(out, "schedule lag", scheduleLag);
+        return out.toString();
+    }
+
+    private static void row(StringBuilder out, String name, LatencyHistogram h) {
+        out.append(String.format("%-16s %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, LoadReport.millis(h.percentile(50)),
+                LoadReport.millis(h.percentile(90)), LoadReport.millis(h.percentile(99)),
+                LoadReport.millis(h.percentile(99.9)), LoadReport.millis(h.max())));
+    }
+}
@@ -0,0 +1,107 @@
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class ArrivalRateTests {
+
+    @Test
+    public void testConstantRateSmoke() {
+        RateProfile profile = RateProfile.constant(20, Duration.ofSeconds(2));
+
+        ArrivalRateReport report = ArrivalRateDriver.run(BookScenarios.mandatoryParameters(1), profile);
+
+        System.out.print(report);
+
+        // Assertions
+        assertEquals(report.scheduledCount(), 40L, "Expected one request every 50 ms");
+        assertEquals(report.completed(), 40L, "Expected every scheduled request to complete");
+        assertEquals(report.errors(), 0L, "Unexpected failure: " + report.firstError());
+        assertTrue(report.latency().percentile(50) >= report.serviceTime().percentile(50),
+                "Latency from the intended send time can never be below service time");
+    }
+
+    @Test
+    public void testDropsCountAsFailedSamples() {
+        Scenario slow = new Scenario("slow", 1, Credentials.USER, () -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of();
+        });
+
+        ArrivalRateReport report = ArrivalRateDriver.run(slow, RateProfile.constant(100, Duration.ofMillis(500)), 1);
+
+        System.out.print(report);
+
+        // Assertions
+        assertEquals(report.scheduledCount(), 50L);
+        assertTrue(report.dropped() > 0, "One slot cannot take a request every 10 ms of 200 ms each");
+        assertEquals(report.completed() + report.dropped(), 50L);
+        assertEquals(report.latency().count(), 50L, "Every drop should be a latency sample too");
+        assertEquals(report.errors(), report.dropped());
+        assertTrue(report.firstError().startsWith("dropped"), report.firstError());
+        assertTrue(report.latency().percentile(90) >= Duration.ofMillis(100).toNanos(),
+                "Drops should wait for the slot to free up:\n" + report);
+    }
+
+    @Test
+    public void testLinearRampFromZeroSendsItsIntegral() {
+        Scenario noop = new Scenario("noop", 1, Credentials.USER, List::of);
+
+        ArrivalRateReport report = ArrivalRateDriver.run(noop, RateProfile.linear(0, 200, Duration.ofSeconds(1)));
+
+        // Assertions
+        assertTrue(report.scheduledCount() >= 95 && report.scheduledCount() <= 101,
+                "A ramp from 0 to 200/s over a second should send about 100 requests:\n" + report);
+    }
+
+    @Test
+    public void testRampProfiles() {
+        Duration second = Duration.ofSeconds(1);
+
+        RateProfile step = RateProfile.step(100, 100, second, 3);
+        RateProfile linear = RateProfile.linear(0, 1000, Duration.ofSeconds(10));
+        RateProfile spike = RateProfile.spike(100, 5000, second, second, Duration.ofSeconds(5));
+
+        // Assertions
+        assertEquals(step.rateAt(0), 100.0);
+        assertEquals(step.rateAt(second.toNanos() * 2 + 1), 300.0);
+        assertEquals(step.rateAt(second.toNanos() * 10), 300.0, "The last step holds until the end");
+        assertEquals(step.duration(), Duration.ofSeconds(3));
+        assertEquals(linear.rateAt(Duration.ofSeconds(5).toNanos()), 500.0);
+        assertEquals(spike.rateAt(second.toNanos() / 2), 100.0);
+        assertEquals(spike.rateAt(second.toNanos() + 1), 5000.0);
+        assertEquals(spike.rateAt(second.toNanos() * 2), 100.0);
+    }
+
+    // mvn test -Pload -Dtest=ArrivalRateTests [-Darrival.rate=2000] [-Darrival.seconds=60] [-Darrival.profile=spike]
+    // -Darrival.profile=configured -Dconfig.file=load.properties follows arrival.rate in that file while it runs
+    @Test(groups = "load")
+    public void testOpenLoopLoad() {
+        SuiteConfig config = SuiteConfig.current();
+        double rate = config.getDouble("arrival.rate", 2000);
+        Duration duration = Duration.ofSeconds(config.getLong("arrival.seconds", 30));
+        Duration tenth = duration.dividedBy(10);
+        RateProfile profile = switch (config.get("arrival.profile", "constant")) {
+            case "configured" -> RateProfile.configured("arrival.rate", rate, duration);
+            case "step" -> RateProfile.step(rate / 5, rate / 5, duration.dividedBy(5), 5);
+            case "linear" -> RateProfile.linear(0, rate, duration);
+            case "spike" -> RateProfile.spike(rate / 4, rate, tenth.multipliedBy(4), tenth, duration);
+            default -> RateProfile.constant(rate, duration);
+        };
+
+        ArrivalRateReport report = ArrivalRateDriver.run(BookScenarios.mandatoryParameters(1), profile);
+
+        System.out.print(report);
+
+        // Assertions
+        assertEquals(report.errors(), 0L, "Unexpected failure: " + report.firstError());
+        assertEquals(report.dropped(), 0L, "Requests were dropped, the target could not keep up");
+    }
+}
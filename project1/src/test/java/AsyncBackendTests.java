@@ -0,0 +1,85 @@
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class AsyncBackendTests {
+
+    private AsyncBooksClient client;
+
+    @BeforeClass
+    public void setup() {
+        client = new AsyncBooksClient();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown() {
+        client.close();
+    }
+
+    @Test
+    public void testCreateBookAsync() throws Exception {
+        String requestBody = "{\"title\":\"" + TestData.unique("Sherlock Holmes in Washington") + "\",\"author\":\"Dun Colegate\"}";
+
+        HttpResponse<String> response = client.post(Credentials.USER, requestBody).get(30, TimeUnit.SECONDS);
+
+        // Assertions
+        assertEquals(response.statusCode(), 201, "Expected status code 201");
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("application/json"),
+                "Expected a JSON response");
+    }
+
+    @Test
+    public void testScenarioAssertionsMatchRestAssuredPath() throws Exception {
+        Scenario duplicate = BookScenarios.duplicateData(1);
+        Scenario wrongExpectation = new Scenario("emptyTitle", 1, Credentials.USER,
+                () -> List.of(new Scenario.Step("{\"title\":\"\",\"author\":\"\"}", 201)));
+
+        // Assertions
+        assertNull(client.execute(duplicate).get(30, TimeUnit.SECONDS), "201 then 208 should pass");
+        String error = client.execute(wrongExpectation).get(30, TimeUnit.SECONDS);
+        assertNotNull(error, "A 400 must not satisfy an expected 201");
+        assertEquals(error, wrongExpectation.execute(), "Both backends should report the same failure");
+    }
+
+    @Test
+    public void testPipelinedBatch() throws Exception {
+        Workload workload = BookScenarios.apiTestsMix();
+        List<Scenario> batch = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            batch.add(workload.pick());
+        }
+
+        LoadReport report = client.submitBatch(batch, 128).get(60, TimeUnit.SECONDS);
+
+        System.out.print(report);
+
+        // Assertions
+        assertEquals(report.iterations(), 400L, "Expected every scenario in the batch to complete");
+        assertEquals(report.errors(), 0L, "Unexpected failure: " + report.firstError());
+    }
+
+    @Test
+    public void testBatchRecordsAScenarioThatThrows() throws Exception {
+        Scenario broken = new Scenario("broken", 1, Credentials.USER, () -> {
+            throw new IllegalStateException("no steps today");
+        });
+        List<Scenario> batch = List.of(broken, BookScenarios.duplicateData(1), broken, broken);
+
+        LoadReport report = client.submitBatch(batch, 1).get(30, TimeUnit.SECONDS);
+
+        // Assertions
+        assertEquals(report.iterations(), 4L, "A throwing scenario must neither leak its slot nor stop the batch");
+        assertEquals(report.errors(), 3L);
+        assertTrue(report.firstError().contains("no steps today"), report.firstError());
+    }
+}
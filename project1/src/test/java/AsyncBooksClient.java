@@ -0,0 +1,124 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Non-blocking alternative to the RestAssured calls, built on {@link HttpClient} and {@link CompletableFuture}.
+ * <p>
+ * A request does not hold a thread while it waits for the server, so one submitting thread can keep thousands of
+ * creates in flight. {@link #submitBatch} pipelines a batch of {@link Scenario}s: it starts a new scenario as soon
+ * as an in-flight slot frees up, while the steps inside each scenario still run in order. Responses are checked
+ * with {@link Scenario.Step#check}, the same status, content type and body rules the RestAssured path uses.
+ */
+public final class AsyncBooksClient implements AutoCloseable {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final URI endpoint;
+
+    public AsyncBooksClient() {
+        this(URI.create(SuiteConfig.current().baseUrl() + SuiteConfig.current().apiEndpoint()));
+    }
+
+    public AsyncBooksClient(URI endpoint) {
+        this.endpoint = endpoint;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public CompletableFuture<HttpResponse<String>> post(Credentials credentials, String body) {
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(REQUEST_TIMEOUT)
+                .header(credentials.header().getName(), credentials.header().getValue())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Runs one iteration of {@code scenario}, each step starting when the previous response has been checked.
+     *
+     * @return a future holding {@code null} on success or the first failure, like {@link Scenario#execute()}
+     */
+    public CompletableFuture<String> execute(Scenario scenario) {
+        return executeSteps(scenario, scenario.steps().get().iterator());
+    }
+
+    private CompletableFuture<String> executeSteps(Scenario scenario, Iterator<Scenario.Step> steps) {
+        if (!steps.hasNext()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Scenario.Step step = steps.next();
+        return post(scenario.credentials(), step.body()).thenCompose(response -> {
+            String error = step.check(response.statusCode(),
+                    response.headers().firstValue("Content-Type").orElse(null), response.body());
+            return error != null
+                    ? CompletableFuture.completedFuture(scenario.name() + ": " + error)
+                    : executeSteps(scenario, steps);
+        });
+    }
+
+    /**
+     * Submits every scenario in {@code batch} with at most {@code maxInFlight} of them outstanding at once.
+     * Submission happens on its own virtual thread; the returned future completes when the last response is in.
+     * A scenario that throws before its first request is recorded as failed; anything worse fails the future.
+     */
+    public CompletableFuture<LoadReport> submitBatch(List<Scenario> batch, int maxInFlight) {
+        Map<String, Scenario> distinct = new LinkedHashMap<>();
+        batch.forEach(scenario -> distinct.putIfAbsent(scenario.name(), scenario));
+        LoadReport report = new LoadReport(new Workload(List.copyOf(distinct.values())));
+        CompletableFuture<LoadReport> done = new CompletableFuture<>();
+        Thread.ofVirtual().name("async-batch").start(() -> {
+            Semaphore inFlight = new Semaphore(maxInFlight);
+            long start = System.nanoTime();
+            CompletableFuture<?>[] all = new CompletableFuture<?>[batch.size()];
+            try {
+                for (int i = 0; i < all.length; i++) {
+                    Scenario scenario = batch.get(i);
+                    inFlight.acquire();
+                    long begin = System.nanoTime();
+                    try {
+                        all[i] = execute(scenario)
+                                .exceptionally(e -> scenario.name() + ": " + e)
+                                .thenAccept(error -> report.stats(scenario.name())
+                                        .record(System.nanoTime() - begin, error))
+                                .whenComplete((ignored, e) -> inFlight.release());
+                    } catch (RuntimeException e) {
+                        // e.g. from the scenario's step supplier, before there was a future to release the slot
+                        report.stats(scenario.name()).record(System.nanoTime() - begin, scenario.name() + ": " + e);
+                        inFlight.release();
+                        all[i] = CompletableFuture.completedFuture(null);
+                    }
+                }
+                CompletableFuture.allOf(all).whenComplete((ignored, e) -> {
+                    report.finish(Duration.ofNanos(System.nanoTime() - start));
+                    done.complete(report);
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                done.completeExceptionally(e);
+            } catch (Throwable e) {
+                // the caller would otherwise wait for the future forever
+                done.completeExceptionally(e);
+            }
+        });
+        return done;
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+}
@@ -0,0 +1,89 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Appends text to a file from a single background thread, so test threads never wait on disk I/O.
+ * <p>
+ * The queue is bounded; when it is full, entries are dropped and counted instead of blocking the caller.
+ */
+public final class AsyncFileSink implements AutoCloseable {
+
+    private static final String POISON = new String("<close>");
+
+    private final Path file;
+    private final BlockingQueue<String> queue;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+
+    public AsyncFileSink(Path file, int queueCapacity) throws IOException {
+        this.file = file;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        this.writer = Thread.ofPlatform().daemon().name("async-file-sink").start(() -> drain(out));
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Queues {@code text} for writing; returns {@code false} if it was dropped because the queue is full.
+     */
+    public boolean offer(String text) {
+        if (queue.offer(text)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Writes everything queued so far and stops the writer thread, waiting at most ten seconds for it. Returns at
+     * once if the writer already stopped on an I/O error, however full the queue it left behind. An interrupted
+     * caller returns early with its interrupt flag set, leaving the writer to finish in the background.
+     */
+    @Override
+    public void close() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        try {
+            if (writer.isAlive() && queue.offer(POISON, deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                writer.join(Math.max(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()), 1));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain(BufferedWriter out) {
+        try (out) {
+            while (true) {
+                String text = queue.take();
+                if (text == POISON) {
+                    return;
+                }
+                out.write(text);
+                if (queue.isEmpty()) {
+                    out.flush();
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            System.out.println("Exchange log writer stopped: " + e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class AsyncFileSinkTests {
+
+    @Test
+    public void testWritesEverythingQueuedBeforeClose() throws IOException {
+        Path file = Files.createTempFile("sink", ".log");
+        try {
+            AsyncFileSink sink = new AsyncFileSink(file, 16);
+            for (int i = 0; i < 10; i++) {
+                sink.offer("line " + i + "\n");
+            }
+            sink.close();
+
+            // Assertions
+            assertEquals(sink.dropped(), 0);
+            assertEquals(Files.readAllLines(file).size(), 10);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(timeOut = 30_000)
+    public void testCloseReturnsWhenTheWriterDiedWithAFullQueue() throws Exception {
+        // every write to /dev/full fails with "No space left on device", even for root
+        Path full = Path.of("/dev/full");
+        if (!Files.isWritable(full)) {
+            throw new SkipException("No /dev/full on this system");
+        }
+        AsyncFileSink sink = new AsyncFileSink(full, 4);
+        sink.offer("fails on flush\n");
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (sink.offer("queued behind a dead writer\n") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        long start = System.nanoTime();
+        sink.close();
+
+        // Assertions
+        assertTrue(sink.dropped() > 0, "The queue should have filled up once the writer stopped");
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos(),
+                "close() should not wait on a dead writer");
+    }
+}
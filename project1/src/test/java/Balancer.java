@@ -0,0 +1,333 @@
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client-side load balancer spreading requests over several server instances, as the first filter of a request
+ * specification (see {@link RequestSpecs}): it points each request at the chosen target's base URI and records the
+ * outcome per target, so that a report shows which replica is slow or failing.
+ * <p>
+ * Targets are health-checked every {@code healthInterval} with a {@code GET} of {@code healthPath}; any response
+ * below 500 counts as healthy. A target is taken out of rotation after {@value #EJECT_AFTER} failures in a row,
+ * failed checks and requests without a response alike, until its next successful check. When no target is
+ * healthy, all of them are used.
+ */
+public final class Balancer implements Filter, AutoCloseable {
+
+    static final int EJECT_AFTER = 3;
+
+    private static final Duration MIN_HEALTH_TIMEOUT = Duration.ofSeconds(1);
+
+    public enum Policy {
+        ROUND_ROBIN,
+        LEAST_OUTSTANDING,
+        /**
+         * Two targets picked at random, the one with fewer requests outstanding wins: nearly as good as
+         * {@link #LEAST_OUTSTANDING} without every client piling onto the same momentarily idle target.
+         */
+        POWER_OF_TWO_CHOICES;
+
+        /**
+         * Accepts the constant names as well as {@code round-robin}, {@code least-outstanding} and {@code p2c}.
+         */
+        public static Policy parse(String name) {
+            return switch (name.trim().toLowerCase(Locale.ROOT).replace('_', '-')) {
+                case "round-robin", "rr" -> ROUND_ROBIN;
+                case "least-outstanding", "lor" -> LEAST_OUTSTANDING;
+                case "power-of-two-choices", "p2c" -> POWER_OF_TWO_CHOICES;
+                default -> throw new IllegalArgumentException("Unknown balancer policy " + name);
+            };
+        }
+    }
+
+    public static final class Target {
+        private final URI uri;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private final LongAdder transportErrors = new LongAdder();
+        private final LongAdder ejections = new LongAdder();
+        private volatile boolean healthy = true;
+
+        private Target(URI uri) {
+            this.uri = uri;
+        }
+
+        public URI uri() {
+            return uri;
+        }
+
+        public int outstanding() {
+            return outstanding.get();
+        }
+
+        public boolean healthy() {
+            return healthy;
+        }
+
+        /**
+         * Completed requests, with or without a response.
+         */
+        public long requests() {
+            return requests.sum();
+        }
+
+        /**
+         * Responses with a 5xx status.
+         */
+        public long serverErrors() {
+            return serverErrors.sum();
+        }
+
+        /**
+         * Requests that got no response at all: refused or reset connections, timeouts.
+         */
+        public long transportErrors() {
+            return transportErrors.sum();
+        }
+
+        public long ejections() {
+            return ejections.sum();
+        }
+
+        /**
+         * Latency of the requests that got a response, in nanoseconds.
+         */
+        public LatencyHistogram latency() {
+            return latency;
+        }
+    }
+
+    private final List<Target> targets;
+    private final Policy policy;
+    private final String healthPath;
+    private final AtomicLong next = new AtomicLong();
+    private final ScheduledExecutorService checker;
+    private final HttpClient healthClient;
+    private volatile Target[] rotation;
+
+    /**
+     * @param healthInterval how often to check every target, or {@link Duration#ZERO} for no checks, in which case
+     *                       targets are never ejected either
+     * @param healthPath     the path requested by the checks, e.g. the API endpoint
+     */
+    public Balancer(List<URI> targets, Policy policy, Duration healthInterval, String healthPath) {
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("No targets to balance over");
+        }
+        this.targets = targets.stream().map(Target::new).toList();
+        this.policy = policy;
+        this.healthPath = healthPath;
+        this.rotation = this.targets.toArray(new Target[0]);
+        if (healthInterval.isZero()) {
+            checker = null;
+            healthClient = null;
+        } else {
+            Duration timeout = healthInterval.compareTo(MIN_HEALTH_TIMEOUT) < 0 ? MIN_HEALTH_TIMEOUT : healthInterval;
+            healthClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+            checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "balancer-health");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = healthInterval.toMillis();
+            checker.scheduleWithFixedDelay(() -> checkAll(timeout), 0, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * A balancer over the configured {@code targets}, with {@code balancer.policy} (default {@code p2c}),
+     * {@code balancer.health.ms} (default 1000, 0 to disable) and {@code balancer.health.path} (default the API
+     * endpoint) from {@code config}.
+     */
+    public static Balancer configured(SuiteConfig config) {
+        return new Balancer(config.targets(), Policy.parse(config.get("balancer.policy", "p2c")),
+                Duration.ofMillis(config.getLong("balancer.health.ms", 1000)),
+                config.get("balancer.health.path", config.apiEndpoint()));
+    }
+
+    public Policy policy() {
+        return policy;
+    }
+
+    public List<Target> targets() {
+        return targets;
+    }
+
+    /**
+     * Chooses a target for one request and counts the request as outstanding on it until {@link #release}.
+     */
+    public Target acquire() {
+        Target[] candidates = rotation;
+        Target chosen = switch (policy) {
+            case ROUND_ROBIN -> candidates[(int) Math.floorMod(next.getAndIncrement(), (long) candidates.length)];
+            case LEAST_OUTSTANDING -> leastOutstanding(candidates);
+            case POWER_OF_TWO_CHOICES -> powerOfTwo(candidates);
+        };
+        chosen.outstanding.incrementAndGet();
+        return chosen;
+    }
+
+    /**
+     * Ends a request started with {@link #acquire}.
+     *
+     * @param status the response status, or 0 when there was no response
+     */
+    public void release(Target target, long elapsedNanos, int status) {
+        target.outstanding.decrementAndGet();
+        target.requests.increment();
+        if (status == 0) {
+            target.transportErrors.increment();
+            if (target.consecutiveFailures.incrementAndGet() >= EJECT_AFTER && checker != null) {
+                markHealthy(target, false);
+            }
+            return;
+        }
+        target.consecutiveFailures.set(0);
+        target.latency.record(elapsedNanos);
+        if (status >= 500) {
+            target.serverErrors.increment();
+        }
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Target target = acquire();
+        requestSpec.baseUri(target.uri.toString());
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (Throwable e) {
+            release(target, System.nanoTime() - start, 0);
+            throw e;
+        }
+        release(target, System.nanoTime() - start, response.getStatusCode());
+        return response;
+    }
+
+    /**
+     * Starting at a rotating offset, so that ties do not always go to the first target.
+     */
+    private Target leastOutstanding(Target[] candidates) {
+        int offset = (int) Math.floorMod(next.getAndIncrement(), (long) candidates.length);
+        Target best = candidates[offset];
+        for (int i = 1; i < candidates.length; i++) {
+            Target candidate = candidates[(offset + i) % candidates.length];
+            if (candidate.outstanding.get() < best.outstanding.get()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private static Target powerOfTwo(Target[] candidates) {
+        if (candidates.length == 1) {
+            return candidates[0];
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.length);
+        int second = random.nextInt(candidates.length - 1);
+        if (second >= first) {
+            second++;
+        }
+        Target a = candidates[first];
+        Target b = candidates[second];
+        return b.outstanding.get() < a.outstanding.get() ? b : a;
+    }
+
+    private void checkAll(Duration timeout) {
+        for (Target target : targets) {
+            boolean healthy;
+            try {
+                HttpResponse<Void> response = healthClient.send(HttpRequest.newBuilder(target.uri.resolve(healthPath))
+                        .timeout(timeout).GET().build(), HttpResponse.BodyHandlers.discarding());
+                healthy = response.statusCode() < 500;
+            } catch (IOException e) {
+                healthy = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (healthy) {
+                target.consecutiveFailures.set(0);
+                markHealthy(target, true);
+            } else if (target.consecutiveFailures.incrementAndGet() >= EJECT_AFTER) {
+                markHealthy(target, false);
+            }
+        }
+    }
+
+    private synchronized void markHealthy(Target target, boolean healthy) {
+        if (target.healthy == healthy) {
+            return;
+        }
+        if (!healthy) {
+            target.ejections.increment();
+        }
+        // the rotation changes before the flag, so that once a target reads as ejected it no longer gets traffic
+        List<Target> up = targets.stream().filter(t -> t == target ? healthy : t.healthy).toList();
+        rotation = (up.isEmpty() ? targets : up).toArray(new Target[0]);
+        target.healthy = healthy;
+        System.out.println("Balancer: " + target.uri + (healthy ? " is back in rotation" : " ejected"));
+    }
+
+    @Override
+    public void close() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+    }
+
+    /**
+     * The target with the highest median latency among those that served requests, or {@code null}. The median
+     * rather than a high percentile, so that a few cold-start outliers do not point at the wrong replica.
+     */
+    public Target slowest() {
+        return targets.stream().filter(t -> t.latency.count() > 0)
+                .max(Comparator.comparingLong(t -> t.latency.percentile(50))).orElse(null);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("balancer %s over %d target(s)%n", policy, targets.size()));
+        out.append(String.format("%-28s %8s %6s %6s %6s %9s %9s %9s %9s %s%n", "target", "requests", "5xx", "io",
+                "eject", "p50 ms", "p90 ms", "p99 ms", "max ms", "health"));
+        for (Target t : targets) {
+            LatencyHistogram h = t.latency;
+            out.append(String.format("%-28s %8d %6d %6d %6d %9.2f %9.2f %9.2f %9.2f %s%n", t.uri.getAuthority(),
+                    t.requests(), t.serverErrors(), t.transportErrors(), t.ejections(),
+                    LoadReport.millis(h.percentile(50)), LoadReport.millis(h.percentile(90)),
+                    LoadReport.millis(h.percentile(99)), LoadReport.millis(h.max()), t.healthy ? "up" : "down"));
+        }
+        Target slowest = slowest();
+        if (slowest != null && targets.size() > 1) {
+            out.append(String.format("slowest: %s (p50 %.2f ms)%n", slowest.uri.getAuthority(),
+                    LoadReport.millis(slowest.latency.percentile(50))));
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,17 @@
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * Prints the per-target breakdown of the {@link Balancer} at the end of the suite when {@code targets} lists more
+ * than one server. Registered through {@code META-INF/services/org.testng.ITestNGListener}.
+ */
+public class BalancerListener implements ISuiteListener {
+
+    @Override
+    public void onFinish(ISuite suite) {
+        Balancer balancer = RequestSpecs.balancer();
+        if (balancer != null) {
+            System.out.print(balancer);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class BalancerTests {
+
+    private static final List<URI> TARGETS = List.of(URI.create("http://10.0.0.1:7081"),
+            URI.create("http://10.0.0.2:7081"), URI.create("http://10.0.0.3:7081"));
+
+    @Test
+    public void testRoundRobinCyclesAndLeastOutstandingAvoidsBusyTargets() {
+        try (Balancer roundRobin = new Balancer(TARGETS, Balancer.Policy.ROUND_ROBIN, Duration.ZERO, "/");
+             Balancer least = new Balancer(TARGETS, Balancer.Policy.parse("least-outstanding"), Duration.ZERO, "/")) {
+            for (int i = 0; i < 6; i++) {
+                Balancer.Target target = roundRobin.acquire();
+                assertEquals(target.uri(), TARGETS.get(i % 3));
+                roundRobin.release(target, 1_000_000, 201);
+            }
+
+            Balancer.Target busy = least.acquire();
+            Balancer.Target second = least.acquire();
+            Balancer.Target third = least.acquire();
+            least.release(second, 1_000_000, 201);
+            least.release(third, 1_000_000, 201);
+            Balancer.Target fourth = least.acquire();
+            Balancer.Target fifth = least.acquire();
+
+            // Assertions
+            assertEquals(List.of(busy, second, third).stream().distinct().count(), 3L,
+                    "Idle targets should be chosen before a busy one");
+            assertTrue(fourth != busy && fifth != busy && fourth != fifth,
+                    "Expected the targets without requests outstanding");
+            assertEquals(busy.outstanding(), 1);
+            assertEquals(roundRobin.targets().get(0).requests(), 2);
+        }
+    }
+
+    @Test
+    public void testPowerOfTwoChoicesPrefersLessLoadedTarget() {
+        try (Balancer balancer = new Balancer(TARGETS.subList(0, 2), Balancer.Policy.parse("p2c"), Duration.ZERO, "/")) {
+            List<Balancer.Target> held = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                held.add(balancer.acquire());
+            }
+            Balancer.Target idle = balancer.targets().get(1);
+            int kept = balancer.targets().get(0).outstanding();
+            held.stream().filter(target -> target == idle).forEach(target -> balancer.release(target, 0, 201));
+
+            // Assertions
+            assertEquals(kept, 5, "Requests held open should be spread evenly");
+            for (int i = 0; i < 100; i++) {
+                Balancer.Target target = balancer.acquire();
+                assertSame(target, idle, "With two targets both are always compared");
+                balancer.release(target, 0, 201);
+            }
+        }
+    }
+
+    @Test
+    public void testReportsTheSlowReplica() throws Exception {
+        BooksStubServer fast1 = BooksStubServer.start("127.0.0.1", 0);
+        BooksStubServer fast2 = BooksStubServer.start("127.0.0.1", 0);
+        HttpServer slow = slowServer(150);
+        URI slowUri = URI.create("http://127.0.0.1:" + slow.getAddress().getPort());
+        List<URI> targets = List.of(URI.create(fast1.baseUrl()), URI.create(fast2.baseUrl()), slowUri);
+        try (Balancer balancer = new Balancer(targets, Balancer.Policy.LEAST_OUTSTANDING, Duration.ofSeconds(1),
+                SuiteConfig.current().apiEndpoint());
+             ExecutorService executor = Executors.newFixedThreadPool(6)) {
+            RequestSpecification spec = RequestSpecs.build(fast1.baseUrl(), Credentials.ADMIN, balancer);
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < 120; i++) {
+                String book = "{\"title\":\"" + TestData.unique("Balanced " + i) + "\",\"author\":\"Ann Other\"}";
+                statuses.add(executor.submit(() -> given(spec).contentType(ContentType.JSON).body(book).post().statusCode()));
+            }
+            for (Future<Integer> status : statuses) {
+                assertEquals(status.get().intValue(), 201);
+            }
+
+            System.out.print(balancer);
+
+            // Assertions
+            Balancer.Target slowest = balancer.slowest();
+            assertEquals(slowest.uri(), slowUri);
+            assertTrue(slowest.requests() < balancer.targets().get(0).requests()
+                    && slowest.requests() < balancer.targets().get(1).requests(),
+                    "Least outstanding should send less traffic to the slow replica:\n" + balancer);
+            assertEquals(balancer.targets().stream().mapToLong(Balancer.Target::requests).sum(), 120);
+            assertTrue(balancer.toString().contains("slowest: " + slowUri.getAuthority()), balancer.toString());
+        } finally {
+            fast1.close();
+            fast2.close();
+            slow.stop(0);
+        }
+    }
+
+    @Test
+    public void testDeadTargetIsEjectedAndRestored() throws Exception {
+        BooksStubServer live = BooksStubServer.start("127.0.0.1", 0);
+        int deadPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            deadPort = socket.getLocalPort();
+        }
+        URI dead = URI.create("http://127.0.0.1:" + deadPort);
+        BooksStubServer revived = null;
+        try (Balancer balancer = new Balancer(List.of(URI.create(live.baseUrl()), dead), Balancer.Policy.ROUND_ROBIN,
+                Duration.ofMillis(100), SuiteConfig.current().apiEndpoint())) {
+            Balancer.Target deadTarget = balancer.targets().get(1);
+            awaitHealth(deadTarget, false);
+
+            // Assertions
+            for (int i = 0; i < 10; i++) {
+                Balancer.Target target = balancer.acquire();
+                assertEquals(target.uri(), URI.create(live.baseUrl()), "An ejected target should get no traffic");
+                balancer.release(target, 0, 201);
+            }
+            assertEquals(deadTarget.ejections(), 1);
+
+            revived = BooksStubServer.start("127.0.0.1", deadPort);
+            awaitHealth(deadTarget, true);
+            long toRevived = 0;
+            for (int i = 0; i < 10; i++) {
+                Balancer.Target target = balancer.acquire();
+                toRevived += target == deadTarget ? 1 : 0;
+                balancer.release(target, 0, 201);
+            }
+            assertEquals(toRevived, 5, "A recovered target should be back in rotation");
+            assertFalse(balancer.toString().contains("down"), balancer.toString());
+        } finally {
+            live.close();
+            if (revived != null) {
+                revived.close();
+            }
+        }
+    }
+
+    private static void awaitHealth(Balancer.Target target, boolean healthy) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (target.healthy() != healthy && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(target.healthy(), healthy, "Health of " + target.uri());
+    }
+
+    /**
+     * Answers every request with a 201 after {@code delayMillis}, like an overloaded replica.
+     */
+    private static HttpServer slowServer(long delayMillis) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            try (exchange) {
+                exchange.getRequestBody().readAllBytes();
+                Thread.sleep(delayMillis);
+                byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(201, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+        return server;
+    }
+}
@@ -0,0 +1,107 @@
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+public class BatchCreateTests {
+
+    private BooksStubServer stub;
+    private RequestSpecification admin;
+
+    @BeforeClass
+    public void startStub() throws IOException {
+        stub = BooksStubServer.start("127.0.0.1", 0);
+        admin = RequestSpecs.build(stub.baseUrl(), Credentials.ADMIN, null);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    public void testBatchEndpointReportsEveryItem() {
+        String title = TestData.unique("Batched");
+        long id = TestData.id();
+        String batch = "[{\"title\":\"" + title + "\",\"author\":\"Ann Other\"},"
+                + "{\"title\":\"" + title + "\",\"author\":\"Ann Other\"},"
+                + "{\"title\":\"\",\"author\":\"Ann Other\"},"
+                + "{\"id\":" + id + ",\"title\":\"" + title + " 2\",\"author\":\"Ann Other\"},"
+                + "\"not a book\"]";
+        int before = stub.bookCount();
+
+        Response response = given(admin).contentType(ContentType.JSON).body(batch).post(BooksStubServer.BATCH_PATH);
+
+        // Assertions
+        assertEquals(response.getStatusCode(), 200);
+        List<Map<String, Object>> results = response.jsonPath().getList("$");
+        assertEquals(results.stream().map(result -> result.get("status")).toList(), List.of(201, 208, 400, 201, 400));
+        assertEquals(response.jsonPath().getInt("[1].body.id"), response.jsonPath().getInt("[0].body.id"),
+                "A duplicate in the same batch should return the book created first");
+        assertEquals(response.jsonPath().getString("[2].body.error"), "title must not be empty");
+        assertEquals(response.jsonPath().getLong("[3].body.id"), id);
+        assertEquals(response.jsonPath().getString("[4].body.error"), "Book must be a JSON object");
+        assertEquals(stub.bookCount(), before + 2);
+
+        assertEquals(given(admin).contentType(ContentType.JSON).body("{\"title\":\"x\",\"author\":\"y\"}")
+                .post(BooksStubServer.BATCH_PATH).getStatusCode(), 400, "The batch body must be an array");
+        assertEquals(given(RequestSpecs.build(stub.baseUrl(), Credentials.invalid("nobody", "wrong"), null))
+                .contentType(ContentType.JSON).body("[]").post(BooksStubServer.BATCH_PATH).getStatusCode(), 401);
+    }
+
+    @Test
+    public void testBatcherGroupsBySizeAndFlushesOnClose() throws Exception {
+        List<CompletableFuture<BookBatcher.Result>> results = new ArrayList<>();
+        BookBatcher batcher = new BookBatcher(admin, 10, Duration.ofMinutes(1));
+        try (batcher) {
+            for (int i = 0; i < 25; i++) {
+                results.add(batcher.create(TestData.unique("Seeded " + i), "Ann Other"));
+            }
+            results.add(batcher.create(TestData.unique("Authorless"), ""));
+
+            // Assertions
+            assertEquals(batcher.batches(), 2L, "Two full batches should have gone out without waiting");
+            assertTrue(results.get(0).isDone());
+            assertFalse(results.get(20).isDone(), "The last batch should wait for its window");
+        }
+        assertEquals(batcher.batches(), 3L, "Closing should send the remainder");
+        assertEquals(batcher.books(), 26L);
+        for (CompletableFuture<BookBatcher.Result> result : results.subList(0, 25)) {
+            assertEquals(result.get().status(), 201);
+            assertNotNull(result.get().id());
+        }
+        assertEquals(results.get(25).get().status(), 400);
+        assertEquals(results.get(25).get().error(), "author must not be empty");
+    }
+
+    @Test
+    public void testBatcherSendsAPartialBatchWhenTheWindowCloses() throws Exception {
+        try (BookBatcher batcher = new BookBatcher(admin, 100, Duration.ofMillis(50))) {
+            String title = TestData.unique("Windowed");
+            CompletableFuture<BookBatcher.Result> first = batcher.create(title, "Ann Other");
+            CompletableFuture<BookBatcher.Result> second = batcher.create(title, "Ann Other");
+
+            // Assertions
+            assertEquals(first.get(10, TimeUnit.SECONDS).status(), 201);
+            assertEquals(second.get(10, TimeUnit.SECONDS).status(), 208, "The same book twice should be a duplicate");
+            assertEquals(second.get().id(), first.get().id());
+            assertEquals(batcher.batches(), 1L);
+        }
+    }
+}
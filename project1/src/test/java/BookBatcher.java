@@ -0,0 +1,175 @@
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Groups book creates into POSTs to the batch endpoint of {@link BooksStubServer}, for seeding data without paying
+ * a round trip per book.
+ * <p>
+ * A batch goes out as soon as it holds {@code maxBatch} books, sent by the caller that filled it, or
+ * {@code window} after its first book was added, sent by a background thread, whichever comes first. Each
+ * {@link #create} returns a future of that book's own result, with the status a single create would have got.
+ * When a whole batch fails, e.g. on a connection error, every future in it fails with the same exception.
+ */
+public final class BookBatcher implements AutoCloseable {
+
+    /**
+     * The outcome of one create: 201 or 208 with the book, or 400 with an error.
+     */
+    public record Result(int status, Map<?, ?> body) {
+
+        public Long id() {
+            return (Long) body.get("id");
+        }
+
+        public String error() {
+            return (String) body.get("error");
+        }
+    }
+
+    private record Pending(String book, CompletableFuture<Result> result) {
+    }
+
+    private final RequestSpecification spec;
+    private final int maxBatch;
+    private final Duration window;
+    private final ScheduledExecutorService timer;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder books = new LongAdder();
+    private List<Pending> pending = new ArrayList<>();
+    private ScheduledFuture<?> deadline;
+    private boolean closed;
+
+    /**
+     * @param spec     a books API specification, e.g. {@link RequestSpecs#admin()}
+     * @param maxBatch at most {@link BooksStubServer#MAX_BATCH}
+     * @param window   how long the first book of a batch may wait for others
+     */
+    public BookBatcher(RequestSpecification spec, int maxBatch, Duration window) {
+        if (maxBatch < 1 || maxBatch > BooksStubServer.MAX_BATCH) {
+            throw new IllegalArgumentException("maxBatch must be between 1 and " + BooksStubServer.MAX_BATCH);
+        }
+        this.spec = spec;
+        this.maxBatch = maxBatch;
+        this.window = window;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "book-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CompletableFuture<Result> create(String title, String author) {
+        StringBuilder book = new StringBuilder(32 + title.length() + author.length()).append("{\"title\":");
+        BookJson.quote(book, title).append(",\"author\":");
+        return create(BookJson.quote(book, author).append('}').toString());
+    }
+
+    /**
+     * Queues one book, given as the JSON object a single create would send.
+     */
+    public CompletableFuture<Result> create(String bookJson) {
+        Pending book = new Pending(bookJson, new CompletableFuture<>());
+        List<Pending> full = null;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Batcher is closed");
+            }
+            pending.add(book);
+            if (pending.size() >= maxBatch) {
+                full = drain();
+            } else if (pending.size() == 1) {
+                deadline = timer.schedule(this::flush, window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+        return book.result();
+    }
+
+    /**
+     * Sends whatever is queued now, without waiting for the batch to fill up.
+     */
+    public void flush() {
+        List<Pending> batch;
+        synchronized (this) {
+            batch = drain();
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    public long batches() {
+        return batches.sum();
+    }
+
+    public long books() {
+        return books.sum();
+    }
+
+    /**
+     * Sends what is still queued and stops the background thread.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        flush();
+        timer.shutdown();
+    }
+
+    private List<Pending> drain() {
+        if (deadline != null) {
+            deadline.cancel(false);
+            deadline = null;
+        }
+        List<Pending> batch = pending;
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    private void send(List<Pending> batch) {
+        StringBuilder body = new StringBuilder(batch.size() * 64).append('[');
+        for (Pending book : batch) {
+            body.append(body.length() > 1 ? "," : "").append(book.book());
+        }
+        try {
+            Response response = given(spec).contentType(ContentType.JSON).body(body.append(']').toString())
+                    .post(BooksStubServer.BATCH_PATH);
+            if (response.getStatusCode() != 200) {
+                throw new IllegalStateException("Batch of " + batch.size() + " failed with status "
+                        + response.getStatusCode() + ": " + response.asString());
+            }
+            List<?> results = (List<?>) BookJson.parse(response.asString());
+            if (results.size() != batch.size()) {
+                throw new IllegalStateException("Sent " + batch.size() + " books but got " + results.size() + " results");
+            }
+            batches.increment();
+            books.add(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                Map<?, ?> result = (Map<?, ?>) results.get(i);
+                batch.get(i).result().complete(new Result(((Long) result.get("status")).intValue(),
+                        (Map<?, ?>) result.get("body")));
+            }
+        } catch (Exception e) {
+            // also the checked I/O exceptions RestAssured rethrows undeclared
+            batch.forEach(book -> book.result().completeExceptionally(e));
+        }
+    }
+}
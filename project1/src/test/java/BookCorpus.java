@@ -0,0 +1,262 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A file of title/author records, read through a sliding memory-mapped window so that corpora far larger than the
+ * heap can drive data-driven and load runs.
+ * <p>
+ * Two formats are understood, picked by file extension: newline-delimited JSON objects with {@code title} and
+ * {@code author} fields ({@code .ndjson}, {@code .jsonl}), and CSV with a {@code title,author} header and
+ * RFC 4180 quoting ({@code .csv}), where a quoted field may span lines. Blank lines are skipped; a record that
+ * cannot be parsed fails the read with its byte offset.
+ * <p>
+ * Only the current window (64 MB by default) is mapped, and it lives outside the heap; each record is decoded on
+ * its own as it is read. Heap use therefore does not grow with the file, whether it holds ten thousand records or
+ * a hundred million.
+ */
+public final class BookCorpus implements AutoCloseable {
+
+    public static final long DEFAULT_WINDOW = 64L << 20;
+
+    public enum Format { NDJSON, CSV }
+
+    /**
+     * One corpus record. Fields may be empty or over-long; that is what the validations are run against.
+     */
+    public record Book(String title, String author) {
+
+        /**
+         * A create request for this book with the title made unique for the run (see {@link TestData#unique}), and
+         * the status the books service must answer it with: 400 when a field is blank or longer than
+         * {@code maxFieldLength}, otherwise 201.
+         */
+        public Scenario.Step step(int maxFieldLength) {
+            String uniqueTitle = title.isBlank() ? title : TestData.unique(title);
+            StringBuilder body = new StringBuilder(uniqueTitle.length() + author.length() + 32).append("{\"title\":");
+            BookJson.quote(body, uniqueTitle).append(",\"author\":");
+            BookJson.quote(body, author).append('}');
+            boolean valid = !uniqueTitle.isBlank() && !author.isBlank()
+                    && uniqueTitle.length() <= maxFieldLength && author.length() <= maxFieldLength;
+            return new Scenario.Step(body.toString(), valid ? 201 : 400);
+        }
+    }
+
+    private final FileChannel channel;
+    private final long size;
+    private final Format format;
+    private final long window;
+
+    private BookCorpus(FileChannel channel, Format format, long window) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.format = format;
+        this.window = window;
+    }
+
+    public static BookCorpus open(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        return open(file, name.endsWith(".csv") ? Format.CSV : Format.NDJSON, DEFAULT_WINDOW);
+    }
+
+    /**
+     * @param window bytes mapped at a time; must exceed the longest record
+     */
+    public static BookCorpus open(Path file, Format format, long window) throws IOException {
+        return new BookCorpus(FileChannel.open(file, StandardOpenOption.READ), format, window);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * A cursor over every record, from the start of the file.
+     *
+     * @param cycle start again from the top at the end of the file, e.g. for a load run longer than the corpus
+     */
+    public Cursor cursor(boolean cycle) {
+        return new Cursor(cycle);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads records one at a time. Safe to share between threads: each {@link #nextBook()} holds the cursor's
+     * lock only while it scans and decodes one record.
+     */
+    public final class Cursor implements Iterator<Book> {
+
+        private final boolean cycle;
+        private MappedByteBuffer buffer;
+        private long bufferStart;
+        private long position;
+        private byte[] line = new byte[512];
+        private Book peeked;
+        private long records;
+
+        private Cursor(boolean cycle) {
+            this.cycle = cycle;
+        }
+
+        /**
+         * @return the next record, or {@code null} at the end of a non-cycling cursor
+         */
+        public synchronized Book nextBook() {
+            if (peeked != null) {
+                Book book = peeked;
+                peeked = null;
+                return book;
+            }
+            while (true) {
+                if (position >= size) {
+                    if (!cycle || records == 0) {
+                        return null;
+                    }
+                    position = 0;
+                }
+                long start = position;
+                int length = readLine();
+                if (length == 0 || (format == Format.CSV && start == 0 && isHeader(length))) {
+                    continue;
+                }
+                records++;
+                try {
+                    return format == Format.CSV ? parseCsv(length) : parseJson(length);
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("Bad record at byte " + start + ": " + e.getMessage(), e);
+                }
+            }
+        }
+
+        @Override
+        public synchronized boolean hasNext() {
+            if (peeked == null) {
+                peeked = nextBook();
+            }
+            return peeked != null;
+        }
+
+        @Override
+        public Book next() {
+            Book book = nextBook();
+            if (book == null) {
+                throw new NoSuchElementException();
+            }
+            return book;
+        }
+
+        /**
+         * Records read so far, counting every pass of a cycling cursor.
+         */
+        public synchronized long records() {
+            return records;
+        }
+
+        /**
+         * Copies the record at {@link #position} (without its terminator) into {@link #line} and moves past it. A
+         * record ends at the next newline, except that in CSV a newline inside a quoted field belongs to the field.
+         * Quotes are counted byte by byte, which is safe in UTF-8 and treats an escaped {@code ""} as two toggles.
+         */
+        private int readLine() {
+            while (true) {
+                if (buffer == null || position < bufferStart || position >= bufferStart + buffer.limit()) {
+                    map(position);
+                }
+                int from = (int) (position - bufferStart);
+                int limit = buffer.limit();
+                int end = from;
+                boolean quoted = false;
+                for (byte b; end < limit && ((b = buffer.get(end)) != '\n' || quoted); end++) {
+                    if (b == '"' && format == Format.CSV) {
+                        quoted = !quoted;
+                    }
+                }
+                boolean lastLine = bufferStart + limit == size;
+                if (end == limit && !lastLine) {
+                    if (from == 0) {
+                        throw new IllegalArgumentException("Record at byte " + position + " is longer than the "
+                                + window + " byte window");
+                    }
+                    map(position);
+                    continue;
+                }
+                int length = end - from;
+                if (length > 0 && buffer.get(end - 1) == '\r') {
+                    length--;
+                }
+                if (line.length < length) {
+                    line = new byte[Math.max(length, line.length * 2)];
+                }
+                buffer.get(from, line, 0, length);
+                position = bufferStart + Math.min(end + 1, limit);
+                return length;
+            }
+        }
+
+        private void map(long start) {
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(window, size - start));
+                bufferStart = start;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to map corpus at byte " + start, e);
+            }
+        }
+
+        private boolean isHeader(int length) {
+            return new String(line, 0, length, StandardCharsets.UTF_8).replace(" ", "").equalsIgnoreCase("title,author");
+        }
+
+        private Book parseJson(int length) {
+            if (!(BookJson.parse(new String(line, 0, length, StandardCharsets.UTF_8)) instanceof Map<?, ?> object)
+                    || !(object.get("title") instanceof String title) || !(object.get("author") instanceof String author)) {
+                throw new IllegalArgumentException("expected an object with string title and author");
+            }
+            return new Book(title, author);
+        }
+
+        private Book parseCsv(int length) {
+            String text = new String(line, 0, length, StandardCharsets.UTF_8);
+            List<String> fields = new ArrayList<>(2);
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            if (quoted || fields.size() != 2) {
+                throw new IllegalArgumentException("expected two CSV fields: " + text);
+            }
+            return new Book(fields.get(0), fields.get(1));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+import json.JsonPullParser;
+import json.JsonPullParser.Token;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON reader/writer for the book payloads handled by {@link BooksStubServer}.
+ * <p>
+ * Objects become {@link LinkedHashMap}s, arrays {@link ArrayList}s, integral numbers {@link Long}s and other
+ * numbers {@link Double}s. Anything malformed is reported as an {@link IllegalArgumentException}. Reading builds
+ * the tree from the tokens of a {@link JsonPullParser}, so there is only one JSON grammar to keep right.
+ * Documents nested deeper than {@value #MAX_DEPTH} levels are rejected before they can exhaust the stack.
+ */
+public final class BookJson {
+
+    public static final int MAX_DEPTH = 64;
+
+    private BookJson() {
+    }
+
+    public static Object parse(String text) {
+        JsonPullParser parser = new JsonPullParser(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+        Object value = read(parser, parser.next());
+        parser.next();
+        return value;
+    }
+
+    /**
+     * Serializes a book the way the API returns it: {@code {"id":1,"title":"...","author":"..."}}.
+     */
+    public static String book(long id, String title, String author) {
+        StringBuilder out = new StringBuilder(32 + title.length() + author.length());
+        out.append("{\"id\":").append(id).append(",\"title\":");
+        quote(out, title);
+        out.append(",\"author\":");
+        quote(out, author);
+        return out.append('}').toString();
+    }
+
+    public static StringBuilder quote(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                case '\b' -> out.append("\\b");
+                case '\f' -> out.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        return out.append('"');
+    }
+
+    private static Object read(JsonPullParser parser, Token token) {
+        if ((token == Token.BEGIN_OBJECT || token == Token.BEGIN_ARRAY) && parser.depth() > MAX_DEPTH) {
+            throw new IllegalArgumentException("Nested deeper than " + MAX_DEPTH + " levels");
+        }
+        return switch (token) {
+            case BEGIN_OBJECT -> {
+                Map<String, Object> object = new LinkedHashMap<>();
+                while (parser.next() == Token.NAME) {
+                    String name = parser.name();
+                    object.put(name, read(parser, parser.next()));
+                }
+                yield object;
+            }
+            case BEGIN_ARRAY -> {
+                List<Object> array = new ArrayList<>();
+                for (Token element = parser.next(); element != Token.END_ARRAY; element = parser.next()) {
+                    array.add(read(parser, element));
+                }
+                yield array;
+            }
+            case STRING -> parser.stringValue();
+            case NUMBER -> number(parser);
+            case TRUE -> Boolean.TRUE;
+            case FALSE -> Boolean.FALSE;
+            case NULL -> null;
+            default -> throw new IllegalArgumentException("Unexpected " + token);
+        };
+    }
+
+    private static Object number(JsonPullParser parser) {
+        if (parser.isIntegral()) {
+            try {
+                return parser.longValue();
+            } catch (NumberFormatException ignored) {
+                // too large for a long, fall through to double
+            }
+        }
+        return Double.parseDouble(parser.numberText());
+    }
+}
@@ -0,0 +1,62 @@
+import java.util.List;
+
+/**
+ * The create-book cases of {@code scenarios/books.json} expressed as {@link Scenario}s, so the same traffic can drive
+ * load runs.
+ */
+public final class BookScenarios {
+
+    static final String LONG_TEXT = "In a quaint village nestled between rolling hills, the townspeople gather " +
+            "at the local market every Saturday morning. Vendors display their colorful produce, fragrant " +
+            "flowers, and handmade crafts. Families stroll along the cobblestone streets, enjoying the lively " +
+            "atmosphere. The aroma of freshly baked bread wafts through the air, enticing passersby. " +
+            "Children laugh and play in the nearby park, while musicians provide a cheerful soundtrack." +
+            " The market is a place where the community comes alive, sharing stories, traditions, " +
+            "and the simple joys of life. It's a cherished weekly event that brings people " +
+            "together in this idyllic setting.";
+
+    private BookScenarios() {
+    }
+
+    /**
+     * The mix the books service sees: mostly plain creates, some with a client id, some duplicates and a few
+     * rejected over-long titles.
+     */
+    public static Workload apiTestsMix() {
+        return new Workload(List.of(mandatoryParameters(40), optionalId(20), duplicateData(20), exceedMaximumTitleLength(20)));
+    }
+
+    public static Scenario mandatoryParameters(int weight) {
+        return new Scenario("mandatoryParameters", weight, Credentials.USER, () -> List.of(
+                new Scenario.Step("{\"title\":\"" + TestData.unique("Sherlock Holmes in Washington") + "\",\"author\":\"Dun Colegate\"}", 201)));
+    }
+
+    public static Scenario optionalId(int weight) {
+        return new Scenario("optionalId", weight, Credentials.USER, () -> {
+            String body = "{\"id\":" + TestData.id() + ",\"title\":\"" + TestData.unique("Ambulance, The") + "\",\"author\":\"Lida Leadstone\"}";
+            return List.of(new Scenario.Step(body, 201, body));
+        });
+    }
+
+    public static Scenario duplicateData(int weight) {
+        return new Scenario("duplicateData", weight, Credentials.USER, () -> {
+            String body = "{\"title\":\"" + TestData.unique("Chattahoochee") + "\",\"author\":\"Allin Cannicott\"}";
+            return List.of(new Scenario.Step(body, 201), new Scenario.Step(body, 208));
+        });
+    }
+
+    public static Scenario exceedMaximumTitleLength(int weight) {
+        List<Scenario.Step> steps = List.of(
+                new Scenario.Step("{\"title\":\"" + LONG_TEXT + "\",\"author\":\"Sample Author\"}", 400));
+        return new Scenario("exceedMaximumTitleLength", weight, Credentials.USER, () -> steps);
+    }
+
+    /**
+     * One create per iteration, taken from {@code corpus}; the expected status follows the record's validity.
+     * Share one cycling cursor between all users so every record is sent once per pass.
+     */
+    public static Scenario corpus(BookCorpus.Cursor corpus, int weight) {
+        return new Scenario("corpus", weight, Credentials.USER,
+                () -> List.of(corpus.next().step(BooksStubServer.DEFAULT_MAX_FIELD_LENGTH)));
+    }
+}
@@ -0,0 +1,104 @@
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.file.Path;
+
+/**
+ * Starts {@link BooksStubServer} on the configured {@code base.url} for the duration of the suite.
+ * <p>
+ * Controlled by the {@code books.stub} system property: {@code auto} (default) starts the stub only when nothing
+ * is listening on that address, {@code on} always starts it and {@code off} never does. Registered through
+ * {@code META-INF/services/org.testng.ITestNGListener}.
+ * <p>
+ * Setting {@code books.replay} to an {@link ExchangeLog} file starts a {@link ReplayServer} answering from that
+ * log instead; run the suite with the same {@code testdata.salt} it was recorded with so that the requests match.
+ * <p>
+ * Setting {@code fault.profile} to one of the {@link FaultProfile#named named profiles} puts a {@link FaultProxy}
+ * on that address instead, in front of a stub on an ephemeral port, to run the whole suite over a degraded network.
+ */
+public class BooksStubListener implements ISuiteListener {
+
+    private static volatile BooksStubServer server;
+    private static volatile ReplayServer replay;
+    private static volatile FaultProxy proxy;
+
+    /**
+     * The stub started for this suite, or {@code null} when tests run against an external server.
+     */
+    public static BooksStubServer server() {
+        return server;
+    }
+
+    @Override
+    public synchronized void onStart(ISuite suite) {
+        String mode = System.getProperty("books.stub", "auto");
+        URI base = URI.create(SuiteConfig.current().baseUrl());
+        String replayLog = System.getProperty("books.replay");
+        if (replayLog != null && !replayLog.isBlank()) {
+            startReplay(base, Path.of(replayLog));
+            return;
+        }
+        if (server != null || "off".equals(mode) || ("auto".equals(mode) && isListening(base))) {
+            return;
+        }
+        String faults = System.getProperty("fault.profile");
+        try {
+            if (faults != null && !faults.isBlank()) {
+                server = BooksStubServer.start(base.getHost(), 0);
+                proxy = FaultProxy.start(base.getPort(), base.getHost(), server.port(), FaultProfile.named(faults));
+                System.out.println("Started books stub at " + server.baseUrl() + " behind fault proxy "
+                        + proxy.profile().name() + " at " + proxy.baseUrl());
+            } else {
+                server = BooksStubServer.start(base.getHost(), base.getPort());
+                System.out.println("Started books stub at " + server.baseUrl());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to start books stub on " + base, e);
+        }
+    }
+
+    @Override
+    public synchronized void onFinish(ISuite suite) {
+        if (proxy != null) {
+            System.out.println("Fault proxy " + proxy.profile().name() + ": " + proxy.connections() + " connection(s), "
+                    + proxy.resets() + " reset(s), " + proxy.truncations() + " truncated response(s)");
+            proxy.close();
+            proxy = null;
+        }
+        if (server != null) {
+            server.close();
+            server = null;
+        }
+        if (replay != null) {
+            System.out.println("Replay stand-in served " + replay.hits() + " recorded exchange(s), "
+                    + replay.misses() + " miss(es)");
+            replay.close();
+            replay = null;
+        }
+    }
+
+    private static void startReplay(URI base, Path log) {
+        if (replay != null) {
+            return;
+        }
+        try {
+            replay = ReplayServer.start(base.getHost(), base.getPort(), ExchangeLog.read(log));
+            System.out.println("Replaying " + log + " at " + replay.baseUrl());
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to replay " + log + " on " + base, e);
+        }
+    }
+
+    private static boolean isListening(URI base) {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(base.getHost(), base.getPort()), 200);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
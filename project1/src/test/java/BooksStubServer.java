@@ -0,0 +1,293 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process stand-in for the books service, implementing the POST {@code /api/books} contract the test classes
+ * encode:
+ * <ul>
+ *     <li>201 and the stored book on create,</li>
+ *     <li>400 for non-object bodies, non-string or empty title/author, over-long fields and non-integer ids,</li>
+ *     <li>208 when the id or the title/author pair already exists,</li>
+ *     <li>401 when the {@code Authorization} header is not one of the configured roles.</li>
+ * </ul>
+ * A POST of a JSON array of books to {@code /api/books/batch} creates each of them as above, in order, and answers
+ * 200 with one result per item, the status and body a single create would have got:
+ * {@code {"status":201,"body":{"id":...}}}, 208 with the existing book, or 400 with {@code {"error":"..."}}. A body
+ * that is not an array of at most {@value #MAX_BATCH} items is a 400.
+ * <p>
+ * Requests are served by the JDK HTTP server with one virtual thread per exchange, and the store is a pair of
+ * concurrent maps claimed with {@code putIfAbsent}, so there is no global lock on the create path.
+ * <p>
+ * {@code main} runs the stub on its own, e.g. in a separate JVM whose CPU time a benchmark can measure.
+ */
+public final class BooksStubServer implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_FIELD_LENGTH = 255;
+    public static final int MAX_BATCH = 1000;
+    public static final String BATCH_PATH = "/batch";
+
+    private static final byte[] UNAUTHORIZED = "{\"error\":\"Unauthorized\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Set<String> authorizations;
+    private final int maxFieldLength;
+    private final String endpoint = SuiteConfig.current().apiEndpoint();
+
+    private final Map<Long, String> booksById = new ConcurrentHashMap<>();
+    private final Map<String, Long> idsByData = new ConcurrentHashMap<>();
+    private final AtomicLong lastId = new AtomicLong();
+    private final LongAdder requests = new LongAdder();
+
+    private BooksStubServer(HttpServer server, int maxFieldLength) {
+        this.server = server;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.authorizations = Set.of(Credentials.ADMIN.header().getValue(), Credentials.USER.header().getValue());
+        this.maxFieldLength = maxFieldLength;
+        server.setExecutor(executor);
+        server.createContext(endpoint, this::handleBooks);
+        server.createContext(endpoint + BATCH_PATH, this::handleBatch);
+    }
+
+    public static BooksStubServer start(String host, int port) throws IOException {
+        return start(host, port, DEFAULT_MAX_FIELD_LENGTH);
+    }
+
+    public static BooksStubServer start(String host, int port, int maxFieldLength) throws IOException {
+        // Headers and body go out in separate writes; with Nagle on, a kept-alive connection waits out the
+        // client's delayed ACK (~40 ms) on every response. Read once when the JDK server is first used.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        HttpServer server = HttpServer.create(new InetSocketAddress(host, port), 1024);
+        BooksStubServer stub = new BooksStubServer(server, maxFieldLength);
+        server.start();
+        return stub;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + port();
+    }
+
+    public int maxFieldLength() {
+        return maxFieldLength;
+    }
+
+    public long requestCount() {
+        return requests.sum();
+    }
+
+    public int bookCount() {
+        return booksById.size();
+    }
+
+    /**
+     * Forgets every stored book.
+     */
+    public void reset() {
+        booksById.clear();
+        idsByData.clear();
+        lastId.set(0);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handleBooks(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try (exchange) {
+            if (!exchange.getRequestURI().getPath().equals(endpoint)) {
+                send(exchange, 404, error("Not found"));
+                return;
+            }
+            if (!acceptPost(exchange)) {
+                return;
+            }
+            Outcome outcome = create(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            send(exchange, outcome.status(), outcome.body().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try (exchange) {
+            if (!exchange.getRequestURI().getPath().equals(endpoint + BATCH_PATH)) {
+                send(exchange, 404, error("Not found"));
+                return;
+            }
+            if (!acceptPost(exchange)) {
+                return;
+            }
+            Object parsed;
+            try {
+                parsed = BookJson.parse(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException ex) {
+                send(exchange, 400, error("Malformed JSON: " + ex.getMessage()));
+                return;
+            }
+            if (!(parsed instanceof List<?> items)) {
+                send(exchange, 400, error("Batch must be a JSON array"));
+                return;
+            }
+            if (items.size() > MAX_BATCH) {
+                send(exchange, 400, error("Batch must hold at most " + MAX_BATCH + " books"));
+                return;
+            }
+            StringBuilder out = new StringBuilder(16 + items.size() * 96).append('[');
+            for (Object item : items) {
+                Outcome outcome = create(item);
+                if (out.length() > 1) {
+                    out.append(',');
+                }
+                out.append("{\"status\":").append(outcome.status()).append(",\"body\":").append(outcome.body()).append('}');
+            }
+            send(exchange, 200, out.append(']').toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Answers 405 or 401 and returns {@code false} unless the exchange is an authorized POST.
+     */
+    private boolean acceptPost(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Allow", "POST");
+            send(exchange, 405, error("Method not allowed"));
+            return false;
+        }
+        if (!authorizations.contains(String.valueOf(exchange.getRequestHeaders().getFirst("Authorization")))) {
+            exchange.getResponseHeaders().set("WWW-Authenticate", "Basic realm=\"books\"");
+            send(exchange, 401, UNAUTHORIZED);
+            return false;
+        }
+        return true;
+    }
+
+    private Outcome create(String requestBody) {
+        Object parsed;
+        try {
+            parsed = BookJson.parse(requestBody);
+        } catch (IllegalArgumentException ex) {
+            return Outcome.badRequest("Malformed JSON: " + ex.getMessage());
+        }
+        return create(parsed);
+    }
+
+    private Outcome create(Object parsed) {
+        if (!(parsed instanceof Map<?, ?> fields)) {
+            return Outcome.badRequest("Book must be a JSON object");
+        }
+        String invalid = validateText("title", fields.get("title"));
+        if (invalid == null) {
+            invalid = validateText("author", fields.get("author"));
+        }
+        if (invalid != null) {
+            return Outcome.badRequest(invalid);
+        }
+        Object id = fields.get("id");
+        if (id != null && (!(id instanceof Long) || (Long) id <= 0)) {
+            return Outcome.badRequest("id must be a positive integer");
+        }
+        String title = (String) fields.get("title");
+        String author = (String) fields.get("author");
+        return id == null ? createWithGeneratedId(title, author) : createWithId((Long) id, title, author);
+    }
+
+    private Outcome createWithId(long id, String title, String author) {
+        String dataKey = title + '\u0000' + author;
+        Long existing = idsByData.putIfAbsent(dataKey, id);
+        if (existing != null) {
+            return duplicate(existing);
+        }
+        String book = BookJson.book(id, title, author);
+        if (booksById.putIfAbsent(id, book) != null) {
+            idsByData.remove(dataKey, id);
+            return duplicate(id);
+        }
+        return new Outcome(201, book);
+    }
+
+    private Outcome createWithGeneratedId(String title, String author) {
+        long id;
+        String book;
+        do {
+            id = lastId.incrementAndGet();
+            book = BookJson.book(id, title, author);
+        } while (booksById.putIfAbsent(id, book) != null);
+        Long existing = idsByData.putIfAbsent(title + '\u0000' + author, id);
+        if (existing != null) {
+            booksById.remove(id, book);
+            return duplicate(existing);
+        }
+        return new Outcome(201, book);
+    }
+
+    private Outcome duplicate(long existingId) {
+        String existing = booksById.get(existingId);
+        return new Outcome(208, existing != null ? existing : new String(error("Book already exists"), StandardCharsets.UTF_8));
+    }
+
+    private String validateText(String field, Object value) {
+        if (!(value instanceof String text)) {
+            return field + " must be a string";
+        }
+        if (text.isBlank()) {
+            return field + " must not be empty";
+        }
+        if (text.length() > maxFieldLength) {
+            return field + " must be at most " + maxFieldLength + " characters";
+        }
+        return null;
+    }
+
+    private static byte[] error(String message) {
+        return BookJson.quote(new StringBuilder("{\"error\":"), message).append('}').toString()
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private record Outcome(int status, String body) {
+
+        static Outcome badRequest(String message) {
+            return new Outcome(400, new String(error(message), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Runs the stub until the JVM is stopped, printing its base URL once it listens.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BooksStubServer <host> <port>");
+            System.exit(2);
+        }
+        BooksStubServer stub = start(args[0], Integer.parseInt(args[1]));
+        System.out.println("Started books stub at " + stub.baseUrl());
+    }
+}
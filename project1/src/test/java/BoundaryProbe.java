@@ -0,0 +1,271 @@
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Finds where the server's input limits are with a logarithmic number of requests instead of probing one
+ * hard-coded value.
+ * <p>
+ * {@link #fieldLength} and {@link #idValue} gallop upwards (1, 2, 4, ...) until the server rejects a value with
+ * 400, then bisect between the last accepted and the first rejected value; both assume everything below the limit
+ * is accepted. A create that comes back 208 counts as accepted, since the value got past validation.
+ * {@link #latencyCurve} does the same over payload size, looking for the first size whose median latency exceeds
+ * the smallest payload's by a given factor.
+ */
+public final class BoundaryProbe {
+
+    private static final String AUTHOR = "Lida Leadstone";
+
+    private final RequestSpecification spec;
+    private final AtomicLong requests = new AtomicLong();
+
+    public BoundaryProbe(RequestSpecification spec) {
+        this.spec = spec;
+    }
+
+    /**
+     * Requests sent by this probe so far.
+     */
+    public long requests() {
+        return requests.get();
+    }
+
+    /**
+     * The longest {@code title} or {@code author} the server accepts, searched up to {@code maxLength}.
+     */
+    public Boundary fieldLength(String field, long maxLength) {
+        if (!field.equals("title") && !field.equals("author")) {
+            throw new IllegalArgumentException("Unknown text field " + field);
+        }
+        return search(field + " length", length -> {
+            String value = filler((int) length);
+            return accepted(field.equals("title") ? book(value, AUTHOR, null) : book(TestData.unique("Boundary"), value, null));
+        }, 1, maxLength);
+    }
+
+    /**
+     * The largest {@code id} the server accepts.
+     */
+    public Boundary idValue() {
+        return search("id value", id -> accepted(book(TestData.unique("Boundary"), AUTHOR, id)), 1, Long.MAX_VALUE);
+    }
+
+    /**
+     * Median latency by payload size, from {@code minBytes} up to the first size that is {@code factor} times
+     * slower than {@code minBytes}, bisected to within 1/16 of that size. The payload is padding in the title, so
+     * sizes past the title limit measure a 400 that still had to read and parse the whole body.
+     *
+     * @param samples requests per size; the median of them is used
+     */
+    public LatencyCurve latencyCurve(long minBytes, long maxBytes, double factor, int samples) {
+        // Warm up first, or the baseline includes connection setup and interpreted code and nothing looks slower
+        medianNanos(minBytes, samples);
+        return latencyCurve(size -> medianNanos(size, samples), minBytes, maxBytes, factor);
+    }
+
+    /**
+     * Largest value in {@code [low, high]} for which {@code accepted} holds, assuming it holds for everything below.
+     */
+    static Boundary search(String name, LongPredicate accepted, long low, long high) {
+        List<Probe> probes = new ArrayList<>();
+        LongPredicate probe = value -> {
+            boolean result = accepted.test(value);
+            probes.add(new Probe(value, result));
+            return result;
+        };
+        if (!probe.test(low)) {
+            return new Boundary(name, low - 1, true, probes);
+        }
+        long good = low;
+        long bad = -1;
+        while (good < high) {
+            long next = good > high / 2 ? high : Math.max(good * 2, good + 1);
+            if (!probe.test(next)) {
+                bad = next;
+                break;
+            }
+            good = next;
+        }
+        if (bad < 0) {
+            return new Boundary(name, good, false, probes);
+        }
+        while (bad - good > 1) {
+            long middle = good + (bad - good) / 2;
+            if (probe.test(middle)) {
+                good = middle;
+            } else {
+                bad = middle;
+            }
+        }
+        return new Boundary(name, good, true, probes);
+    }
+
+    /**
+     * The latency search behind {@link #latencyCurve(long, long, double, int)}, over any size-to-latency function.
+     */
+    static LatencyCurve latencyCurve(LongUnaryOperator medianNanos, long minBytes, long maxBytes, double factor) {
+        SortedMap<Long, Long> curve = new TreeMap<>();
+        LongPredicate fast = new LongPredicate() {
+            private long limitNanos = -1;
+
+            @Override
+            public boolean test(long size) {
+                long nanos = medianNanos.applyAsLong(size);
+                curve.put(size, nanos);
+                if (limitNanos < 0) {
+                    limitNanos = (long) (nanos * factor);
+                }
+                return nanos <= limitNanos;
+            }
+        };
+        fast.test(minBytes);
+        long good = minBytes;
+        long bad = -1;
+        while (good < maxBytes) {
+            long next = good > maxBytes / 2 ? maxBytes : Math.max(good * 2, good + 1);
+            if (!fast.test(next)) {
+                bad = next;
+                break;
+            }
+            good = next;
+        }
+        if (bad < 0) {
+            return new LatencyCurve(-1, factor, curve);
+        }
+        while (bad - good > Math.max(good / 16, 1)) {
+            long middle = good + (bad - good) / 2;
+            if (fast.test(middle)) {
+                good = middle;
+            } else {
+                bad = middle;
+            }
+        }
+        return new LatencyCurve(bad, factor, curve);
+    }
+
+    private long medianNanos(long size, int samples) {
+        long[] nanos = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            // a fresh title per sample, or every sample after the first would time the 208 path
+            String body = book(filler((int) Math.max(size - AUTHOR.length() - 24, 1)), AUTHOR, null);
+            long start = System.nanoTime();
+            post(body).asByteArray();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[samples / 2];
+    }
+
+    private boolean accepted(String body) {
+        int status = post(body).getStatusCode();
+        if (status == 201 || status == 208) {
+            return true;
+        }
+        if (status == 400) {
+            return false;
+        }
+        throw new IllegalStateException("Unexpected status " + status + " while probing with " + abbreviate(body));
+    }
+
+    private Response post(String body) {
+        requests.incrementAndGet();
+        return given(spec)
+                .contentType(ContentType.JSON)
+                .body(body)
+                .post();
+    }
+
+    /**
+     * A unique string of exactly {@code length} characters, as far as {@code length} allows.
+     */
+    private static String filler(int length) {
+        String unique = TestData.unique("B");
+        if (length <= unique.length()) {
+            return unique.substring(unique.length() - length);
+        }
+        StringBuilder value = new StringBuilder(length).append(unique);
+        while (value.length() < length) {
+            value.append((char) ('a' + value.length() % 26));
+        }
+        return value.toString();
+    }
+
+    private static String book(String title, String author, Long id) {
+        StringBuilder json = new StringBuilder(title.length() + author.length() + 48).append('{');
+        if (id != null) {
+            json.append("\"id\":").append(id).append(',');
+        }
+        BookJson.quote(json.append("\"title\":"), title);
+        BookJson.quote(json.append(",\"author\":"), author);
+        return json.append('}').toString();
+    }
+
+    private static String abbreviate(String body) {
+        return body.length() <= 80 ? body : body.substring(0, 77) + "...";
+    }
+
+    /**
+     * One value tried by a search.
+     */
+    public record Probe(long value, boolean accepted) {
+    }
+
+    /**
+     * @param limit   the largest accepted value, {@code low - 1} if even the smallest was rejected
+     * @param bounded {@code false} when nothing up to the search's upper bound was rejected, so the real limit may
+     *                be higher
+     */
+    public record Boundary(String name, long limit, boolean bounded, List<Probe> probes) {
+
+        public Boundary {
+            probes = Collections.unmodifiableList(new ArrayList<>(probes));
+        }
+
+        public int requests() {
+            return probes.size();
+        }
+
+        @Override
+        public String toString() {
+            return name + (bounded ? " limit " : " accepted up to at least ") + limit + " (" + requests() + " requests)";
+        }
+    }
+
+    /**
+     * @param thresholdBytes smallest payload found to be {@code factor} times slower than the smallest one, or
+     *                       {@code -1} if no size up to the maximum was
+     * @param curve          median latency in nanoseconds by payload size, for every size measured
+     */
+    public record LatencyCurve(long thresholdBytes, double factor, SortedMap<Long, Long> curve) {
+
+        public LatencyCurve {
+            curve = Collections.unmodifiableSortedMap(new TreeMap<>(curve));
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder();
+            out.append(thresholdBytes < 0
+                    ? String.format("latency stays within %.1fx up to %d bytes%n", factor, curve.lastKey())
+                    : String.format("latency exceeds %.1fx from %d bytes%n", factor, thresholdBytes));
+            out.append(String.format("%12s %10s%n", "bytes", "p50 ms"));
+            for (Map.Entry<Long, Long> point : curve.entrySet()) {
+                out.append(String.format("%12d %10.3f%n", point.getKey(), LoadReport.millis(point.getValue())));
+            }
+            return out.toString();
+        }
+    }
+}
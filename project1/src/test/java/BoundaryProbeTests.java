@@ -0,0 +1,110 @@
+import io.restassured.builder.RequestSpecBuilder;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class BoundaryProbeTests {
+
+    @Test
+    public void testSearchIsLogarithmic() {
+        long high = 1 << 20;
+        for (long limit : new long[]{0, 1, 2, 255, 1000, 65_536, high - 1}) {
+            BoundaryProbe.Boundary boundary = BoundaryProbe.search("x", x -> x <= limit, 1, high);
+
+            // Assertions
+            assertEquals(boundary.limit(), limit, boundary.toString());
+            assertTrue(boundary.bounded(), boundary.toString());
+            assertTrue(boundary.requests() <= 2 * 20 + 1, boundary.toString());
+        }
+        BoundaryProbe.Boundary unbounded = BoundaryProbe.search("x", x -> true, 1, Long.MAX_VALUE);
+        assertEquals(unbounded.limit(), Long.MAX_VALUE);
+        assertFalse(unbounded.bounded());
+        assertTrue(unbounded.requests() <= 64, unbounded.toString());
+    }
+
+    @Test
+    public void testFieldLimitsOfConfiguredServer() {
+        BoundaryProbe probe = new BoundaryProbe(RequestSpecs.user());
+
+        BoundaryProbe.Boundary title = probe.fieldLength("title", 1 << 16);
+        BoundaryProbe.Boundary author = probe.fieldLength("author", 1 << 16);
+
+        System.out.println(title + ", " + author);
+
+        // Assertions
+        assertTrue(title.bounded() && author.bounded(), "Expected a length limit below 65536");
+        assertTrue(probe.requests() <= 2 * (2 * 16 + 1), "Took " + probe.requests() + " requests");
+        if (BooksStubListener.server() != null) {
+            assertEquals(title.limit(), BooksStubListener.server().maxFieldLength());
+            assertEquals(author.limit(), BooksStubListener.server().maxFieldLength());
+        }
+    }
+
+    @Test
+    public void testLimitsOfReconfiguredStub() throws IOException {
+        try (BooksStubServer server = BooksStubServer.start("127.0.0.1", 0, 100)) {
+            BoundaryProbe probe = new BoundaryProbe(new RequestSpecBuilder()
+                    .addRequestSpecification(RequestSpecs.admin())
+                    .setBaseUri(server.baseUrl())
+                    .build());
+
+            // Assertions
+            assertEquals(probe.fieldLength("title", 1 << 16).limit(), 100);
+            assertEquals(probe.fieldLength("author", 1 << 16).limit(), 100);
+            BoundaryProbe.Boundary id = probe.idValue();
+            assertEquals(id.limit(), Long.MAX_VALUE, id.toString());
+            assertFalse(id.bounded());
+            assertEquals(server.requestCount(), probe.requests());
+        }
+    }
+
+    @Test
+    public void testLatencyCurveCreatesANewBookPerSample() throws IOException {
+        try (BooksStubServer server = BooksStubServer.start("127.0.0.1", 0, 1 << 16)) {
+            BoundaryProbe probe = new BoundaryProbe(new RequestSpecBuilder()
+                    .addRequestSpecification(RequestSpecs.admin())
+                    .setBaseUri(server.baseUrl())
+                    .build());
+
+            BoundaryProbe.LatencyCurve curve = probe.latencyCurve(256, 4096, 1000, 3);
+
+            // Assertions
+            assertEquals((long) curve.curve().lastKey(), 4096, curve.toString());
+            assertEquals(server.bookCount(), probe.requests(), "Every sample should time a create, not a 208");
+        }
+    }
+
+    @Test
+    public void testLatencyCurveBisectsThreshold() {
+        BoundaryProbe.LatencyCurve step = BoundaryProbe.latencyCurve(
+                size -> size < 300_000 ? 1_000_000 : 5_000_000, 1024, 1 << 24, 2);
+        BoundaryProbe.LatencyCurve flat = BoundaryProbe.latencyCurve(size -> 1_000_000, 1024, 1 << 24, 2);
+        BoundaryProbe.LatencyCurve fromEmpty = BoundaryProbe.latencyCurve(size -> 1_000_000, 0, 4096, 2);
+
+        // Assertions
+        assertTrue(step.thresholdBytes() >= 300_000 && step.thresholdBytes() <= 300_000 * 17 / 16, step.toString());
+        assertTrue(step.curve().size() <= 2 * 15, step.toString());
+        assertEquals(flat.thresholdBytes(), -1);
+        assertEquals((long) flat.curve().lastKey(), 1 << 24);
+        assertEquals((long) fromEmpty.curve().lastKey(), 4096, "Doubling should not get stuck at zero bytes");
+    }
+
+    // mvn test -Pload [-Dprobe.max.bytes=67108864] [-Dprobe.factor=2] [-Dprobe.samples=5]
+    @Test(groups = "load")
+    public void testLatencyCurveOfConfiguredServer() {
+        BoundaryProbe probe = new BoundaryProbe(RequestSpecs.user());
+
+        BoundaryProbe.LatencyCurve curve = probe.latencyCurve(256, Long.getLong("probe.max.bytes", 16 << 20),
+                Double.parseDouble(System.getProperty("probe.factor", "2")), Integer.getInteger("probe.samples", 5));
+
+        System.out.print(curve);
+        System.out.println(probe.requests() + " requests");
+
+        // Assertions
+        assertTrue(curve.curve().size() > 1, curve.toString());
+    }
+}
@@ -0,0 +1,63 @@
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * Timeouts and retries of the clients built by {@link RequestSpecs}.
+ *
+ * @param connectTimeout     how long to wait for a TCP connection
+ * @param readTimeout        how long to wait for each read of the response; a response slower than this fails
+ * @param maxAttempts        attempts per call including the first, 1 for no retries
+ * @param baseBackoff        the backoff before the first retry, doubled for every further one
+ * @param maxBackoff         the cap on the backoff
+ * @param retryNonIdempotent whether a {@code POST} may be retried too. The books API answers a repeated create with
+ *                           208 rather than adding the book twice, but that changes what the caller sees: a create
+ *                           whose response was lost after the server carried it out comes back as 208, not 201, and
+ *                           fails a test that expects 201
+ */
+public record ClientPolicy(Duration connectTimeout, Duration readTimeout, int maxAttempts, Duration baseBackoff,
+                           Duration maxBackoff, boolean retryNonIdempotent) {
+
+    public ClientPolicy {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+    }
+
+    /**
+     * The policy configured in {@code config}: {@code http.timeout.connect.ms} (default 5000),
+     * {@code http.timeout.read.ms} (default 60000), {@code http.retry.attempts} (default 1),
+     * {@code http.retry.backoff.ms} (default 50), {@code http.retry.backoff.max.ms} (default 2000) and
+     * {@code http.retry.post} (default false).
+     */
+    public static ClientPolicy configured(SuiteConfig config) {
+        return new ClientPolicy(Duration.ofMillis(config.getLong("http.timeout.connect.ms", 5000)),
+                Duration.ofMillis(config.getLong("http.timeout.read.ms", 60_000)),
+                config.getInt("http.retry.attempts", 1),
+                Duration.ofMillis(config.getLong("http.retry.backoff.ms", 50)),
+                Duration.ofMillis(config.getLong("http.retry.backoff.max.ms", 2000)),
+                config.getBoolean("http.retry.post", false));
+    }
+
+    public ClientPolicy withTimeouts(Duration connect, Duration read) {
+        return new ClientPolicy(connect, read, maxAttempts, baseBackoff, maxBackoff, retryNonIdempotent);
+    }
+
+    public ClientPolicy withRetries(int attempts, boolean nonIdempotent) {
+        return new ClientPolicy(connectTimeout, readTimeout, attempts, baseBackoff, maxBackoff, nonIdempotent);
+    }
+
+    public boolean retries(String method) {
+        return maxAttempts > 1 && (retryNonIdempotent || !"POST".equalsIgnoreCase(method) && !"PATCH".equalsIgnoreCase(method));
+    }
+
+    /**
+     * The pause before retry number {@code retry} (1 for the first), with "full jitter": uniform between zero and
+     * the exponential backoff, so that clients failed by the same outage do not all come back at the same moment.
+     */
+    public Duration backoff(int retry, RandomGenerator random) {
+        long cap = maxBackoff.toNanos();
+        long exponential = baseBackoff.toNanos() << Math.min(retry - 1, 30);
+        long ceiling = exponential <= 0 || exponential > cap ? cap : exponential;
+        return Duration.ofNanos(ceiling == 0 ? 0 : random.nextLong(ceiling + 1));
+    }
+}
@@ -0,0 +1,15 @@
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * Prints the {@link SharedConnectionPool} reuse and lease-wait summary at the end of the suite.
+ */
+public class ConnectionPoolListener implements ISuiteListener {
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (SharedConnectionPool.INSTANCE.leases() > 0) {
+            System.out.println("Connection pool: " + SharedConnectionPool.INSTANCE);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.testng.annotations.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class ConnectionPoolTests {
+
+    @Test
+    public void testSequentialRequestsReuseConnections() {
+        int requests = 20;
+        long leasesBefore = SharedConnectionPool.INSTANCE.leases();
+
+        SharedConnectionPool.resetCurrentThread();
+        for (int i = 0; i < requests; i++) {
+            String requestBody = "{\"title\":\"" + TestData.unique("Keep Alive") + "\",\"author\":\"Pooled Writer\"}";
+            Response response = given(RequestSpecs.user())
+                    .contentType(ContentType.JSON)
+                    .body(requestBody)
+                    .post();
+            assertEquals(response.getStatusCode(), 201, "Expected status code 201");
+        }
+
+        // Assertions
+        assertTrue(SharedConnectionPool.INSTANCE.leases() - leasesBefore >= requests, "Expected every request to lease from the pool");
+        // Other test threads may take our idle connection now and then, but most requests must skip the handshake
+        assertTrue(SharedConnectionPool.openedByCurrentThread() < requests / 2,
+                "Expected pooled connections to be reused, opened " + SharedConnectionPool.openedByCurrentThread());
+    }
+
+    @Test
+    public void testRejectedRequestReleasesConnection() {
+        for (int i = 0; i < 3; i++) {
+            Response response = given(RequestSpecs.withCredentials("dev", "123"))
+                    .contentType(ContentType.JSON)
+                    .body("{\"title\":\"Pool Leak\",\"author\":\"Nobody\"}")
+                    .post();
+            assertEquals(response.getStatusCode(), 401, "Expected status code 401");
+        }
+
+        Response response = given(RequestSpecs.user())
+                .contentType(ContentType.JSON)
+                .body("{\"title\":\"" + TestData.unique("After Rejection") + "\",\"author\":\"Pooled Writer\"}")
+                .post();
+
+        // Assertions
+        assertEquals(response.getStatusCode(), 201, "Expected status code 201");
+        assertTrue(SharedConnectionPool.INSTANCE.leaseWait().max() < SharedConnectionPool.LEASE_TIMEOUT_MILLIS * 1_000_000L,
+                "Expected no caller to wait out the lease timeout");
+    }
+}
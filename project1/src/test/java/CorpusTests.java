@@ -0,0 +1,191 @@
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class CorpusTests {
+
+    /**
+     * Records from {@code -Dcorpus.file} (default: the bundled {@code corpus/books.ndjson}), read lazily, at most
+     * {@code -Dcorpus.limit} of them. TestNG queues one parallel worker per record, so million-record runs belong
+     * in the load driver ({@link BookScenarios#corpus}) rather than here.
+     */
+    @DataProvider(name = "corpus", parallel = true)
+    public static Iterator<Object[]> corpus() throws IOException, URISyntaxException {
+        String file = System.getProperty("corpus.file");
+        Path path = file != null ? Path.of(file) : Path.of(CorpusTests.class.getResource("/corpus/books.ndjson").toURI());
+        BookCorpus.Cursor cursor = BookCorpus.open(path).cursor(false);
+        long limit = Long.getLong("corpus.limit", 10_000);
+        return new Iterator<>() {
+            private long served;
+
+            @Override
+            public boolean hasNext() {
+                return served < limit && cursor.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                served++;
+                return new Object[]{cursor.next()};
+            }
+        };
+    }
+
+    @Test(dataProvider = "corpus")
+    public void testCreateBookFromCorpus(BookCorpus.Book book) {
+        Scenario.Step step = book.step(BooksStubServer.DEFAULT_MAX_FIELD_LENGTH);
+
+        Response response = given(RequestSpecs.user())
+                .contentType(ContentType.JSON)
+                .body(step.body())
+                .post();
+
+        // Assertions
+        assertNull(step.check(response.getStatusCode(), response.getContentType(), null), book.toString());
+    }
+
+    @Test
+    public void testNdjsonAcrossWindowBoundaries() throws IOException {
+        Path file = Files.createTempFile("corpus", ".ndjson");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                for (int i = 0; i < 5000; i++) {
+                    out.write("{\"title\":\"Book \\\"" + i + "\\\" é\",\"author\":\"Author " + i + "\"}\r\n");
+                    if (i % 1000 == 0) {
+                        out.write("\n");
+                    }
+                }
+            }
+
+            try (BookCorpus corpus = BookCorpus.open(file, BookCorpus.Format.NDJSON, 4096)) {
+                BookCorpus.Cursor cursor = corpus.cursor(false);
+                int count = 0;
+                while (cursor.hasNext()) {
+                    BookCorpus.Book book = cursor.next();
+                    // Assertions
+                    assertEquals(book, new BookCorpus.Book("Book \"" + count + "\" é", "Author " + count));
+                    count++;
+                }
+                assertEquals(count, 5000, "Expected every record exactly once");
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testCsvQuotingAndCycling() throws IOException {
+        Path file = Files.createTempFile("corpus", ".csv");
+        try {
+            Files.writeString(file, "title,author\n\"Nude Bomb, The\",Cariotta Gamble\n"
+                    + "\"The \"\"Lost\"\" Chapters\",Anonymous\n\"Ambulance,\nThe\",\"Lida\r\nLeadstone\"\r\n");
+
+            try (BookCorpus corpus = BookCorpus.open(file)) {
+                BookCorpus.Cursor cursor = corpus.cursor(true);
+                List<BookCorpus.Book> books = List.of(cursor.next(), cursor.next(), cursor.next(), cursor.next());
+
+                // Assertions
+                assertEquals(books.get(0), new BookCorpus.Book("Nude Bomb, The", "Cariotta Gamble"));
+                assertEquals(books.get(1), new BookCorpus.Book("The \"Lost\" Chapters", "Anonymous"));
+                assertEquals(books.get(2), new BookCorpus.Book("Ambulance,\nThe", "Lida\r\nLeadstone"),
+                        "Expected line breaks inside quotes to stay in the field");
+                assertEquals(books.get(3), books.get(0), "Expected the cursor to start over after the last record");
+                assertEquals(cursor.records(), 4L);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testBadRecordReportsOffset() throws IOException {
+        Path file = Files.createTempFile("corpus", ".ndjson");
+        try {
+            Files.writeString(file, "{\"title\":\"Ok\",\"author\":\"Fine\"}\n{\"title\":5093}\n");
+
+            try (BookCorpus corpus = BookCorpus.open(file)) {
+                BookCorpus.Cursor cursor = corpus.cursor(false);
+                cursor.next();
+                IllegalArgumentException e = expectThrows(IllegalArgumentException.class, cursor::next);
+
+                // Assertions
+                assertTrue(e.getMessage().contains("byte 31"), e.getMessage());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testCorpusDrivesLoadRunner() throws IOException, URISyntaxException {
+        Path path = Path.of(CorpusTests.class.getResource("/corpus/books.ndjson").toURI());
+        try (BookCorpus corpus = BookCorpus.open(path)) {
+            Workload workload = new Workload(List.of(BookScenarios.corpus(corpus.cursor(true), 1)));
+
+            LoadReport report = LoadRunner.closedLoop(workload, 4, Duration.ofSeconds(30), 70);
+
+            // Assertions
+            assertEquals(report.iterations(), 70L, "Expected every iteration to run");
+            assertEquals(report.errors(), 0L, "Unexpected failure: " + report.firstError());
+        }
+    }
+
+    // mvn test -Pload -Dtest=CorpusTests [-Dcorpus.mb=10240]
+    @Test(groups = "load")
+    public void testHeapStaysFlatAsCorpusGrows() throws IOException {
+        long bytes = Long.getLong("corpus.mb", 512) << 20;
+        Path file = Files.createTempFile("corpus", ".ndjson");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                String author = "\",\"author\":\"" + "Lida Leadstone ".repeat(4) + "\"}\n";
+                for (long written = 0, i = 0; written < bytes; i++) {
+                    String line = "{\"title\":\"Ambulance, The " + i + author;
+                    out.write(line);
+                    written += line.length();
+                }
+            }
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+            long records = 0;
+            long peak = 0;
+            try (BookCorpus corpus = BookCorpus.open(file)) {
+                System.gc();
+                long baseline = memory.getHeapMemoryUsage().getUsed();
+                BookCorpus.Cursor cursor = corpus.cursor(false);
+                while (cursor.hasNext()) {
+                    cursor.next();
+                    if (++records % 1_000_000 == 0) {
+                        System.gc();
+                        peak = Math.max(peak, memory.getHeapMemoryUsage().getUsed() - baseline);
+                    }
+                }
+            }
+
+            System.out.printf("Read %d records (%d MB), live heap grew by at most %d KB%n", records, bytes >> 20, peak >> 10);
+
+            // Assertions
+            assertTrue(peak < 16L << 20, "Expected flat heap use but it grew by " + (peak >> 10) + " KB");
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+import io.restassured.http.Header;
+import org.apache.commons.codec.binary.Base64;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Basic auth credentials with the {@code Authorization} header computed once up front.
+ * <p>
+ * Sending the header on the first request skips the unauthenticated request / 401 challenge / retry
+ * cycle that {@code RestAssured.basic(...)} goes through, so every logical request is a single HTTP exchange.
+ */
+public final class Credentials {
+
+    public static final Credentials ADMIN =
+            new Credentials("admin", SuiteConfig.current().adminUsername(), SuiteConfig.current().adminPassword());
+    public static final Credentials USER =
+            new Credentials("user", SuiteConfig.current().userUsername(), SuiteConfig.current().userPassword());
+
+    private final String role;
+    private final String username;
+    private final Header header;
+
+    private Credentials(String role, String username, String password) {
+        this.role = role;
+        this.username = username;
+        String token = Base64.encodeBase64String((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        this.header = new Header("Authorization", "Basic " + token);
+    }
+
+    /**
+     * Credentials that are not one of the configured roles, e.g. a wrong password for the 401 tests.
+     */
+    public static Credentials invalid(String username, String password) {
+        return new Credentials("invalid", username, password);
+    }
+
+    public String role() {
+        return role;
+    }
+
+    public String username() {
+        return username;
+    }
+
+    public Header header() {
+        return header;
+    }
+}
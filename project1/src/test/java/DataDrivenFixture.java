@@ -0,0 +1,24 @@
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * A data-driven test of {@value #INVOCATIONS} passing invocations for {@link ResultStreamTests} to run in a TestNG
+ * of its own. The name keeps Surefire from running it as part of the suite.
+ */
+public class DataDrivenFixture {
+
+    static final int INVOCATIONS = 20;
+
+    @DataProvider
+    public Object[][] rows() {
+        Object[][] rows = new Object[INVOCATIONS][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[]{i};
+        }
+        return rows;
+    }
+
+    @Test(dataProvider = "rows")
+    public void testPasses(int row) {
+    }
+}
@@ -0,0 +1,25 @@
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.fail;
+
+/**
+ * One passing, one failing and one skipped test for {@link DistributedRunnerTests} to run in worker JVMs. The name
+ * keeps Surefire from running it as part of the suite.
+ */
+public class DistributedFixture {
+
+    @Test
+    public void testPasses() {
+    }
+
+    @Test
+    public void testFails() {
+        fail("fixture failure <with> \"markup\" ]]> and\ttabs");
+    }
+
+    @Test
+    public void testSkips() {
+        throw new SkipException("fixture skip");
+    }
+}
@@ -0,0 +1,16 @@
+import org.testng.annotations.Test;
+
+/**
+ * Two passing tests for {@link DistributedRunnerTests} to put on a second worker next to {@link DistributedFixture}.
+ * The name keeps Surefire from running it as part of the suite.
+ */
+public class DistributedPeerFixture {
+
+    @Test
+    public void testPasses() {
+    }
+
+    @Test
+    public void testAlsoPasses() {
+    }
+}
@@ -0,0 +1,123 @@
+import org.example.Coordinator;
+import org.example.WorkerProtocol;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class DistributedRunnerTests {
+
+    @Test
+    public void testProtocolRoundTripsControlCharacters() {
+        String[] fields = {WorkerProtocol.RESULT, "a\tb", "line\nbreak\r", "back\\slash\\t", ""};
+
+        // Assertions
+        assertEquals(WorkerProtocol.decode(WorkerProtocol.encode(fields)), fields);
+        assertTrue(!WorkerProtocol.encode(fields).contains("\n"));
+    }
+
+    @Test
+    public void testRunsShardsInWorkerJvmsAndMergesResults() throws Exception {
+        Path reports = Files.createTempDirectory("distributed");
+        try {
+            Coordinator.Options options = new Coordinator.Options(2,
+                    List.of("DistributedFixture", "DistributedPeerFixture"), classpath(), "", "load", reports,
+                    reports.resolve("history.tsv"), true, List.of(), Duration.ofMinutes(5), "SuiteWorker");
+
+            Coordinator.Summary summary = new Coordinator(options).run();
+
+            // Assertions
+            assertEquals(summary.workers(), 2);
+            assertEquals(summary.passed(), 3, summary.toString());
+            assertEquals(summary.failed(), 1, summary.toString());
+            assertEquals(summary.skipped(), 1, summary.toString());
+            assertEquals(summary.crashedWorkers(), 0, summary.toString());
+            assertEquals(summary.exitCode(), 1);
+
+            Document report = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(summary.report().toFile());
+            Element root = report.getDocumentElement();
+            assertEquals(root.getAttribute("total"), "5");
+            assertEquals(root.getAttribute("failed"), "1");
+            assertEquals(report.getElementsByTagName("test").getLength(), 2, "One <test> per worker");
+            NodeList messages = report.getElementsByTagName("message");
+            assertEquals(messages.getLength(), 2, "The failure and the skip should carry their messages");
+            assertTrue(messages.item(0).getTextContent().contains("fixture failure <with> \"markup\" ]]> and\ttabs")
+                    || messages.item(1).getTextContent().contains("fixture failure <with> \"markup\" ]]> and\ttabs"),
+                    "Expected the failure message to survive escaping");
+            assertTrue(Files.readString(reports.resolve("history.tsv")).contains("DistributedFixture.testFails"),
+                    "Workers should record into the given history");
+            ResultSummary streamed = ResultSummary.summarize(List.of(reports.resolve("results")));
+            assertEquals(streamed.files(), 2, "Each worker should stream its own results file");
+            assertEquals(streamed.total(), 5, streamed.toString());
+            assertEquals(streamed.failed(), 1, streamed.toString());
+        } finally {
+            delete(reports);
+        }
+    }
+
+    @Test
+    public void testWorkerThatNeverConnectsCountsAsCrashed() throws Exception {
+        Path reports = Files.createTempDirectory("distributed");
+        try {
+            Coordinator.Options options = new Coordinator.Options(1, List.of("DistributedPeerFixture"), classpath(),
+                    "", "", reports, reports.resolve("history.tsv"), false, List.of(), Duration.ofMinutes(1),
+                    "NoSuchWorker");
+
+            Coordinator.Summary summary = new Coordinator(options).run();
+
+            // Assertions
+            assertEquals(summary.crashedWorkers(), 1, summary.toString());
+            assertEquals(summary.failed(), 1, summary.toString());
+            assertEquals(summary.exitCode(), 1);
+            assertTrue(Files.readString(reports.resolve("worker-0.log")).contains("NoSuchWorker"));
+        } finally {
+            delete(reports);
+        }
+    }
+
+    @Test
+    public void testGreetingsWithUnknownIndexesAreRefused() throws Exception {
+        Path reports = Files.createTempDirectory("distributed");
+        try {
+            Coordinator.Options options = new Coordinator.Options(1, List.of("DistributedPeerFixture"), classpath(),
+                    "", "", reports, reports.resolve("history.tsv"), false, List.of(), Duration.ofMinutes(1),
+                    "MisbehavingWorker");
+
+            Coordinator.Summary summary = new Coordinator(options).run();
+
+            // Assertions
+            assertEquals(summary.crashedWorkers(), 0, summary.toString());
+            assertEquals(summary.failed(), 0, summary.toString());
+            assertEquals(summary.passed(), 2, summary.toString());
+        } finally {
+            delete(reports);
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Surefire runs tests from a manifest-only jar; it publishes the real classpath separately.
+     */
+    private static String classpath() {
+        return System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+    }
+}
@@ -0,0 +1,199 @@
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Races K clients creating the same book at the same instant and checks the 208 contract: every round must
+ * produce exactly one 201 and K-1 208s.
+ * <p>
+ * K platform threads each send one POST per round; a {@link CyclicBarrier} releases them together, and a second
+ * barrier action checks the round once all K responses are in.
+ */
+public final class DuplicateRaceTester {
+
+    public enum Mode {
+        /** all K requests carry the same title and author and no id */
+        SAME_DATA,
+        /** all K requests carry the same id with different titles */
+        SAME_ID
+    }
+
+    private final RequestSpecification spec;
+
+    public DuplicateRaceTester(RequestSpecification spec) {
+        this.spec = spec;
+    }
+
+    public RaceReport run(Mode mode, int k, int rounds) {
+        if (k < 2) {
+            throw new IllegalArgumentException("A race needs at least two clients");
+        }
+        RaceReport report = new RaceReport(mode, k, rounds);
+        AtomicReferenceArray<Integer> statuses = new AtomicReferenceArray<>(k);
+        AtomicInteger round = new AtomicInteger();
+        CyclicBarrier start = new CyclicBarrier(k);
+        CyclicBarrier finish = new CyclicBarrier(k, () -> {
+            report.verify(round.getAndIncrement(), statuses);
+            for (int i = 0; i < k; i++) {
+                statuses.set(i, null);
+            }
+        });
+        try (ExecutorService executor = Executors.newFixedThreadPool(k)) {
+            List<Future<?>> clients = new ArrayList<>(k);
+            RoundData[] data = new RoundData[rounds];
+            for (int r = 0; r < rounds; r++) {
+                data[r] = new RoundData(TestData.id(), TestData.tag());
+            }
+            for (int i = 0; i < k; i++) {
+                int client = i;
+                clients.add(executor.submit(() -> {
+                    for (int r = 0; r < rounds; r++) {
+                        String body = body(mode, data[r], client);
+                        await(start);
+                        long begin = System.nanoTime();
+                        try {
+                            statuses.set(client, given(spec)
+                                    .contentType(ContentType.JSON)
+                                    .body(body)
+                                    .post()
+                                    .getStatusCode());
+                        } catch (Exception e) {
+                            // RestAssured rethrows I/O failures unchecked; a client that died here would strand the barrier
+                            statuses.set(client, -1);
+                            report.error(e);
+                        }
+                        report.latency().record(System.nanoTime() - begin);
+                        await(finish);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> client : clients) {
+                client.get();
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Race " + mode + " with " + k + " clients aborted", e);
+        }
+        return report;
+    }
+
+    private static String body(Mode mode, RoundData data, int client) {
+        return switch (mode) {
+            case SAME_DATA -> "{\"title\":\"Chattahoochee #" + data.tag() + "\",\"author\":\"Allin Cannicott\"}";
+            case SAME_ID -> "{\"id\":" + data.id() + ",\"title\":\"The Castle of Fu Manchu #" + data.tag() + "-" + client
+                    + "\",\"author\":\"Gina Bruggeman\"}";
+        };
+    }
+
+    private record RoundData(long id, String tag) {
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (BrokenBarrierException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Outcome of {@link #run}: rounds that broke the contract and the latency of every racing request.
+     */
+    public static final class RaceReport {
+
+        private final Mode mode;
+        private final int k;
+        private final int rounds;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder violations = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final AtomicReference<String> firstViolation = new AtomicReference<>();
+
+        RaceReport(Mode mode, int k, int rounds) {
+            this.mode = mode;
+            this.k = k;
+            this.rounds = rounds;
+        }
+
+        void verify(int round, AtomicReferenceArray<Integer> statuses) {
+            int created = 0;
+            int duplicates = 0;
+            StringBuilder seen = new StringBuilder();
+            for (int i = 0; i < statuses.length(); i++) {
+                Integer status = statuses.get(i);
+                if (status != null && status == 201) {
+                    created++;
+                } else if (status != null && status == 208) {
+                    duplicates++;
+                }
+                seen.append(i == 0 ? "" : ",").append(status);
+            }
+            if (created != 1 || duplicates != k - 1) {
+                violations.increment();
+                firstViolation.compareAndSet(null, "round " + round + ": expected one 201 and " + (k - 1)
+                        + " 208 but got [" + seen + "]");
+            }
+        }
+
+        void error(Exception e) {
+            errors.increment();
+            firstViolation.compareAndSet(null, e.toString());
+        }
+
+        public Mode mode() {
+            return mode;
+        }
+
+        public int k() {
+            return k;
+        }
+
+        public int rounds() {
+            return rounds;
+        }
+
+        public long violations() {
+            return violations.sum();
+        }
+
+        public long errors() {
+            return errors.sum();
+        }
+
+        public String firstViolation() {
+            return firstViolation.get();
+        }
+
+        public LatencyHistogram latency() {
+            return latency;
+        }
+
+        static String header() {
+            return String.format("%-10s %5s %7s %10s %9s %9s %9s %9s%n",
+                    "mode", "K", "rounds", "violations", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-10s %5d %7d %10d %9.2f %9.2f %9.2f %9.2f%n", mode, k, rounds, violations(),
+                    LoadReport.millis(latency.percentile(50)), LoadReport.millis(latency.percentile(90)),
+                    LoadReport.millis(latency.percentile(99)), LoadReport.millis(latency.max()));
+        }
+    }
+}
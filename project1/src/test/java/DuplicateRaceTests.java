@@ -0,0 +1,45 @@
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+
+public class DuplicateRaceTests {
+
+    @DataProvider
+    public Object[][] modes() {
+        return new Object[][]{{DuplicateRaceTester.Mode.SAME_DATA}, {DuplicateRaceTester.Mode.SAME_ID}};
+    }
+
+    @Test(dataProvider = "modes")
+    public void testConcurrentDuplicateCreateReturnsOne201(DuplicateRaceTester.Mode mode) {
+        DuplicateRaceTester.RaceReport report = new DuplicateRaceTester(RequestSpecs.user()).run(mode, 8, 10);
+
+        System.out.print(DuplicateRaceTester.RaceReport.header() + report);
+
+        // Assertions
+        assertEquals(report.violations(), 0L, "Duplicate contract broken: " + report.firstViolation());
+    }
+
+    // mvn test -Pload -Dtest=DuplicateRaceTests [-Drace.rounds=5000] [-Drace.clients=2,4,8,16,32,64]
+    @Test(groups = "load", dataProvider = "modes")
+    public void testDuplicateContention(DuplicateRaceTester.Mode mode) {
+        SuiteConfig config = SuiteConfig.current();
+        int rounds = config.getInt("race.rounds", 1000);
+        String[] clients = config.get("race.clients", "2,4,8,16,32,64").split(",");
+        DuplicateRaceTester tester = new DuplicateRaceTester(RequestSpecs.user());
+
+        StringBuilder table = new StringBuilder(DuplicateRaceTester.RaceReport.header());
+        long violations = 0;
+        String firstViolation = null;
+        for (String k : clients) {
+            DuplicateRaceTester.RaceReport report = tester.run(mode, Integer.parseInt(k.trim()), rounds);
+            table.append(report);
+            violations += report.violations();
+            firstViolation = firstViolation != null ? firstViolation : report.firstViolation();
+        }
+        System.out.print(table);
+
+        // Assertions
+        assertEquals(violations, 0L, "Duplicate contract broken: " + firstViolation);
+    }
+}
@@ -0,0 +1,42 @@
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.protocol.HttpContext;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the HTTP requests that actually go on the wire, including any retry the client makes on its own
+ * after a 401 challenge. Installed on every client built from {@link RequestSpecs}.
+ */
+public final class ExchangeCounter implements HttpRequestInterceptor {
+
+    static final ExchangeCounter INSTANCE = new ExchangeCounter();
+
+    private static final ThreadLocal<long[]> PER_THREAD = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final LongAdder total = new LongAdder();
+
+    private ExchangeCounter() {
+    }
+
+    @Override
+    public void process(HttpRequest request, HttpContext context) {
+        total.increment();
+        PER_THREAD.get()[0]++;
+    }
+
+    public static long total() {
+        return INSTANCE.total.sum();
+    }
+
+    /**
+     * Exchanges made by the calling thread since its last {@link #resetCurrentThread()}.
+     */
+    public static long currentThread() {
+        return PER_THREAD.get()[0];
+    }
+
+    public static void resetCurrentThread() {
+        PER_THREAD.get()[0] = 0;
+    }
+}
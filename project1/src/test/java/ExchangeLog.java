@@ -0,0 +1,348 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Append-only binary log of HTTP exchanges, written by {@link RecordingFilter} and read back by
+ * {@link ReplayServer} and {@link ExchangeReplayer}.
+ * <p>
+ * The file starts with the 4-byte magic {@code BXL1}, followed by frames of
+ * <pre>
+ *     int length | byte flags | payload[length]
+ * </pre>
+ * where the payload is one {@link Exchange} in {@link DataOutputStream} encoding. With {@link #DEFLATED} set the
+ * payload is instead the raw length followed by the deflated bytes; a writer only sets it for payloads of at least
+ * {@link #DEFAULT_COMPRESS_THRESHOLD} bytes that actually got smaller. A reader stops at a frame cut short by a
+ * crash mid-append, so a log stays readable up to its last complete exchange, and a writer reopening such a log
+ * first cuts the partial frame off, so the next run's frames are not read as the rest of it.
+ */
+public final class ExchangeLog {
+
+    public static final int DEFLATED = 1;
+    public static final int DEFAULT_COMPRESS_THRESHOLD = 512;
+
+    private static final byte[] MAGIC = {'B', 'X', 'L', '1'};
+    private static final int MAX_FRAME = 256 << 20;
+
+    private ExchangeLog() {
+    }
+
+    /**
+     * Reads every complete exchange in {@code file}.
+     */
+    public static List<Exchange> read(Path file) throws IOException {
+        try (Reader reader = new Reader(Files.newInputStream(file))) {
+            List<Exchange> exchanges = new ArrayList<>();
+            for (Exchange exchange; (exchange = reader.next()) != null; ) {
+                exchanges.add(exchange);
+            }
+            return exchanges;
+        }
+    }
+
+    /**
+     * One recorded request/response pair. Header maps keep the first value of each header, in arrival order.
+     *
+     * @param timestampMicros wall-clock time the request was sent, in microseconds since the epoch
+     * @param durationNanos   time from sending the request to receiving the response
+     */
+    public record Exchange(long timestampMicros, long durationNanos, String method, String path,
+                           Map<String, String> requestHeaders, byte[] requestBody, int status,
+                           Map<String, String> responseHeaders, byte[] responseBody) {
+
+        public Exchange {
+            requestHeaders = Collections.unmodifiableMap(new LinkedHashMap<>(requestHeaders));
+            responseHeaders = Collections.unmodifiableMap(new LinkedHashMap<>(responseHeaders));
+        }
+
+        public String requestHeader(String name) {
+            return header(requestHeaders, name);
+        }
+
+        public String responseHeader(String name) {
+            return header(responseHeaders, name);
+        }
+
+        @Override
+        public String toString() {
+            return method + " " + path + " -> " + status + " (" + TimeUnit.NANOSECONDS.toMicros(durationNanos) + " us)";
+        }
+
+        private static String header(Map<String, String> headers, String name) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                if (header.getKey().equalsIgnoreCase(name)) {
+                    return header.getValue();
+                }
+            }
+            return null;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeLong(timestampMicros);
+            out.writeLong(durationNanos);
+            out.writeUTF(method);
+            out.writeUTF(path);
+            writeHeaders(out, requestHeaders);
+            writeBytes(out, requestBody);
+            out.writeShort(status);
+            writeHeaders(out, responseHeaders);
+            writeBytes(out, responseBody);
+        }
+
+        static Exchange readFrom(DataInputStream in) throws IOException {
+            return new Exchange(in.readLong(), in.readLong(), in.readUTF(), in.readUTF(), readHeaders(in),
+                    readBytes(in), in.readUnsignedShort(), readHeaders(in), readBytes(in));
+        }
+
+        private static void writeHeaders(DataOutputStream out, Map<String, String> headers) throws IOException {
+            out.writeShort(headers.size());
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                out.writeUTF(header.getKey());
+                out.writeUTF(header.getValue());
+            }
+        }
+
+        private static Map<String, String> readHeaders(DataInputStream in) throws IOException {
+            int count = in.readUnsignedShort();
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                headers.put(in.readUTF(), in.readUTF());
+            }
+            return headers;
+        }
+
+        private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private static byte[] readBytes(DataInputStream in) throws IOException {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return bytes;
+        }
+    }
+
+    /**
+     * Appends frames to a log, creating it if needed. Safe for concurrent use; each frame is encoded and compressed
+     * by the calling thread and only the final write is serialized.
+     */
+    public static final class Writer implements AutoCloseable {
+
+        private final Path file;
+        private final int compressThreshold;
+        private final DataOutputStream out;
+        private long frames;
+        private long bytes;
+
+        /**
+         * @param compressThreshold smallest payload worth deflating, or {@link Integer#MAX_VALUE} to never compress
+         */
+        public Writer(Path file, int compressThreshold) throws IOException {
+            this.file = file;
+            this.compressThreshold = compressThreshold;
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            boolean exists = Files.exists(file) && Files.size(file) > 0;
+            if (exists) {
+                long complete = completeLength(file);
+                if (complete < Files.size(file)) {
+                    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                        channel.truncate(complete);
+                    }
+                }
+            }
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND), 1 << 16));
+            if (!exists) {
+                out.write(MAGIC);
+            }
+        }
+
+        public Path file() {
+            return file;
+        }
+
+        /**
+         * The length of the magic and every complete frame of an existing log, i.e. where the next frame belongs.
+         */
+        private static long completeLength(Path file) throws IOException {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                checkMagic(in);
+                long end = MAGIC.length;
+                while (true) {
+                    try {
+                        int length = in.readInt();
+                        if (length < 0 || length > MAX_FRAME) {
+                            throw new IOException("Corrupt exchange log: frame length " + length + " at offset " + end);
+                        }
+                        in.readUnsignedByte();
+                        in.skipNBytes(length);
+                        end += Integer.BYTES + 1 + length;
+                    } catch (EOFException e) {
+                        return end;
+                    }
+                }
+            }
+        }
+
+        public void append(Exchange exchange) throws IOException {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(256 + exchange.requestBody().length
+                    + exchange.responseBody().length);
+            exchange.writeTo(new DataOutputStream(buffer));
+            byte[] payload = buffer.toByteArray();
+            int flags = 0;
+            if (payload.length >= compressThreshold) {
+                byte[] deflated = deflate(payload);
+                if (deflated.length + Integer.BYTES < payload.length) {
+                    payload = deflated;
+                    flags = DEFLATED;
+                }
+            }
+            synchronized (this) {
+                out.writeInt(payload.length);
+                out.writeByte(flags);
+                out.write(payload);
+                frames++;
+                bytes += Integer.BYTES + 1 + payload.length;
+            }
+        }
+
+        public synchronized long frames() {
+            return frames;
+        }
+
+        /**
+         * Bytes appended by this writer, excluding the magic.
+         */
+        public synchronized long bytes() {
+            return bytes;
+        }
+
+        public synchronized void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            out.close();
+        }
+
+        private static byte[] deflate(byte[] payload) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(payload);
+                deflater.finish();
+                ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 2 + Integer.BYTES);
+                new DataOutputStream(out).writeInt(payload.length);
+                byte[] chunk = new byte[8192];
+                while (!deflater.finished()) {
+                    out.write(chunk, 0, deflater.deflate(chunk));
+                }
+                return out.toByteArray();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                deflater.end();
+            }
+        }
+    }
+
+    /**
+     * Reads frames one at a time, so a log larger than the heap can be replayed.
+     */
+    public static final class Reader implements AutoCloseable {
+
+        private final DataInputStream in;
+
+        public Reader(InputStream in) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+            checkMagic(this.in);
+        }
+
+        /**
+         * The next exchange, or {@code null} at the end of the log or at a truncated final frame.
+         */
+        public Exchange next() throws IOException {
+            byte[] payload;
+            int flags;
+            try {
+                int length = in.readInt();
+                if (length < 0 || length > MAX_FRAME) {
+                    throw new IOException("Corrupt exchange log: frame length " + length);
+                }
+                flags = in.readUnsignedByte();
+                payload = new byte[length];
+                in.readFully(payload);
+            } catch (EOFException e) {
+                return null;
+            }
+            if ((flags & DEFLATED) != 0) {
+                payload = inflate(payload);
+            }
+            return Exchange.readFrom(new DataInputStream(new ByteArrayInputStream(payload)));
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private static byte[] inflate(byte[] frame) throws IOException {
+            int length = new DataInputStream(new ByteArrayInputStream(frame)).readInt();
+            if (length < 0 || length > MAX_FRAME) {
+                throw new IOException("Corrupt exchange log: inflated length " + length);
+            }
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(frame, Integer.BYTES, frame.length - Integer.BYTES);
+                byte[] payload = new byte[length];
+                int read = 0;
+                while (read < length && !inflater.finished()) {
+                    int n = inflater.inflate(payload, read, length - read);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    read += n;
+                }
+                if (read != length) {
+                    throw new IOException("Corrupt exchange log: inflated " + read + " of " + length + " bytes");
+                }
+                return payload;
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt exchange log: " + e.getMessage(), e);
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+
+    private static void checkMagic(InputStream in) throws IOException {
+        byte[] magic = in.readNBytes(MAGIC.length);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not an exchange log: bad magic " + new String(magic, StandardCharsets.ISO_8859_1));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+import io.restassured.http.ContentType;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class ExchangeLogTests {
+
+    @Test
+    public void testAppendingAfterACrashedRunKeepsBothRuns() throws IOException {
+        Path file = Files.createTempFile("exchanges", ".bxl");
+        try {
+            try (ExchangeLog.Writer writer = new ExchangeLog.Writer(file, Integer.MAX_VALUE)) {
+                writer.append(exchange(1, "{\"run\":1}"));
+                writer.append(exchange(2, "{\"run\":1,\"cut\":true}"));
+            }
+            // a crash in the middle of the second frame
+            try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+                raw.setLength(raw.length() - 5);
+            }
+            try (ExchangeLog.Writer writer = new ExchangeLog.Writer(file, Integer.MAX_VALUE)) {
+                writer.append(exchange(3, "{\"run\":2}"));
+                writer.append(exchange(4, "{\"run\":2}"));
+            }
+
+            List<ExchangeLog.Exchange> exchanges = ExchangeLog.read(file);
+
+            // Assertions
+            assertEquals(exchanges.stream().map(ExchangeLog.Exchange::timestampMicros).toList(), List.of(1L, 3L, 4L),
+                    "The partial frame should be dropped and both runs read back");
+            assertEquals(new String(exchanges.get(2).requestBody(), StandardCharsets.UTF_8), "{\"run\":2}");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testExchangesAreKeptForTheCurrentTest() {
+        String requestBody = "{\"title\":\"\",\"author\":\"\"}";
+
+        given(RequestSpecs.user())
+                .contentType(ContentType.JSON)
+                .body(requestBody)
+                .post();
+
+        ExchangeRingBuffer buffer = ExchangeRingBuffer.current();
+        String dump = buffer.render();
+
+        // Assertions
+        assertEquals(buffer.size(), 1, "Expected the one exchange made by this test");
+        assertTrue(dump.contains("Request method:\tPOST"), "Dump should contain the request line");
+        assertTrue(dump.contains(requestBody), "Dump should contain the request body");
+        assertTrue(dump.contains("400"), "Dump should contain the response status");
+        assertFalse(dump.contains(Credentials.USER.header().getValue()), "Credentials must be masked");
+    }
+
+    @Test
+    public void testRingKeepsOnlyTheLatestExchanges() {
+        ExchangeRingBuffer buffer = ExchangeRingBuffer.current();
+        int total = ExchangeRingBuffer.CAPACITY + 3;
+
+        for (int i = 0; i < total; i++) {
+            buffer.record("POST", "http://localhost/api/books", null, "{\"n\":" + i + "}", "HTTP/1.1 201",
+                    null, "{}", 1_000_000);
+        }
+        String dump = buffer.render();
+
+        // Assertions
+        assertEquals(buffer.size(), ExchangeRingBuffer.CAPACITY);
+        assertEquals(buffer.overwritten(), 3L);
+        assertFalse(dump.contains("{\"n\":2}"), "Oldest exchanges should have been overwritten");
+        assertTrue(dump.contains("{\"n\":3}") && dump.contains("{\"n\":" + (total - 1) + "}"),
+                "Newest exchanges should be kept");
+        assertTrue(dump.indexOf("{\"n\":3}") < dump.indexOf("{\"n\":" + (total - 1) + "}"), "Oldest first");
+    }
+
+    private static ExchangeLog.Exchange exchange(long timestampMicros, String body) {
+        return new ExchangeLog.Exchange(timestampMicros, 1_000_000, "POST", "/api/books",
+                Map.of("Content-Type", "application/json"), body.getBytes(StandardCharsets.UTF_8), 201,
+                Map.of("Content-Type", "application/json"), "{}".getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,138 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Re-drives the requests of an {@link ExchangeLog} against another server, keeping the recorded inter-arrival
+ * times divided by a speed factor, and compares each response status with the recorded one.
+ * <p>
+ * Like {@link ArrivalRateDriver} this is open loop: each request is sent from its own virtual thread at its
+ * scheduled time, and latency is taken from that time, so replaying the same log against two server builds
+ * compares them on identical input. Gaps between recorded requests are capped at {@code maxGap} before scaling, so
+ * a log holding several appended runs does not sit idle for the hours between them.
+ */
+public final class ExchangeReplayer {
+
+    public static final Duration DEFAULT_MAX_GAP = Duration.ofSeconds(1);
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Set<String> RESTRICTED = Set.of("content-length", "host", "connection", "expect", "upgrade",
+            "transfer-encoding", "keep-alive");
+
+    private ExchangeReplayer() {
+    }
+
+    /**
+     * Replays {@code log} against {@code baseUrl} (scheme, host and port; recorded paths are kept), reading it one
+     * frame at a time.
+     *
+     * @param speed 1 for the recorded pace, 10 for ten times faster, {@link Double#POSITIVE_INFINITY} to send as
+     *              fast as {@code maxOutstanding} allows
+     */
+    public static ReplayReport replay(Path log, URI baseUrl, double speed) throws IOException {
+        try (ExchangeLog.Reader reader = new ExchangeLog.Reader(Files.newInputStream(log))) {
+            return replay(reader::next, baseUrl, speed, DEFAULT_MAX_GAP, ArrivalRateDriver.DEFAULT_MAX_OUTSTANDING);
+        }
+    }
+
+    public static ReplayReport replay(Iterable<ExchangeLog.Exchange> exchanges, URI baseUrl, double speed) {
+        Iterator<ExchangeLog.Exchange> iterator = exchanges.iterator();
+        try {
+            return replay(() -> iterator.hasNext() ? iterator.next() : null, baseUrl, speed, DEFAULT_MAX_GAP,
+                    ArrivalRateDriver.DEFAULT_MAX_OUTSTANDING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param maxOutstanding upper bound on requests in flight; the schedule waits for a free slot rather than
+     *                       skipping a request, and the wait counts against that request's latency
+     */
+    public static ReplayReport replay(Source source, URI baseUrl, double speed, Duration maxGap, int maxOutstanding)
+            throws IOException {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("speed must be positive: " + speed);
+        }
+        ReplayReport report = new ReplayReport(baseUrl, speed);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Semaphore outstanding = new Semaphore(maxOutstanding);
+        long maxGapMicros = TimeUnit.NANOSECONDS.toMicros(maxGap.toNanos());
+        long start = System.nanoTime();
+        try (client; ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("replay-", 0).factory())) {
+            double offsetNanos = 0;
+            long previousMicros = Long.MIN_VALUE;
+            for (ExchangeLog.Exchange exchange; (exchange = source.next()) != null; ) {
+                if (previousMicros != Long.MIN_VALUE) {
+                    long gap = Math.min(Math.max(exchange.timestampMicros() - previousMicros, 0), maxGapMicros);
+                    offsetNanos += gap * 1000 / speed;
+                }
+                previousMicros = exchange.timestampMicros();
+                long intended = start + (long) offsetNanos;
+                long now;
+                while ((now = System.nanoTime()) < intended) {
+                    LockSupport.parkNanos(intended - now);
+                }
+                outstanding.acquireUninterruptibly();
+                report.scheduled(System.nanoTime() - intended);
+                HttpRequest request = request(baseUrl, exchange);
+                ExchangeLog.Exchange recorded = exchange;
+                executor.execute(() -> {
+                    long sent = System.nanoTime();
+                    int status = -1;
+                    String error = null;
+                    try {
+                        status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (IOException e) {
+                        error = recorded.method() + " " + recorded.path() + ": " + e;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        error = recorded.method() + " " + recorded.path() + ": interrupted";
+                    } finally {
+                        outstanding.release();
+                    }
+                    report.completed(recorded, intended, sent, System.nanoTime(), status, error);
+                });
+            }
+        }
+        report.finish(Duration.ofNanos(System.nanoTime() - start));
+        return report;
+    }
+
+    private static HttpRequest request(URI baseUrl, ExchangeLog.Exchange exchange) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUrl.resolve(exchange.path()))
+                .timeout(REQUEST_TIMEOUT)
+                .method(exchange.method(), exchange.requestBody().length == 0 ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(exchange.requestBody()));
+        exchange.requestHeaders().forEach((name, value) -> {
+            if (!RESTRICTED.contains(name.toLowerCase())) {
+                request.header(name, value);
+            }
+        });
+        return request.build();
+    }
+
+    /**
+     * Supplies recorded exchanges in order, {@code null} at the end; {@link ExchangeLog.Reader#next()} is one.
+     */
+    @FunctionalInterface
+    public interface Source {
+        ExchangeLog.Exchange next() throws IOException;
+    }
+}
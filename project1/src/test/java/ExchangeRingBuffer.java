@@ -0,0 +1,157 @@
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.ResponseBody;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The last few HTTP exchanges made by one thread, kept so they can be printed if the current test fails.
+ * <p>
+ * Each thread owns a fixed ring of slots that are overwritten in place; recording an exchange only stores
+ * references to objects RestAssured has already created, so nothing is formatted unless {@link #render()} is
+ * called. Capacity comes from the {@code exchange.log.capacity} system property (default 16).
+ */
+public final class ExchangeRingBuffer {
+
+    static final int CAPACITY = Math.max(1, Integer.getInteger("exchange.log.capacity", 16));
+
+    private static final int MAX_BODY_CHARS = 4096;
+    private static final ThreadLocal<ExchangeRingBuffer> CURRENT = ThreadLocal.withInitial(ExchangeRingBuffer::new);
+
+    private final Slot[] slots = new Slot[CAPACITY];
+    private long recorded;
+
+    private ExchangeRingBuffer() {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    public static ExchangeRingBuffer current() {
+        return CURRENT.get();
+    }
+
+    public void record(String method, String uri, Headers requestHeaders, Object requestBody, String statusLine,
+                       Headers responseHeaders, Object responseBody, long timeNanos) {
+        Slot slot = slots[(int) (recorded++ % slots.length)];
+        slot.method = method;
+        slot.uri = uri;
+        slot.requestHeaders = requestHeaders;
+        slot.requestBody = requestBody;
+        slot.statusLine = statusLine;
+        slot.responseHeaders = responseHeaders;
+        slot.responseBody = responseBody;
+        slot.timeNanos = timeNanos;
+    }
+
+    public void clear() {
+        for (Slot slot : slots) {
+            slot.clear();
+        }
+        recorded = 0;
+    }
+
+    /**
+     * Number of exchanges currently held, at most {@link #CAPACITY}.
+     */
+    public int size() {
+        return (int) Math.min(recorded, slots.length);
+    }
+
+    /**
+     * Exchanges dropped from the ring since the last {@link #clear()}.
+     */
+    public long overwritten() {
+        return Math.max(0, recorded - slots.length);
+    }
+
+    /**
+     * Formats the held exchanges, oldest first, in the layout of RestAssured's {@code log().all()}, with the
+     * {@code Authorization} header masked.
+     */
+    public String render() {
+        StringBuilder out = new StringBuilder();
+        if (overwritten() > 0) {
+            out.append("... ").append(overwritten()).append(" earlier exchange(s) not kept\n");
+        }
+        for (String exchange : renderEach()) {
+            out.append(exchange);
+        }
+        return out.toString();
+    }
+
+    List<String> renderEach() {
+        List<String> exchanges = new ArrayList<>(size());
+        long first = recorded - size();
+        for (long i = first; i < recorded; i++) {
+            Slot slot = slots[(int) (i % slots.length)];
+            StringBuilder out = new StringBuilder(512);
+            out.append("Request method:\t").append(slot.method).append('\n');
+            out.append("Request URI:\t").append(slot.uri).append('\n');
+            out.append("Headers:\n");
+            appendHeaders(out, slot.requestHeaders, "=");
+            out.append("Body:\n");
+            appendBody(out, slot.requestBody == null ? "<none>" : text(slot.requestBody));
+            out.append('\n').append(slot.statusLine)
+                    .append(String.format(" (%.1f ms)", slot.timeNanos / 1e6)).append('\n');
+            appendHeaders(out, slot.responseHeaders, ": ");
+            out.append('\n');
+            appendBody(out, slot.responseBody == null ? null : text(slot.responseBody));
+            out.append('\n');
+            exchanges.add(out.toString());
+        }
+        return exchanges;
+    }
+
+    private static void appendHeaders(StringBuilder out, Headers headers, String separator) {
+        if (headers == null || !headers.exist()) {
+            out.append("<none>\n");
+            return;
+        }
+        for (Header header : headers) {
+            out.append(header.getName()).append(separator)
+                    .append("Authorization".equalsIgnoreCase(header.getName()) ? "[ BLACKLISTED ]" : header.getValue())
+                    .append('\n');
+        }
+    }
+
+    /**
+     * Bodies are kept as RestAssured hands them over and only decoded here, when a failed test is reported.
+     */
+    private static String text(Object body) {
+        return body instanceof ResponseBody<?> response ? response.asString() : body.toString();
+    }
+
+    private static void appendBody(StringBuilder out, String body) {
+        if (body == null || body.isEmpty()) {
+            out.append("<empty>\n");
+        } else if (body.length() > MAX_BODY_CHARS) {
+            out.append(body, 0, MAX_BODY_CHARS).append("... (").append(body.length()).append(" chars)\n");
+        } else {
+            out.append(body).append('\n');
+        }
+    }
+
+    private static final class Slot {
+        String method;
+        String uri;
+        Headers requestHeaders;
+        Object requestBody;
+        String statusLine;
+        Headers responseHeaders;
+        Object responseBody;
+        long timeNanos;
+
+        void clear() {
+            method = null;
+            uri = null;
+            requestHeaders = null;
+            requestBody = null;
+            statusLine = null;
+            responseHeaders = null;
+            responseBody = null;
+            timeNanos = 0;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Suite-wide latency distributions of every HTTP exchange with the configured targets, one {@link LatencyHistogram}
+ * per {@link Key}. Filled by {@link TimingFilter}; read by {@link Sla} checks and {@link LatencyExportReporter}.
+ */
+public final class ExchangeTimings {
+
+    private static final ConcurrentHashMap<Key, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    private ExchangeTimings() {
+    }
+
+    /**
+     * What an exchange is grouped by. {@code role} is {@code admin}, {@code user}, {@code invalid} for any other
+     * credentials, or {@code anonymous} when no {@code Authorization} header was sent.
+     */
+    public record Key(String method, String endpoint, String role, int status) {
+
+        static final Comparator<Key> ORDER = Comparator.comparing(Key::method)
+                .thenComparing(Key::endpoint)
+                .thenComparing(Key::role)
+                .thenComparingInt(Key::status);
+
+        @Override
+        public String toString() {
+            return method + " " + endpoint + " [" + role + "] " + status;
+        }
+    }
+
+    public static void record(Key key, long nanos) {
+        HISTOGRAMS.computeIfAbsent(key, k -> new LatencyHistogram()).record(nanos);
+    }
+
+    /**
+     * All histograms recorded so far, sorted by key. The histograms are live and keep counting.
+     */
+    public static Map<Key, LatencyHistogram> snapshot() {
+        Map<Key, LatencyHistogram> sorted = new TreeMap<>(Key.ORDER);
+        sorted.putAll(HISTOGRAMS);
+        return sorted;
+    }
+
+    /**
+     * One histogram merging every key that matches; {@code null} arguments match anything.
+     */
+    public static LatencyHistogram merged(String method, String endpoint, String role) {
+        LatencyHistogram merged = new LatencyHistogram();
+        HISTOGRAMS.forEach((key, histogram) -> {
+            if ((method == null || method.equals(key.method())) && (endpoint == null || endpoint.equals(key.endpoint()))
+                    && (role == null || role.equals(key.role()))) {
+                merged.add(histogram);
+            }
+        });
+        return merged;
+    }
+
+    public static void reset() {
+        HISTOGRAMS.clear();
+    }
+}
@@ -0,0 +1,82 @@
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Prints the exchanges a test made (see {@link ExchangeRingBuffer}) only when it fails or is about to be retried,
+ * instead of logging every response up front.
+ * <p>
+ * Set {@code exchange.log.file} to append the dumps to that file from a background thread rather than writing
+ * them to the console. Registered through {@code META-INF/services/org.testng.ITestNGListener}.
+ */
+public class FailureLogListener implements ITestListener, ISuiteListener {
+
+    private static final int SINK_QUEUE_CAPACITY = 1024;
+
+    private volatile AsyncFileSink sink;
+
+    @Override
+    public synchronized void onStart(ISuite suite) {
+        String file = System.getProperty("exchange.log.file");
+        if (file != null && !file.isBlank() && sink == null) {
+            try {
+                sink = new AsyncFileSink(Path.of(file), SINK_QUEUE_CAPACITY);
+            } catch (IOException e) {
+                System.out.println("Unable to open exchange log " + file + ", logging to console: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public synchronized void onFinish(ISuite suite) {
+        if (sink != null) {
+            sink.close();
+            if (sink.dropped() > 0) {
+                System.out.println(sink.dropped() + " exchange dump(s) dropped, " + sink.file() + " could not keep up");
+            }
+            sink = null;
+        }
+    }
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        ExchangeRingBuffer.current().clear();
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        dump(result, "failed");
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        dump(result, "failed");
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        if (result.wasRetried()) {
+            dump(result, "will be retried");
+        }
+    }
+
+    private void dump(ITestResult result, String outcome) {
+        ExchangeRingBuffer buffer = ExchangeRingBuffer.current();
+        if (buffer.size() == 0) {
+            return;
+        }
+        String text = "==== " + result.getTestClass().getRealClass().getSimpleName() + "." + result.getName() + " "
+                + outcome + ", last " + buffer.size() + " exchange(s) on " + Thread.currentThread().getName() + " ====\n"
+                + buffer.render();
+        AsyncFileSink target = sink;
+        if (target != null) {
+            target.offer(text);
+        } else {
+            System.out.print(text);
+        }
+    }
+}
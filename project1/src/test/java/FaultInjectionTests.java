@@ -0,0 +1,245 @@
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.restassured.RestAssured.given;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Runs the books API through a {@link FaultProxy} and measures what each {@link FaultProfile} costs in goodput
+ * and tail latency, with the default client and with timeouts and retries.
+ */
+public class FaultInjectionTests {
+
+    private static final int REQUESTS = 150;
+    private static final int CONCURRENCY = 8;
+    private static final Duration TAIL_LATENCY = Duration.ofMillis(1500);
+
+    private static final ClientPolicy PLAIN = new ClientPolicy(Duration.ofSeconds(5), Duration.ofSeconds(60), 1,
+            Duration.ofMillis(10), Duration.ofMillis(200), false);
+    /**
+     * A read timeout well under the 1.5 s tail of {@link FaultProfile#TAIL}, yet loose enough not to fire on a
+     * loaded build machine.
+     */
+    private static final ClientPolicy RESILIENT = PLAIN.withTimeouts(Duration.ofSeconds(1), Duration.ofMillis(500))
+            .withRetries(5, true);
+
+    private BooksStubServer stub;
+
+    @BeforeClass
+    public void startStub() throws IOException {
+        stub = BooksStubServer.start("127.0.0.1", 0);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    public void testBackoffIsJitteredExponentialAndCapped() {
+        ClientPolicy policy = PLAIN.withRetries(10, false);
+        SplittableRandom random = new SplittableRandom(42);
+        SuiteConfig config = SuiteConfig.load(
+                name -> name.equals(SuiteConfig.RESOURCE) ? Map.of("base.url", "http://127.0.0.1:7081") : null,
+                Map.of("HTTP_RETRY_ATTEMPTS", "3"), Map.of("http.timeout.read.ms", "750"), null);
+
+        // Assertions
+        for (int retry = 1; retry <= 40; retry++) {
+            Duration backoff = policy.backoff(retry, random);
+            long ceiling = Math.min(10L << Math.min(retry - 1, 30), 200);
+            assertTrue(!backoff.isNegative() && backoff.toMillis() <= ceiling, retry + ": " + backoff);
+        }
+        assertNotEquals(policy.backoff(3, random), policy.backoff(3, random), "Backoff should be jittered");
+        assertTrue(policy.retries("GET"));
+        assertFalse(policy.retries("POST"), "A POST should not be retried unless allowed");
+        assertTrue(RESILIENT.retries("POST"));
+        assertFalse(PLAIN.retries("GET"), "A single attempt means no retries");
+        ClientPolicy configured = ClientPolicy.configured(config);
+        assertEquals(configured.maxAttempts(), 3);
+        assertEquals(configured.readTimeout(), Duration.ofMillis(750));
+        assertEquals(configured.connectTimeout(), Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void testRetryResendsThroughTheEndOfTheChain() throws IOException {
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer flaky = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        flaky.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(requests.incrementAndGet() == 1 ? 503 : 201, -1);
+            exchange.close();
+        });
+        flaky.start();
+        try {
+            RequestSpecification spec = RequestSpecs.build("http://127.0.0.1:" + flaky.getAddress().getPort(),
+                    Credentials.USER, null, PLAIN.withRetries(3, true));
+
+            int status = given(spec).contentType(ContentType.JSON).body("{}").post().getStatusCode();
+
+            // Assertions
+            assertEquals(status, 201, "The retry should have been sent by RestAssured's internal SendRequestFilter");
+            assertEquals(requests.get(), 2);
+        } finally {
+            flaky.stop(0);
+        }
+    }
+
+    @Test
+    public void testProxyResetsTruncatesAndThrottles() throws IOException {
+        try (FaultProxy proxy = FaultProxy.start("127.0.0.1", stub.port(), FaultProfile.NONE.withResets(1))) {
+            RequestSpecification plain = RequestSpecs.build(proxy.baseUrl(), Credentials.ADMIN, null, PLAIN);
+
+            // Assertions
+            Throwable reset = expectThrows(Throwable.class, () -> post(plain, "Reset"));
+            assertTrue(reset instanceof IOException, "Expected an I/O error, got " + reset);
+            assertEquals(proxy.resets(), 1);
+
+            proxy.profile(FaultProfile.NONE.withPartialResponses(1));
+            Throwable truncated = expectThrows(Throwable.class, () -> post(plain, "Truncated"));
+            assertTrue(truncated instanceof IOException, "Expected an I/O error, got " + truncated);
+            assertEquals(proxy.truncations(), 1);
+
+            proxy.profile(new FaultProfile("16k", FaultProfile.Latency.NONE, 16 << 10, 0, 0));
+            String notes = "x".repeat(8 << 10);
+            long start = System.nanoTime();
+            int status = given(plain).contentType(ContentType.JSON).body("{\"title\":\"" + TestData.unique("Throttled")
+                    + "\",\"author\":\"Ann Other\",\"notes\":\"" + notes + "\"}").post().statusCode();
+            long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            assertEquals(status, 201);
+            assertTrue(elapsedMillis >= 400, "8 KB at 16 KB/s should take about half a second, took " + elapsedMillis + " ms");
+
+            proxy.profile(FaultProfile.NONE);
+            assertEquals(post(plain, "Healthy again"), 201);
+        }
+    }
+
+    @Test
+    public void testGoodputAndTailLatencyPerProfile() throws Exception {
+        Map<String, Run> runs = new LinkedHashMap<>();
+        try (FaultProxy proxy = FaultProxy.start("127.0.0.1", stub.port(), FaultProfile.NONE);
+             ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY)) {
+            run("warm-up", RequestSpecs.build(proxy.baseUrl(), Credentials.ADMIN, null, PLAIN), executor);
+            for (FaultProfile profile : List.of(FaultProfile.NONE, FaultProfile.SLOW, FaultProfile.TAIL,
+                    FaultProfile.NARROW, FaultProfile.FLAKY, FaultProfile.TRUNCATING)) {
+                proxy.profile(profile);
+                for (ClientPolicy policy : List.of(PLAIN, RESILIENT)) {
+                    String label = profile.name() + (policy == PLAIN ? "/plain" : "/retries");
+                    runs.put(label, run(label, RequestSpecs.build(proxy.baseUrl(), Credentials.ADMIN, null, policy),
+                            executor));
+                }
+            }
+        }
+
+        System.out.printf("%-20s %8s %6s %6s %6s %10s %9s %9s%n", "profile/client", "requests", "201", "208", "failed",
+                "goodput/s", "p50 ms", "p99 ms");
+        runs.values().forEach(run -> System.out.println(run));
+
+        // Assertions
+        assertEquals(runs.get("none/plain").failed(), 0L);
+        assertEquals(runs.get("none/retries").failed(), 0L);
+        assertEquals(runs.get("none/plain").repeated(), 0L, "Only a retried create should come back as 208");
+        assertTrue(runs.get("flaky/plain").failed() > 0, "Resets should fail calls that are not retried");
+        assertTrue(runs.get("truncating/plain").failed() > 0, "Truncated responses should fail calls that are not retried");
+        for (String label : List.of("slow/retries", "tail/retries", "narrow/retries", "flaky/retries", "truncating/retries")) {
+            assertEquals(runs.get(label).failed(), 0L, "Retries should recover every call: " + runs.get(label));
+        }
+        // two tails in a row already take a retried call past 1 s, which would be the p99 of 150 calls
+        long plainTail = runs.get("tail/plain").slowerThan(TAIL_LATENCY);
+        long retriedTail = runs.get("tail/retries").slowerThan(TAIL_LATENCY);
+        assertTrue(plainTail > 0, "Some calls should have hit the tail: " + runs.get("tail/plain"));
+        assertTrue(retriedTail < plainTail, "A read timeout should keep calls from waiting out the tail: " + retriedTail
+                + " calls with retries vs " + plainTail + " without took " + TAIL_LATENCY.toMillis() + " ms or more");
+    }
+
+    private static Run run(String label, RequestSpecification spec, ExecutorService executor) throws Exception {
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder ok = new LongAdder();
+        LongAdder repeated = new LongAdder();
+        AtomicReference<String> firstError = new AtomicReference<>();
+        List<Future<?>> calls = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            String title = label + " " + i;
+            calls.add(executor.submit(() -> {
+                long begin = System.nanoTime();
+                try {
+                    int status = post(spec, title);
+                    if (status == 201) {
+                        ok.increment();
+                    } else if (status == 208) {
+                        // a retried create the server had already carried out: the book exists, but a test
+                        // expecting 201 would have failed
+                        repeated.increment();
+                    } else {
+                        firstError.compareAndSet(null, "status " + status);
+                    }
+                } catch (Exception e) {
+                    firstError.compareAndSet(null, e.toString());
+                }
+                latency.record(System.nanoTime() - begin);
+            }));
+        }
+        for (Future<?> call : calls) {
+            call.get();
+        }
+        return new Run(label, REQUESTS, ok.sum(), repeated.sum(), System.nanoTime() - start, latency,
+                firstError.get());
+    }
+
+    private static int post(RequestSpecification spec, String title) {
+        String book = "{\"title\":\"" + TestData.unique(title) + "\",\"author\":\"Ann Other\"}";
+        return given(spec).contentType(ContentType.JSON).body(book).post().statusCode();
+    }
+
+    /**
+     * @param ok       calls answered 201
+     * @param repeated calls answered 208, i.e. retries of a create the server had already carried out
+     */
+    private record Run(String label, long requests, long ok, long repeated, long elapsedNanos,
+                       LatencyHistogram latency, String firstError) {
+
+        long failed() {
+            return requests - ok - repeated;
+        }
+
+        long slowerThan(Duration limit) {
+            LongAdder slower = new LongAdder();
+            latency.forEachBucket((lowest, highest, count) -> {
+                if (highest >= limit.toNanos()) {
+                    slower.add(count);
+                }
+            });
+            return slower.sum();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-20s %8d %6d %6d %6d %10.1f %9.2f %9.2f", label, requests, ok, repeated, failed(),
+                    ok * 1e9 / elapsedNanos, LoadReport.millis(latency.percentile(50)),
+                    LoadReport.millis(latency.percentile(99))) + (firstError == null ? "" : "  first error: " + firstError);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+import java.time.Duration;
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * What {@link FaultProxy} does to the traffic it forwards.
+ *
+ * @param name               shown in reports, see {@link #named}
+ * @param latency            delay added before the first byte of every response
+ * @param bytesPerSecond     bandwidth of each direction of each connection, 0 for unlimited
+ * @param resetProbability   chance that a response is replaced by a connection reset
+ * @param partialProbability chance that a response is cut off halfway and the connection closed
+ */
+public record FaultProfile(String name, Latency latency, long bytesPerSecond, double resetProbability,
+                           double partialProbability) {
+
+    public static final FaultProfile NONE = new FaultProfile("none", Latency.NONE, 0, 0, 0);
+    /**
+     * Exponentially distributed extra latency averaging 20 ms, like a busy server.
+     */
+    public static final FaultProfile SLOW = new FaultProfile("slow", Latency.exponential(Duration.ofMillis(20)), 0, 0, 0);
+    /**
+     * 2 ms usually, but 1.5 s for one response in 20: the long tail that client timeouts are for.
+     */
+    public static final FaultProfile TAIL = new FaultProfile("tail",
+            Latency.bimodal(Duration.ofMillis(2), Duration.ofMillis(1500), 0.05), 0, 0, 0);
+    public static final FaultProfile NARROW = new FaultProfile("narrow", Latency.NONE, 64 << 10, 0, 0);
+    public static final FaultProfile FLAKY = new FaultProfile("flaky", Latency.NONE, 0, 0.05, 0);
+    public static final FaultProfile TRUNCATING = new FaultProfile("truncating", Latency.NONE, 0, 0, 0.05);
+
+    public FaultProfile {
+        if (resetProbability < 0 || partialProbability < 0 || resetProbability + partialProbability > 1) {
+            throw new IllegalArgumentException("Fault probabilities must be between 0 and 1");
+        }
+        if (bytesPerSecond < 0) {
+            throw new IllegalArgumentException("bytesPerSecond must not be negative");
+        }
+    }
+
+    public static FaultProfile named(String name) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "none" -> NONE;
+            case "slow" -> SLOW;
+            case "tail" -> TAIL;
+            case "narrow" -> NARROW;
+            case "flaky" -> FLAKY;
+            case "truncating" -> TRUNCATING;
+            default -> throw new IllegalArgumentException("Unknown fault profile " + name);
+        };
+    }
+
+    public FaultProfile withResets(double probability) {
+        return new FaultProfile(name + "+resets", latency, bytesPerSecond, probability, partialProbability);
+    }
+
+    public FaultProfile withPartialResponses(double probability) {
+        return new FaultProfile(name + "+partial", latency, bytesPerSecond, resetProbability, probability);
+    }
+
+    /**
+     * A distribution of added delays.
+     */
+    @FunctionalInterface
+    public interface Latency {
+
+        Latency NONE = random -> 0;
+
+        long sampleNanos(RandomGenerator random);
+
+        static Latency fixed(Duration delay) {
+            long nanos = delay.toNanos();
+            return random -> nanos;
+        }
+
+        static Latency uniform(Duration min, Duration max) {
+            long low = min.toNanos();
+            long high = max.toNanos();
+            return random -> low == high ? low : random.nextLong(low, high + 1);
+        }
+
+        static Latency exponential(Duration mean) {
+            double nanos = mean.toNanos();
+            return random -> (long) (random.nextExponential() * nanos);
+        }
+
+        /**
+         * {@code usual} most of the time and {@code tail} with probability {@code tailProbability}.
+         */
+        static Latency bimodal(Duration usual, Duration tail, double tailProbability) {
+            long usualNanos = usual.toNanos();
+            long tailNanos = tail.toNanos();
+            return random -> random.nextDouble() < tailProbability ? tailNanos : usualNanos;
+        }
+    }
+}
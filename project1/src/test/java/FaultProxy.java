@@ -0,0 +1,268 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process TCP proxy that forwards connections to an upstream server while injecting the faults of a
+ * {@link FaultProfile}: latency before each response, a bandwidth limit, connection resets and responses cut off
+ * halfway. Used to see how the client's timeouts and retries (see {@link ClientPolicy}) hold up against a
+ * degraded network without leaving the JVM.
+ * <p>
+ * The proxy knows little of HTTP: it takes the first bytes the upstream sends after a request as the start of its
+ * response, which is where latency and resets are applied, and cuts a truncated response halfway through the
+ * first part of its body, after the blank line ending the head. Cutting into the head instead would go unnoticed:
+ * a client reading headers up to the end of the stream takes what it got as a complete response. It listens on an
+ * ephemeral loopback port unless told otherwise. The profile can be switched while connections are open.
+ */
+public final class FaultProxy implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 16 << 10;
+
+    private final ServerSocket server;
+    private final InetSocketAddress upstream;
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+    private final LongAdder connections = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+    private final LongAdder truncations = new LongAdder();
+    private volatile FaultProfile profile;
+    private volatile boolean closed;
+
+    private FaultProxy(ServerSocket server, InetSocketAddress upstream, FaultProfile profile) {
+        this.server = server;
+        this.upstream = upstream;
+        this.profile = profile;
+    }
+
+    public static FaultProxy start(String upstreamHost, int upstreamPort, FaultProfile profile) throws IOException {
+        return start(0, upstreamHost, upstreamPort, profile);
+    }
+
+    /**
+     * @param port the loopback port to listen on, 0 for any free one
+     */
+    public static FaultProxy start(int port, String upstreamHost, int upstreamPort, FaultProfile profile)
+            throws IOException {
+        ServerSocket server = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        FaultProxy proxy = new FaultProxy(server, new InetSocketAddress(upstreamHost, upstreamPort), profile);
+        Thread.ofPlatform().daemon().name("fault-proxy-" + server.getLocalPort()).start(proxy::accept);
+        return proxy;
+    }
+
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + port();
+    }
+
+    public FaultProfile profile() {
+        return profile;
+    }
+
+    /**
+     * Switches the faults applied from the next response on.
+     */
+    public void profile(FaultProfile profile) {
+        this.profile = profile;
+    }
+
+    public long connections() {
+        return connections.sum();
+    }
+
+    public long resets() {
+        return resets.sum();
+    }
+
+    public long truncations() {
+        return truncations.sum();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        closeQuietly(server);
+        sockets.forEach(FaultProxy::closeQuietly);
+    }
+
+    private void accept() {
+        while (!closed) {
+            Socket client;
+            try {
+                client = server.accept();
+            } catch (IOException e) {
+                return;
+            }
+            connections.increment();
+            Thread.ofPlatform().daemon().name("fault-proxy-connection").start(() -> connect(client));
+        }
+    }
+
+    private void connect(Socket client) {
+        Socket target = new Socket();
+        sockets.add(client);
+        sockets.add(target);
+        try {
+            client.setTcpNoDelay(true);
+            target.setTcpNoDelay(true);
+            target.connect(upstream, 5_000);
+        } catch (IOException e) {
+            release(client, target);
+            return;
+        }
+        AtomicBoolean awaitingResponse = new AtomicBoolean();
+        Thread.ofPlatform().daemon().name("fault-proxy-request")
+                .start(() -> forwardRequests(client, target, awaitingResponse));
+        forwardResponses(client, target, awaitingResponse);
+    }
+
+    private void forwardRequests(Socket client, Socket target, AtomicBoolean awaitingResponse) {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        Throttle throttle = new Throttle();
+        try (InputStream in = client.getInputStream(); OutputStream out = target.getOutputStream()) {
+            int read;
+            while ((read = in.read(buffer, 0, throttle.chunk(profile, buffer.length))) >= 0) {
+                throttle.pace(profile, read);
+                // set before forwarding, or a quick upstream could answer before the flag is up
+                awaitingResponse.set(true);
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+        } catch (IOException e) {
+            // either side went away; the response direction cleans up
+        } finally {
+            release(client, target);
+        }
+    }
+
+    private void forwardResponses(Socket client, Socket target, AtomicBoolean awaitingResponse) {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        Throttle throttle = new Throttle();
+        HeadScanner head = null;
+        try (InputStream in = target.getInputStream(); OutputStream out = client.getOutputStream()) {
+            int read;
+            while ((read = in.read(buffer, 0, throttle.chunk(profile, buffer.length))) >= 0) {
+                FaultProfile faults = profile;
+                if (awaitingResponse.compareAndSet(true, false)) {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    double dice = random.nextDouble();
+                    if (dice < faults.resetProbability()) {
+                        resets.increment();
+                        // an abortive close sends RST instead of FIN, which the client sees as "Connection reset"
+                        client.setSoLinger(true, 0);
+                        return;
+                    }
+                    sleepNanos(faults.latency().sampleNanos(random));
+                    head = dice < faults.resetProbability() + faults.partialProbability() ? new HeadScanner() : null;
+                }
+                if (head != null) {
+                    int bodyStart = head.scan(buffer, read);
+                    if (bodyStart >= 0 && bodyStart < read) {
+                        truncations.increment();
+                        out.write(buffer, 0, bodyStart + (read - bodyStart) / 2);
+                        out.flush();
+                        return;
+                    }
+                }
+                throttle.pace(faults, read);
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+        } catch (IOException e) {
+            // either side went away
+        } finally {
+            release(client, target);
+        }
+    }
+
+    private void release(Socket client, Socket target) {
+        closeQuietly(client);
+        closeQuietly(target);
+        sockets.remove(client);
+        sockets.remove(target);
+    }
+
+    private static void sleepNanos(long nanos) {
+        if (nanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(nanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // nothing left to clean up
+        }
+    }
+
+    /**
+     * Paces one direction of one connection to the profile's bandwidth. Each chunk moves the earliest time the
+     * next one may go out, so a connection left idle does not build up credit for a later burst.
+     */
+    private static final class Throttle {
+
+        private long nextNanos = System.nanoTime();
+
+        /**
+         * Reads of at most a hundredth of a second's worth of bytes, so that the pace stays smooth.
+         */
+        int chunk(FaultProfile faults, int max) {
+            long perSecond = faults.bytesPerSecond();
+            return perSecond == 0 ? max : (int) Math.max(1, Math.min(max, perSecond / 100));
+        }
+
+        void pace(FaultProfile faults, int bytes) {
+            long perSecond = faults.bytesPerSecond();
+            if (perSecond == 0) {
+                return;
+            }
+            long now = System.nanoTime();
+            nextNanos = Math.max(nextNanos, now) + bytes * 1_000_000_000L / perSecond;
+            sleepNanos(nextNanos - now);
+        }
+    }
+
+    /**
+     * Finds the blank line ending a response head, which may be split over several reads.
+     */
+    private static final class HeadScanner {
+
+        private static final byte[] HEAD_END = {'\r', '\n', '\r', '\n'};
+
+        private int matched;
+
+        /**
+         * The offset in {@code buffer} where the body starts, 0 once the head has ended in an earlier read, or -1
+         * while the head goes on.
+         */
+        int scan(byte[] buffer, int length) {
+            if (matched == HEAD_END.length) {
+                return 0;
+            }
+            for (int i = 0; i < length; i++) {
+                matched = buffer[i] == HEAD_END[matched] ? matched + 1 : buffer[i] == HEAD_END[0] ? 1 : 0;
+                if (matched == HEAD_END.length) {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Orders, and optionally shards, the suite using the {@link TestHistory} of earlier runs, and records this run
+ * into it.
+ * <p>
+ * Tests with a failure score run first, most likely failures earliest, so a broken build fails fast. Everything
+ * else runs longest first: with TestNG's pool pulling the next method whenever a thread frees up, that is the
+ * longest-processing-time-first schedule, which keeps the slow tests from all landing at the end on one thread.
+ * Tests without history are estimated at the median duration.
+ * <p>
+ * {@code -Dsuite.shard=i/n} keeps only shard {@code i} of {@code n} (counting from 0), splitting the tests
+ * greedily by expected duration across the shards so that {@code n} JVMs sharing one history file finish at
+ * about the same time. Every shard must compute the split from the same history, so start them together (or
+ * give each a copy of the file): a shard that starts after another has saved its results splits differently and
+ * may skip or repeat tests. A data-driven method is one unit here; its rows are not split.
+ * <p>
+ * The history lives in {@code test.history.file} (default {@code target/test-history.tsv}); {@code -Dtest.history=off}
+ * leaves both the order and the file alone. Registered through {@code META-INF/services/org.testng.ITestNGListener}.
+ */
+public class HistoryScheduler implements IMethodInterceptor, ITestListener, ISuiteListener {
+
+    private static final String DEFAULT_FILE = "target/test-history.tsv";
+
+    private final Map<String, long[]> spans = new ConcurrentHashMap<>();
+    private final Set<String> failures = ConcurrentHashMap.newKeySet();
+    private volatile TestHistory history = TestHistory.empty();
+
+    static boolean enabled() {
+        return !"off".equals(System.getProperty("test.history"));
+    }
+
+    static Path file() {
+        return Path.of(System.getProperty("test.history.file", DEFAULT_FILE));
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        if (!enabled()) {
+            return;
+        }
+        try {
+            history = TestHistory.load(file());
+        } catch (IOException e) {
+            System.out.println("Unable to read test history " + file() + ", running in declared order: " + e);
+        }
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        Shard shard = Shard.parse(System.getProperty("suite.shard"));
+        if (!enabled() || (history.size() == 0 && shard == null)) {
+            return methods;
+        }
+        List<IMethodInstance> scheduled = schedule(methods, HistoryScheduler::key, history, shard);
+        long likelyFailures = scheduled.stream().filter(m -> score(history, key(m)) > 0).count();
+        System.out.printf("Scheduled %d of %d test method(s) from %s%s, %d likely failure(s) first%n",
+                scheduled.size(), methods.size(), file(), shard == null ? "" : " as shard " + shard, likelyFailures);
+        return scheduled;
+    }
+
+    /**
+     * Likely failures first, then longest first; with a shard, only the items the LPT split gives to it.
+     */
+    static <T> List<T> schedule(List<T> items, Function<T, String> key, TestHistory history, Shard shard) {
+        double unknown = history.medianDurationMillis();
+        ToDoubleFunction<T> expectedMillis = item -> {
+            TestHistory.Entry entry = history.get(key.apply(item));
+            return entry == null ? unknown : entry.durationMillis();
+        };
+        Comparator<T> longestFirst = Comparator.comparingDouble((T item) -> -expectedMillis.applyAsDouble(item))
+                .thenComparing(key);
+        List<T> selected = new ArrayList<>(items);
+        if (shard != null) {
+            selected.sort(longestFirst);
+            double[] load = new double[shard.count()];
+            List<T> mine = new ArrayList<>();
+            for (T item : selected) {
+                int least = 0;
+                for (int i = 1; i < load.length; i++) {
+                    if (load[i] < load[least]) {
+                        least = i;
+                    }
+                }
+                // Never estimate 0, or every unknown test would pile onto the first shard
+                load[least] += Math.max(expectedMillis.applyAsDouble(item), 1);
+                if (least == shard.index()) {
+                    mine.add(item);
+                }
+            }
+            selected = mine;
+        }
+        selected.sort(Comparator.comparingDouble((T item) -> -score(history, key.apply(item))).thenComparing(longestFirst));
+        return selected;
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result, false);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result, true);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        record(result, false);
+    }
+
+    @Override
+    public void onTestFailedWithTimeout(ITestResult result) {
+        record(result, true);
+    }
+
+    /**
+     * Merges this run into the file under a lock, so shards finishing together do not overwrite each other.
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        if (!enabled() || spans.isEmpty()) {
+            return;
+        }
+        Path file = file();
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(file.resolveSibling(file.getFileName() + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    TestHistory merged = TestHistory.load(file);
+                    spans.forEach((key, span) -> merged.record(key, span[1] - span[0], failures.contains(key)));
+                    merged.save(file);
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Unable to update test history " + file + ": " + e);
+        }
+    }
+
+    private void record(ITestResult result, boolean failed) {
+        if (!enabled()) {
+            return;
+        }
+        String key = key(result.getMethod());
+        // From the first invocation's start to the last one's end: the rows of a parallel data provider overlap,
+        // and what the schedule needs is how long the method occupies the suite
+        spans.merge(key, new long[]{result.getStartMillis(), result.getEndMillis()},
+                (a, b) -> new long[]{Math.min(a[0], b[0]), Math.max(a[1], b[1])});
+        if (failed) {
+            failures.add(key);
+        }
+    }
+
+    private static double score(TestHistory history, String key) {
+        TestHistory.Entry entry = history.get(key);
+        return entry == null ? 0 : entry.failureScore();
+    }
+
+    private static String key(IMethodInstance method) {
+        return key(method.getMethod());
+    }
+
+    static String key(ITestNGMethod method) {
+        return method.getRealClass().getName() + "." + method.getMethodName();
+    }
+
+    /**
+     * Shard {@code index} of {@code count}, written {@code index/count}.
+     */
+    record Shard(int index, int count) {
+
+        Shard {
+            if (count < 1 || index < 0 || index >= count) {
+                throw new IllegalArgumentException("Shard " + index + "/" + count + " is out of range");
+            }
+        }
+
+        static Shard parse(String text) {
+            if (text == null || text.isBlank()) {
+                return null;
+            }
+            String[] parts = text.trim().split("/");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected suite.shard=index/count but was " + text);
+            }
+            return new Shard(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+        }
+
+        @Override
+        public String toString() {
+            return index + "/" + count;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class HistorySchedulerTests {
+
+    @Test
+    public void testHistoryRoundTripAndDecay() throws IOException {
+        Path file = Files.createTempFile("history", ".tsv");
+        try {
+            TestHistory history = TestHistory.empty();
+            history.record("A.flaky", 100, true);
+            history.record("A.flaky", 300, false);
+            history.record("A.stable", 20, false);
+            history.save(file);
+
+            TestHistory loaded = TestHistory.load(file);
+
+            // Assertions
+            assertEquals(loaded.size(), 2);
+            assertEquals(loaded.get("A.flaky").runs(), 2);
+            assertEquals(loaded.get("A.flaky").durationMillis(), 200, 0.001);
+            assertEquals(loaded.get("A.flaky").failureScore(), 0.25, 0.0001);
+            assertEquals(loaded.get("A.stable").failureScore(), 0.0);
+            assertNull(TestHistory.load(file.resolveSibling("missing-" + file.getFileName())).get("A.flaky"));
+            for (int i = 0; i < 10; i++) {
+                loaded.record("A.flaky", 200, false);
+            }
+            assertEquals(loaded.get("A.flaky").failureScore(), 0.0, "A fixed test should be forgotten");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testHistoryRoundTripsUnderADecimalCommaLocale() throws IOException {
+        Path file = Files.createTempFile("history", ".tsv");
+        Locale locale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.GERMANY);
+            TestHistory history = TestHistory.empty();
+            history.record("A.slow", 1234.5, true);
+            history.save(file);
+
+            TestHistory loaded = TestHistory.load(file);
+
+            // Assertions
+            assertEquals(loaded.size(), 1, Files.readString(file));
+            assertEquals(loaded.get("A.slow").durationMillis(), 1234.5, 0.001);
+            assertEquals(loaded.get("A.slow").failureScore(), 0.5, 0.0001);
+        } finally {
+            Locale.setDefault(locale);
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testLikelyFailuresFirstThenLongestFirst() {
+        TestHistory history = TestHistory.empty();
+        history.record("slow", 5_000, false);
+        history.record("fast", 10, false);
+        history.record("medium", 500, false);
+        history.record("broken", 50, true);
+        history.record("flaky", 50, true);
+        history.record("flaky", 50, false);
+
+        List<String> order = HistoryScheduler.schedule(List.of("fast", "new", "flaky", "medium", "broken", "slow"),
+                Function.identity(), history, null);
+
+        // Assertions
+        assertEquals(order, List.of("broken", "flaky", "slow", "medium", "new", "fast"),
+                "New tests are estimated at the median duration");
+    }
+
+    @Test
+    public void testShardsSplitByLongestProcessingTime() {
+        TestHistory history = TestHistory.empty();
+        List<String> tests = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            tests.add("t" + i);
+            history.record("t" + i, i < 4 ? 10_000 : 100 + i * 10, false);
+        }
+        double total = tests.stream().mapToDouble(t -> history.get(t).durationMillis()).sum();
+
+        Set<String> seen = new HashSet<>();
+        double longest = 0;
+        for (int shard = 0; shard < 4; shard++) {
+            List<String> mine = HistoryScheduler.schedule(tests, Function.identity(), history,
+                    new HistoryScheduler.Shard(shard, 4));
+
+            // Assertions
+            for (String test : mine) {
+                assertTrue(seen.add(test), test + " is in two shards");
+            }
+            longest = Math.max(longest, mine.stream().mapToDouble(t -> history.get(t).durationMillis()).sum());
+            assertTrue(mine.stream().filter(t -> history.get(t).durationMillis() == 10_000).count() == 1,
+                    "Each shard should get exactly one of the slow tests: " + mine);
+        }
+
+        assertEquals(seen.size(), tests.size(), "Every test should run in some shard");
+        assertTrue(longest <= total / 4 * 1.1, "Longest shard " + longest + " ms of " + total + " ms total");
+    }
+
+    @Test
+    public void testShardParsing() {
+        // Assertions
+        assertEquals(HistoryScheduler.Shard.parse("1/3"), new HistoryScheduler.Shard(1, 3));
+        assertNull(HistoryScheduler.Shard.parse(" "));
+        expectThrows(IllegalArgumentException.class, () -> HistoryScheduler.Shard.parse("3/3"));
+        expectThrows(IllegalArgumentException.class, () -> HistoryScheduler.Shard.parse("2"));
+    }
+}
@@ -0,0 +1,258 @@
+import json.JsonPullParser;
+import json.JsonPullParser.Token;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A JSON Schema compiled once into a tree of checks that runs over a {@link JsonPullParser} token by token.
+ * <p>
+ * Validation never builds the document. Each field costs one lookup and one streaming check, whatever the size of
+ * its value: a string is compared with its expected value and measured for {@code minLength}/{@code maxLength} in a
+ * single pass without being decoded into a {@link String}, and unknown values are skipped. A list of ten thousand
+ * books or a 50 MB title is validated in constant memory.
+ * <p>
+ * That holds for what the parser reads, not for where the bytes come from: a response sent through
+ * {@link RequestSpecs} has already been read into a byte array by {@link RingBufferLogFilter}, so
+ * {@code getBody().asInputStream()} streams over that heap copy. The savings there are the document tree and the
+ * decoded strings, not the body itself.
+ * <p>
+ * Supported keywords: {@code type} (a name or an array of names), {@code properties}, {@code required},
+ * {@code additionalProperties} ({@code false} only), {@code items}, {@code minLength}, {@code maxLength},
+ * {@code minimum} and {@code maximum}. Annotations ({@code $schema}, {@code $id}, {@code title},
+ * {@code description}) are ignored; any other keyword fails compilation, so no check is silently skipped.
+ * <p>
+ * Compiled schemas are immutable and cached per resource; see {@link #book()}.
+ */
+public final class JsonSchema {
+
+    private static final Set<String> ANNOTATIONS = Set.of("$schema", "$id", "title", "description");
+    private static final ConcurrentHashMap<String, JsonSchema> CACHE = new ConcurrentHashMap<>();
+    private static final JsonSchema ANY = new JsonSchema(Map.of());
+
+    private enum Type { OBJECT, ARRAY, STRING, INTEGER, NUMBER, BOOLEAN, NULL }
+
+    private final Set<Type> types;
+    private final Map<String, Integer> propertyIndex;
+    private final JsonSchema[] properties;
+    private final boolean[] required;
+    private final boolean additionalProperties;
+    private final JsonSchema items;
+    private final long minLength;
+    private final long maxLength;
+    private final BigDecimal minimum;
+    private final BigDecimal maximum;
+
+    @SuppressWarnings("unchecked")
+    private JsonSchema(Map<String, Object> schema) {
+        for (String keyword : schema.keySet()) {
+            if (!ANNOTATIONS.contains(keyword) && !List.of("type", "properties", "required", "additionalProperties",
+                    "items", "minLength", "maxLength", "minimum", "maximum").contains(keyword)) {
+                throw new IllegalArgumentException("Unsupported schema keyword " + keyword);
+            }
+        }
+        Object type = schema.get("type");
+        types = type == null ? EnumSet.allOf(Type.class) : EnumSet.noneOf(Type.class);
+        for (Object name : type instanceof List<?> names ? names : type == null ? List.of() : List.of(type)) {
+            types.add(Type.valueOf(String.valueOf(name).toUpperCase(Locale.ROOT)));
+        }
+        if (types.contains(Type.NUMBER)) {
+            types.add(Type.INTEGER);
+        }
+        Map<String, Object> declared = (Map<String, Object>) schema.getOrDefault("properties", Map.of());
+        propertyIndex = new HashMap<>();
+        properties = new JsonSchema[declared.size()];
+        for (Map.Entry<String, Object> property : declared.entrySet()) {
+            properties[propertyIndex.size()] = new JsonSchema((Map<String, Object>) property.getValue());
+            propertyIndex.put(property.getKey(), propertyIndex.size());
+        }
+        required = new boolean[properties.length];
+        for (Object name : (List<Object>) schema.getOrDefault("required", List.of())) {
+            Integer index = propertyIndex.get(name);
+            if (index == null) {
+                throw new IllegalArgumentException("Required property " + name + " is not declared");
+            }
+            required[index] = true;
+        }
+        additionalProperties = !Boolean.FALSE.equals(schema.get("additionalProperties"));
+        items = schema.get("items") instanceof Map<?, ?> itemSchema ? new JsonSchema((Map<String, Object>) itemSchema) : null;
+        minLength = ((Number) schema.getOrDefault("minLength", 0L)).longValue();
+        maxLength = ((Number) schema.getOrDefault("maxLength", Long.MAX_VALUE)).longValue();
+        minimum = bound(schema.get("minimum"));
+        maximum = bound(schema.get("maximum"));
+    }
+
+    private static BigDecimal bound(Object value) {
+        return value == null ? null : new BigDecimal(((Number) value).toString());
+    }
+
+    public static JsonSchema compile(String schema) {
+        if (!(BookJson.parse(schema) instanceof Map<?, ?> root)) {
+            throw new IllegalArgumentException("A schema must be a JSON object");
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> map = (Map<String, Object>) root;
+        return new JsonSchema(map);
+    }
+
+    /**
+     * The compiled schema in {@code resource} on the test classpath, compiled on first use.
+     */
+    public static JsonSchema forResource(String resource) {
+        return CACHE.computeIfAbsent(resource, name -> {
+            try (InputStream in = JsonSchema.class.getClassLoader().getResourceAsStream(name)) {
+                if (in == null) {
+                    throw new IllegalArgumentException("No schema " + name + " on the classpath");
+                }
+                return compile(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read schema " + name, e);
+            }
+        });
+    }
+
+    /**
+     * The Book resource returned on create.
+     */
+    public static JsonSchema book() {
+        return forResource("schemas/book.schema.json");
+    }
+
+    public String validate(InputStream in) {
+        return validate(in, Map.of());
+    }
+
+    /**
+     * Validates a whole document against this schema and, for a top-level object, checks that each entry of
+     * {@code expected} is present with an equal value, whatever the field order.
+     *
+     * @param expected top-level field values: {@link String}, {@link Long}/{@link Integer} or {@link Boolean}
+     * @return {@code null} if the document is valid, otherwise the first problem with its JSON path
+     */
+    public String validate(InputStream in, Map<String, ?> expected) {
+        JsonPullParser parser = new JsonPullParser(in);
+        try {
+            String error = check(parser, parser.next(), "$", expected, null);
+            if (error == null && parser.next() != Token.END_DOCUMENT) {
+                error = "$: unexpected data after the document";
+            }
+            return error;
+        } catch (IllegalArgumentException e) {
+            return "malformed JSON: " + e.getMessage();
+        }
+    }
+
+    /**
+     * @param fields expected values of the fields of an object at this position
+     * @param wanted expected value at this position, or {@code null}
+     */
+    private String check(JsonPullParser parser, Token token, String path, Map<String, ?> fields, Object wanted) {
+        Type type = switch (token) {
+            case BEGIN_OBJECT -> Type.OBJECT;
+            case BEGIN_ARRAY -> Type.ARRAY;
+            case STRING -> Type.STRING;
+            case NUMBER -> parser.isIntegral() ? Type.INTEGER : Type.NUMBER;
+            case TRUE, FALSE -> Type.BOOLEAN;
+            case NULL -> Type.NULL;
+            default -> throw new IllegalArgumentException("Unexpected " + token);
+        };
+        if (!types.contains(type)) {
+            parser.skipValue();
+            return path + ": expected " + types + " but was " + type;
+        }
+        if (wanted != null && !(type == Type.STRING && wanted instanceof String)) {
+            String actual = switch (type) {
+                case INTEGER, NUMBER -> parser.numberText();
+                case BOOLEAN -> String.valueOf(token == Token.TRUE);
+                default -> {
+                    parser.skipValue();
+                    yield type.toString();
+                }
+            };
+            if (!(wanted instanceof Number || wanted instanceof Boolean) || !actual.equals(String.valueOf(wanted))) {
+                return path + ": expected " + wanted + " but was " + actual;
+            }
+        }
+        return switch (type) {
+            case OBJECT -> checkObject(parser, path, fields);
+            case ARRAY -> checkArray(parser, path);
+            case STRING -> checkString(parser, path, (String) wanted);
+            case INTEGER, NUMBER -> checkNumber(parser, path);
+            default -> null;
+        };
+    }
+
+    private String checkObject(JsonPullParser parser, String path, Map<String, ?> fields) {
+        boolean[] seen = new boolean[properties.length];
+        int fieldsSeen = 0;
+        while (parser.next() == Token.NAME) {
+            String name = parser.name();
+            String fieldPath = path + "." + name;
+            Token value = parser.next();
+            Integer index = propertyIndex.get(name);
+            if (index == null && !additionalProperties) {
+                parser.skipValue();
+                return fieldPath + ": property is not allowed";
+            }
+            Object wanted = fields.get(name);
+            if (wanted != null) {
+                fieldsSeen++;
+            }
+            String error = (index == null ? ANY : properties[index]).check(parser, value, fieldPath, Map.of(), wanted);
+            if (error != null) {
+                return error;
+            }
+            if (index != null) {
+                seen[index] = true;
+            }
+        }
+        for (Map.Entry<String, Integer> property : propertyIndex.entrySet()) {
+            if (required[property.getValue()] && !seen[property.getValue()]) {
+                return path + "." + property.getKey() + ": required property is missing";
+            }
+        }
+        return fieldsSeen == fields.size() ? null : path + ": expected fields " + fields.keySet() + " are missing or repeated";
+    }
+
+    private String checkArray(JsonPullParser parser, String path) {
+        int index = 0;
+        Token token;
+        while ((token = parser.next()) != Token.END_ARRAY) {
+            String error = (items == null ? ANY : items).check(parser, token, path + "[" + index + "]", Map.of(), null);
+            if (error != null) {
+                return error;
+            }
+            index++;
+        }
+        return null;
+    }
+
+    private String checkString(JsonPullParser parser, String path, String wanted) {
+        long length = parser.consumeString(wanted);
+        if (length < minLength || length > maxLength) {
+            return path + ": length " + length + " is outside [" + minLength + ", " + maxLength + "]";
+        }
+        return wanted == null || parser.matched() ? null : path + ": value differs from expected \"" + wanted + "\"";
+    }
+
+    private String checkNumber(JsonPullParser parser, String path) {
+        if (minimum == null && maximum == null) {
+            return null;
+        }
+        BigDecimal value = new BigDecimal(parser.numberText());
+        if ((minimum != null && value.compareTo(minimum) < 0) || (maximum != null && value.compareTo(maximum) > 0)) {
+            return path + ": " + parser.numberText() + " is outside [" + minimum + ", " + maximum + "]";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,146 @@
+import json.JsonPullParser;
+import json.JsonPullParser.Token;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class JsonStreamingTests {
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testPullParserTokens() {
+        JsonPullParser parser = new JsonPullParser(stream(" {\"a\":[1,-2.5e3,true,null],\"b\":\"x\\\"\\u00e9😀\",\"c\":{}} "), 4);
+
+        // Assertions
+        assertEquals(parser.next(), Token.BEGIN_OBJECT);
+        assertEquals(parser.next(), Token.NAME);
+        assertEquals(parser.name(), "a");
+        assertEquals(parser.next(), Token.BEGIN_ARRAY);
+        assertEquals(parser.next(), Token.NUMBER);
+        assertEquals(parser.longValue(), 1L);
+        assertEquals(parser.next(), Token.NUMBER);
+        assertEquals(parser.numberText(), "-2.5e3");
+        assertEquals(parser.next(), Token.TRUE);
+        assertEquals(parser.next(), Token.NULL);
+        assertEquals(parser.next(), Token.END_ARRAY);
+        assertEquals(parser.next(), Token.NAME);
+        assertEquals(parser.next(), Token.STRING);
+        assertEquals(parser.consumeString("x\"é😀"), 5L);
+        assertTrue(parser.matched(), "Expected the decoded string to match");
+        assertEquals(parser.next(), Token.NAME);
+        assertEquals(parser.next(), Token.BEGIN_OBJECT);
+        parser.skipValue();
+        assertEquals(parser.next(), Token.END_OBJECT);
+        assertEquals(parser.next(), Token.END_DOCUMENT);
+    }
+
+    @Test
+    public void testBookSchemaIgnoresFieldOrder() {
+        Map<String, Object> expected = Map.of("id", 80L, "title", "Ambulance, The", "author", "Lida Leadstone");
+
+        // Assertions
+        assertNull(JsonSchema.book().validate(stream("{\"author\":\"Lida Leadstone\",\"title\":\"Ambulance, The\",\"id\":80}"), expected));
+        assertNull(JsonSchema.book().validate(stream(BookJson.book(80, "Ambulance, The", "Lida Leadstone")), expected));
+        assertSame(JsonSchema.book(), JsonSchema.book(), "Expected the compiled schema to be cached");
+    }
+
+    @Test
+    public void testBookSchemaReportsFirstProblem() {
+        Map<String, Object> expected = Map.of("id", 80L, "title", "Ambulance, The", "author", "Lida Leadstone");
+
+        // Assertions
+        assertEquals(JsonSchema.book().validate(stream("{\"id\":81,\"title\":\"Ambulance, The\",\"author\":\"Lida Leadstone\"}"), expected),
+                "$.id: expected 80 but was 81");
+        assertEquals(JsonSchema.book().validate(stream("{\"id\":80,\"title\":\"Ambulance\",\"author\":\"Lida Leadstone\"}"), expected),
+                "$.title: value differs from expected \"Ambulance, The\"");
+        assertEquals(JsonSchema.book().validate(stream("{\"id\":\"80\",\"title\":\"T\",\"author\":\"A\"}")),
+                "$.id: expected [INTEGER] but was STRING");
+        assertEquals(JsonSchema.book().validate(stream("{\"id\":80,\"title\":\"T\"}")),
+                "$.author: required property is missing");
+        assertEquals(JsonSchema.book().validate(stream("{\"id\":80,\"title\":\"T\",\"author\":\"A\",\"isbn\":\"1\"}")),
+                "$.isbn: property is not allowed");
+        assertEquals(JsonSchema.book().validate(stream("{\"id\":0,\"title\":\"\",\"author\":\"A\"}")),
+                "$.id: 0 is outside [1, null]");
+        assertTrue(JsonSchema.book().validate(stream("{\"id\":80,")).startsWith("malformed JSON: "));
+    }
+
+    @Test
+    public void testListOfBooks() {
+        JsonSchema books = JsonSchema.compile("{\"type\":\"array\",\"items\":{\"type\":\"object\",\"properties\":"
+                + "{\"title\":{\"type\":\"string\",\"maxLength\":255}},\"required\":[\"title\"]}}");
+
+        // Assertions
+        assertNull(books.validate(stream("[{\"title\":\"A\"},{\"title\":\"B\",\"extra\":[1,{\"x\":2}]}]")));
+        assertEquals(books.validate(stream("[{\"title\":\"A\"},{}]")), "$[1].title: required property is missing");
+    }
+
+    @Test
+    public void testBookJsonRejectsDeepNesting() {
+        String deepest = "[".repeat(BookJson.MAX_DEPTH) + "]".repeat(BookJson.MAX_DEPTH);
+        String tooDeep = "{\"a\":" + deepest + "}";
+
+        // Assertions
+        assertTrue(BookJson.parse(deepest) instanceof List<?>);
+        IllegalArgumentException error = expectThrows(IllegalArgumentException.class, () -> BookJson.parse(tooDeep));
+        assertEquals(error.getMessage(), "Nested deeper than " + BookJson.MAX_DEPTH + " levels");
+    }
+
+    @Test
+    public void testSchemaBoundsMayBeDecimal() {
+        JsonSchema price = JsonSchema.compile("{\"type\":\"number\",\"minimum\":0.5,\"maximum\":99.99}");
+
+        // Assertions
+        assertNull(price.validate(stream("0.5")));
+        assertNull(price.validate(stream("42")));
+        assertNull(price.validate(stream("99.990")));
+        assertEquals(price.validate(stream("0.49")), "$: 0.49 is outside [0.5, 99.99]");
+        assertEquals(price.validate(stream("100")), "$: 100 is outside [0.5, 99.99]");
+    }
+
+    @Test
+    public void testOversizedValueIsMeasuredNotBuffered() {
+        long length = 64L << 20;
+        InputStream title = new InputStream() {
+            private long remaining = length;
+
+            @Override
+            public int read() {
+                return remaining-- > 0 ? 'x' : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (remaining <= 0) {
+                    return -1;
+                }
+                int n = (int) Math.min(len, remaining);
+                Arrays.fill(b, off, off + n, (byte) 'x');
+                remaining -= n;
+                return n;
+            }
+        };
+        InputStream book = new SequenceInputStream(Collections.enumeration(List.of(
+                stream("{\"id\":80,\"title\":\""), title, stream("\",\"author\":\"Lida Leadstone\"}"))));
+
+        String error = JsonSchema.book().validate(book, Map.of("author", "Lida Leadstone"));
+
+        // Assertions
+        assertEquals(error, "$.title: length " + length + " is outside [1, 255]");
+    }
+}
@@ -0,0 +1,98 @@
+import json.JsonWriter;
+import org.testng.IReporter;
+import org.testng.ISuite;
+import org.testng.xml.XmlSuite;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the full latency distributions from {@link ExchangeTimings} next to the TestNG reports, so CI can track
+ * them from run to run:
+ * <ul>
+ *     <li>{@code latency.csv}: one row per non-empty histogram bucket, bounds in nanoseconds</li>
+ *     <li>{@code latency.json}: per key summary percentiles plus the same buckets, and the declared {@link Sla}s</li>
+ * </ul>
+ */
+public class LatencyExportReporter implements IReporter {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    @Override
+    public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
+        Map<ExchangeTimings.Key, LatencyHistogram> timings = ExchangeTimings.snapshot();
+        if (timings.isEmpty()) {
+            return;
+        }
+        try {
+            Path directory = Files.createDirectories(Path.of(outputDirectory));
+            writeCsv(directory.resolve("latency.csv"), timings);
+            writeJson(directory.resolve("latency.json"), timings);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to export latencies to " + outputDirectory, e);
+        }
+    }
+
+    private static void writeCsv(Path file, Map<ExchangeTimings.Key, LatencyHistogram> timings) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("method,endpoint,role,status,lowest_ns,highest_ns,count\n");
+            for (Map.Entry<ExchangeTimings.Key, LatencyHistogram> entry : timings.entrySet()) {
+                ExchangeTimings.Key key = entry.getKey();
+                String prefix = key.method() + "," + key.endpoint() + "," + key.role() + "," + key.status() + ",";
+                entry.getValue().forEachBucket((lowest, highest, count) -> {
+                    try {
+                        out.write(prefix + lowest + "," + highest + "," + count + "\n");
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        }
+    }
+
+    private static void writeJson(Path file, Map<ExchangeTimings.Key, LatencyHistogram> timings) throws IOException {
+        JsonWriter json = new JsonWriter(64 * 1024);
+        json.beginObject().name("exchanges").beginArray();
+        for (Map.Entry<ExchangeTimings.Key, LatencyHistogram> entry : timings.entrySet()) {
+            ExchangeTimings.Key key = entry.getKey();
+            LatencyHistogram histogram = entry.getValue();
+            json.beginObject()
+                    .name("method").value(key.method())
+                    .name("endpoint").value(key.endpoint())
+                    .name("role").value(key.role())
+                    .name("status").value(key.status())
+                    .name("count").value(histogram.count())
+                    .name("mean_ns").value(Math.round(histogram.mean()))
+                    .name("max_ns").value(histogram.max());
+            for (double percentile : PERCENTILES) {
+                json.name("p" + String.valueOf(percentile).replace(".0", "").replace(".", "") + "_ns")
+                        .value(histogram.percentile(percentile));
+            }
+            json.name("buckets").beginArray();
+            histogram.forEachBucket((lowest, highest, count) ->
+                    json.beginArray().value(lowest).value(highest).value(count).endArray());
+            json.endArray().endObject();
+        }
+        json.endArray().name("slas").beginArray();
+        List<String> breaches = Sla.breaches();
+        List<String> insufficient = Sla.insufficient();
+        for (Sla sla : Sla.required()) {
+            json.beginObject()
+                    .name("sla").value(sla.toString())
+                    .name("breached").value(breaches.stream().anyMatch(breach -> breach.startsWith(sla + " breached")))
+                    .name("insufficient_samples").value(insufficient.stream().anyMatch(m -> m.startsWith(sla + ":")))
+                    .endObject();
+        }
+        json.endArray().endObject();
+        try (OutputStream out = Files.newOutputStream(file)) {
+            json.writeTo(out);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-scenario throughput, error count and latency percentiles collected by a load run.
+ */
+public final class LoadReport {
+
+    private final Map<String, ScenarioStats> scenarios = new LinkedHashMap<>();
+    private volatile Duration elapsed = Duration.ZERO;
+
+    public LoadReport(Workload workload) {
+        for (Scenario scenario : workload.scenarios()) {
+            scenarios.put(scenario.name(), new ScenarioStats(scenario.name()));
+        }
+    }
+
+    public ScenarioStats stats(String scenario) {
+        ScenarioStats stats = scenarios.get(scenario);
+        if (stats == null) {
+            throw new IllegalArgumentException("Unknown scenario " + scenario);
+        }
+        return stats;
+    }
+
+    public Iterable<ScenarioStats> allStats() {
+        return scenarios.values();
+    }
+
+    void finish(Duration elapsed) {
+        this.elapsed = elapsed;
+    }
+
+    public Duration elapsed() {
+        return elapsed;
+    }
+
+    public long iterations() {
+        return scenarios.values().stream().mapToLong(s -> s.latency.count()).sum();
+    }
+
+    public long errors() {
+        return scenarios.values().stream().mapToLong(s -> s.errors.sum()).sum();
+    }
+
+    /**
+     * The first failure any scenario reported, or {@code null}.
+     */
+    public String firstError() {
+        return scenarios.values().stream().map(s -> s.firstError.get()).filter(e -> e != null).findFirst().orElse(null);
+    }
+
+    public double throughput() {
+        return perSecond(iterations());
+    }
+
+    private double perSecond(long count) {
+        double seconds = elapsed.toNanos() / 1e9;
+        return seconds == 0 ? 0 : count / seconds;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-26s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+                "scenario", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (ScenarioStats s : scenarios.values()) {
+            LatencyHistogram h = s.latency;
+            out.append(String.format("%-26s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    s.name, h.count(), s.errors.sum(), perSecond(h.count()), millis(h.percentile(50)),
+                    millis(h.percentile(90)), millis(h.percentile(99)), millis(h.percentile(99.9)), millis(h.max())));
+        }
+        out.append(String.format("total %d iterations, %d errors in %.1f s (%.1f ops/s)%n",
+                iterations(), errors(), elapsed.toNanos() / 1e9, throughput()));
+        return out.toString();
+    }
+
+    static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    public static final class ScenarioStats {
+
+        private final String name;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final AtomicReference<String> firstError = new AtomicReference<>();
+
+        ScenarioStats(String name) {
+            this.name = name;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public LatencyHistogram latency() {
+            return latency;
+        }
+
+        public long errors() {
+            return errors.sum();
+        }
+
+        void record(long nanos, String error) {
+            latency.record(nanos);
+            if (error != null) {
+                errors.increment();
+                firstError.compareAndSet(null, error);
+            }
+        }
+    }
+}
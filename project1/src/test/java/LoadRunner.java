@@ -0,0 +1,57 @@
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load generator: each of {@code users} threads picks a scenario from the {@link Workload}, runs it,
+ * records how long it took and immediately starts the next one.
+ * <p>
+ * The run stops when {@code duration} has elapsed or, if {@code iterations} is positive, once that many
+ * iterations have been started across all users, whichever comes first.
+ * <p>
+ * Users are virtual threads unless another {@link ThreadFactory} is given. RestAssured blocks inside
+ * {@code synchronized} code, which pins virtual threads to their carrier, so on small machines platform threads
+ * can drive more load against the in-process {@link BooksStubServer}.
+ */
+public final class LoadRunner {
+
+    private LoadRunner() {
+    }
+
+    public static LoadReport closedLoop(Workload workload, int users, Duration duration, long iterations) {
+        return closedLoop(workload, users, duration, iterations, Thread.ofVirtual().name("load-user-", 0).factory());
+    }
+
+    public static LoadReport closedLoop(Workload workload, int users, Duration duration, long iterations,
+                                        ThreadFactory threads) {
+        if (users <= 0) {
+            throw new IllegalArgumentException("users must be positive");
+        }
+        LoadReport report = new LoadReport(workload);
+        AtomicLong remaining = new AtomicLong(iterations > 0 ? iterations : Long.MAX_VALUE);
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(threads)) {
+            for (int i = 0; i < users; i++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline && remaining.getAndDecrement() > 0) {
+                        Scenario scenario = workload.pick();
+                        long begin = System.nanoTime();
+                        String error;
+                        try {
+                            error = scenario.execute();
+                        } catch (Exception e) {
+                            // also the checked I/O exceptions RestAssured rethrows undeclared, e.g. a reset connection
+                            error = scenario.name() + ": " + e;
+                        }
+                        report.stats(scenario.name()).record(System.nanoTime() - begin, error);
+                    }
+                });
+            }
+        }
+        report.finish(Duration.ofNanos(System.nanoTime() - start));
+        return report;
+    }
+}
@@ -0,0 +1,39 @@
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+
+import static org.testng.Assert.assertEquals;
+
+public class LoadTests {
+
+    @Test
+    public void testWorkloadSmoke() {
+        LoadReport report = LoadRunner.closedLoop(BookScenarios.apiTestsMix(), 4, Duration.ofSeconds(30), 40);
+
+        System.out.print(report);
+
+        // Assertions
+        assertEquals(report.iterations(), 40L, "Expected every iteration to run");
+        assertEquals(report.errors(), 0L, "Unexpected failure: " + report.firstError());
+    }
+
+    // mvn test -Pload [-Dload.users=64] [-Dload.seconds=60] [-Dload.iterations=100000] [-Dload.threads=platform]
+    @Test(groups = "load")
+    public void testClosedLoopLoad() {
+        SuiteConfig config = SuiteConfig.current();
+        int users = config.getInt("load.users", 32);
+        Duration duration = Duration.ofSeconds(config.getLong("load.seconds", 30));
+        long iterations = config.getLong("load.iterations", 0);
+        ThreadFactory threads = "platform".equals(config.get("load.threads", "virtual"))
+                ? Thread.ofPlatform().name("load-user-", 0).factory()
+                : Thread.ofVirtual().name("load-user-", 0).factory();
+
+        LoadReport report = LoadRunner.closedLoop(BookScenarios.apiTestsMix(), users, duration, iterations, threads);
+
+        System.out.print(report);
+
+        // Assertions
+        assertEquals(report.errors(), 0L, "Unexpected failure: " + report.firstError());
+    }
+}
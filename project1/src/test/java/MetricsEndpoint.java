@@ -0,0 +1,103 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Serves {@link SuiteMetrics} at {@code /metrics} in the Prometheus text exposition format (version 0.0.4), bound to
+ * the loopback address. Scrapes are rendered on the server's dispatcher thread and never block the recorders.
+ */
+public final class MetricsEndpoint implements AutoCloseable {
+
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String[] BOUNDS = {"0.001", "0.0025", "0.005", "0.01", "0.025", "0.05", "0.1", "0.25", "0.5",
+            "1", "2.5", "5", "10"};
+
+    private final HttpServer server;
+
+    private MetricsEndpoint(HttpServer server) {
+        this.server = server;
+        server.createContext("/metrics", this::handle);
+    }
+
+    /**
+     * @param port the local port, or 0 for any free one
+     */
+    public static MetricsEndpoint start(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 16);
+        MetricsEndpoint endpoint = new MetricsEndpoint(server);
+        server.start();
+        return endpoint;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body = render(SuiteMetrics.INSTANCE).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    static String render(SuiteMetrics metrics) {
+        StringBuilder out = new StringBuilder(2048);
+        out.append("# HELP books_requests_total RestAssured calls to the books API that got a response, by status.\n")
+                .append("# TYPE books_requests_total counter\n");
+        for (Map.Entry<String, Long> status : metrics.getStatusCounts().entrySet()) {
+            out.append("books_requests_total{status=\"").append(status.getKey()).append("\"} ")
+                    .append(status.getValue()).append('\n');
+        }
+        out.append("# HELP books_request_errors_total Calls that failed without a response.\n")
+                .append("# TYPE books_request_errors_total counter\n")
+                .append("books_request_errors_total ").append(metrics.getErrorCount()).append('\n')
+                .append("# HELP books_request_retries_total Attempts repeated after a transport error or a 502, 503 or 504.\n")
+                .append("# TYPE books_request_retries_total counter\n")
+                .append("books_request_retries_total ").append(metrics.getRetryCount()).append('\n')
+                .append("# HELP books_requests_in_flight Calls currently waiting for a response.\n")
+                .append("# TYPE books_requests_in_flight gauge\n")
+                .append("books_requests_in_flight ").append(metrics.getInFlight()).append('\n');
+
+        long[] cumulative = new long[BOUNDS.length + 1];
+        long[] bounds = new long[BOUNDS.length];
+        for (int i = 0; i < BOUNDS.length; i++) {
+            bounds[i] = Math.round(Double.parseDouble(BOUNDS[i]) * 1e9);
+        }
+        LatencyHistogram latency = metrics.latency();
+        long sum = latency.sum();
+        latency.forEachBucket((lowest, highest, count) -> {
+            for (int i = 0; i < bounds.length; i++) {
+                if (highest <= bounds[i]) {
+                    cumulative[i] += count;
+                }
+            }
+            cumulative[bounds.length] += count;
+        });
+        out.append("# HELP books_request_duration_seconds Latency of calls to the books API.\n")
+                .append("# TYPE books_request_duration_seconds histogram\n");
+        for (int i = 0; i < BOUNDS.length; i++) {
+            out.append("books_request_duration_seconds_bucket{le=\"").append(BOUNDS[i]).append("\"} ")
+                    .append(cumulative[i]).append('\n');
+        }
+        out.append("books_request_duration_seconds_bucket{le=\"+Inf\"} ").append(cumulative[bounds.length]).append('\n')
+                .append("books_request_duration_seconds_sum ").append(sum / 1e9).append('\n')
+                .append("books_request_duration_seconds_count ").append(cumulative[bounds.length]).append('\n');
+        return out.toString();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,37 @@
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.io.IOException;
+
+/**
+ * Publishes {@link SuiteMetrics} for the duration of the suite: always as a JMX MBean, and over HTTP at
+ * {@code http://127.0.0.1:<metrics.port>/metrics} when the {@code metrics.port} system property is set
+ * ({@code 0} picks a free port and prints it).
+ */
+public class MetricsListener implements ISuiteListener {
+
+    private static MetricsEndpoint endpoint;
+
+    @Override
+    public synchronized void onStart(ISuite suite) {
+        SuiteMetrics.registerMBean();
+        Integer port = Integer.getInteger("metrics.port");
+        if (port == null || endpoint != null) {
+            return;
+        }
+        try {
+            endpoint = MetricsEndpoint.start(port);
+            System.out.println("Serving metrics at http://127.0.0.1:" + endpoint.port() + "/metrics");
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to serve metrics on port " + port, e);
+        }
+    }
+
+    @Override
+    public synchronized void onFinish(ISuite suite) {
+        if (endpoint != null) {
+            endpoint.close();
+            endpoint = null;
+        }
+    }
+}
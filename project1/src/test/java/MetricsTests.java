@@ -0,0 +1,72 @@
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.testng.annotations.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static io.restassured.RestAssured.given;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class MetricsTests {
+
+    @Test
+    public void testCallsAreCountedByStatus() {
+        long created = SuiteMetrics.INSTANCE.getStatusCounts().getOrDefault("201", 0L);
+        long unauthorized = SuiteMetrics.INSTANCE.getStatusCounts().getOrDefault("401", 0L);
+
+        Response response = given(RequestSpecs.user())
+                .contentType(ContentType.JSON)
+                .body("{\"title\":\"" + TestData.unique("Counting Sheep") + "\",\"author\":\"Mia Meter\"}")
+                .post();
+        Response rejected = given(RequestSpecs.withCredentials("dev", "123"))
+                .contentType(ContentType.JSON)
+                .body("{\"title\":\"Counting Sheep\",\"author\":\"Mia Meter\"}")
+                .post();
+
+        // Assertions
+        assertEquals(response.getStatusCode(), 201, "Expected status code 201");
+        assertEquals(rejected.getStatusCode(), 401, "Expected status code 401");
+        assertTrue(SuiteMetrics.INSTANCE.getStatusCounts().get("201") > created, "Expected the 201 to be counted");
+        assertTrue(SuiteMetrics.INSTANCE.getStatusCounts().get("401") > unauthorized, "Expected the 401 to be counted");
+    }
+
+    @Test
+    public void testMBeanIsRegistered() throws Exception {
+        SuiteMetrics.registerMBean();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        // Assertions
+        assertTrue(server.isRegistered(new ObjectName(SuiteMetrics.OBJECT_NAME)), "Expected the MBean to be registered");
+        assertEquals(server.getAttribute(new ObjectName(SuiteMetrics.OBJECT_NAME), "RequestCount"),
+                SuiteMetrics.INSTANCE.getRequestCount());
+    }
+
+    @Test
+    public void testPrometheusEndpoint() throws Exception {
+        given(RequestSpecs.admin())
+                .contentType(ContentType.JSON)
+                .body("{\"title\":\"" + TestData.unique("Scraped Pages") + "\",\"author\":\"Pat Scraper\"}")
+                .post();
+
+        try (MetricsEndpoint endpoint = MetricsEndpoint.start(0); HttpClient client = HttpClient.newHttpClient()) {
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + endpoint.port() + "/metrics")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            // Assertions
+            assertEquals(response.statusCode(), 200, "Expected status code 200");
+            assertEquals(response.headers().firstValue("Content-Type").orElse(null), MetricsEndpoint.CONTENT_TYPE);
+            assertTrue(response.body().contains("# TYPE books_requests_total counter\n"), response.body());
+            assertTrue(response.body().contains("books_requests_total{status=\"201\"} "), response.body());
+            assertTrue(response.body().contains("books_requests_in_flight "), response.body());
+            assertTrue(response.body().contains("books_request_duration_seconds_bucket{le=\"+Inf\"} "), response.body());
+        }
+    }
+}
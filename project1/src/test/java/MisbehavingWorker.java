@@ -0,0 +1,27 @@
+import org.example.WorkerProtocol;
+
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * Worker JVM for {@code DistributedRunnerTests}: greets the coordinator with indexes it never handed out, each on a
+ * connection of its own, and then runs its shard as a normal {@link SuiteWorker}.
+ */
+public final class MisbehavingWorker {
+
+    private MisbehavingWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        for (String index : new String[]{"not-a-number", "-1", "99"}) {
+            try (WorkerProtocol.Connection connection = new WorkerProtocol.Connection(new Socket(args[0], Integer.parseInt(args[1])))) {
+                connection.send(WorkerProtocol.HELLO, index);
+                // the coordinator should hang up rather than send a RUN
+                if (connection.receive() != null) {
+                    throw new IllegalStateException("Coordinator accepted worker index " + index);
+                }
+            }
+        }
+        SuiteWorker.main(args);
+    }
+}
@@ -0,0 +1,40 @@
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.testng.annotations.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.testng.Assert.assertEquals;
+
+public class PreemptiveAuthTests {
+
+    @Test
+    public void testAuthorizedCreateIsSingleExchange() {
+        String requestBody = "{\"title\":\"" + TestData.unique("The Preemptive Reader") + "\",\"author\":\"Ada Header\"}";
+
+        ExchangeCounter.resetCurrentThread();
+        Response response = given(RequestSpecs.user())
+                .contentType(ContentType.JSON)
+                .body(requestBody)
+                .post();
+
+        // Assertions
+        assertEquals(response.getStatusCode(), 201, "Expected status code 201");
+        assertEquals(ExchangeCounter.currentThread(), 1L, "Expected exactly one HTTP exchange");
+    }
+
+    @Test
+    public void testRejectedCredentialsAreSingleExchange() {
+        String requestBody = "{\"title\":\"Challenge Accepted\",\"author\":\"Bob Retry\"}";
+
+        ExchangeCounter.resetCurrentThread();
+        Response response = given(RequestSpecs.withCredentials("dev", "123"))
+                .contentType(ContentType.JSON)
+                .body(requestBody)
+                .post();
+
+        // Assertions
+        // Challenged auth would send the request twice before giving up with 401
+        assertEquals(response.getStatusCode(), 401, "Expected status code 401");
+        assertEquals(ExchangeCounter.currentThread(), 1L, "Expected exactly one HTTP exchange");
+    }
+}
@@ -0,0 +1,74 @@
+import java.time.Duration;
+import java.util.function.LongToDoubleFunction;
+
+/**
+ * Target request rate over the course of an open-loop run; see {@link ArrivalRateDriver}.
+ */
+public interface RateProfile {
+
+    /**
+     * Requests per second the driver should issue {@code elapsedNanos} after the start of the run.
+     */
+    double rateAt(long elapsedNanos);
+
+    Duration duration();
+
+    static RateProfile constant(double rate, Duration duration) {
+        return profile(duration, elapsed -> rate, "constant " + rate + "/s");
+    }
+
+    /**
+     * Starts at {@code startRate} and adds {@code increment} every {@code stepLength}, for {@code steps} steps.
+     */
+    static RateProfile step(double startRate, double increment, Duration stepLength, int steps) {
+        long stepNanos = stepLength.toNanos();
+        return profile(stepLength.multipliedBy(steps), elapsed -> startRate + increment * Math.min(steps - 1, elapsed / stepNanos),
+                "step " + startRate + "/s +" + increment + "/s every " + stepLength);
+    }
+
+    /**
+     * Ramps linearly from {@code fromRate} to {@code toRate} over {@code duration}.
+     */
+    static RateProfile linear(double fromRate, double toRate, Duration duration) {
+        double nanos = duration.toNanos();
+        return profile(duration, elapsed -> fromRate + (toRate - fromRate) * Math.min(1.0, elapsed / nanos),
+                "linear " + fromRate + "/s -> " + toRate + "/s");
+    }
+
+    /**
+     * Holds {@code baseRate} except for a burst at {@code spikeRate} lasting {@code spikeLength} from {@code spikeAt}.
+     */
+    static RateProfile spike(double baseRate, double spikeRate, Duration spikeAt, Duration spikeLength, Duration duration) {
+        long from = spikeAt.toNanos();
+        long to = from + spikeLength.toNanos();
+        return profile(duration, elapsed -> elapsed >= from && elapsed < to ? spikeRate : baseRate,
+                "spike " + baseRate + "/s with " + spikeRate + "/s at " + spikeAt);
+    }
+
+    /**
+     * Reads the rate from {@code key} in {@link SuiteConfig#current()} as it goes, falling back to
+     * {@code defaultRate}, so that editing the watched {@code config.file} changes the rate of a running load.
+     */
+    static RateProfile configured(String key, double defaultRate, Duration duration) {
+        return profile(duration, elapsed -> SuiteConfig.current().getDouble(key, defaultRate), "configured " + key);
+    }
+
+    private static RateProfile profile(Duration duration, LongToDoubleFunction rate, String description) {
+        return new RateProfile() {
+            @Override
+            public double rateAt(long elapsedNanos) {
+                return rate.applyAsDouble(elapsedNanos);
+            }
+
+            @Override
+            public Duration duration() {
+                return duration;
+            }
+
+            @Override
+            public String toString() {
+                return description;
+            }
+        };
+    }
+}
@@ -0,0 +1,108 @@
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Appends every exchange to an {@link ExchangeLog}.
+ * <p>
+ * The shared {@link #INSTANCE} in {@link RequestSpecs} records into the log opened with {@link #start}, which
+ * {@link RecordingListener} does for the suite when {@code exchange.record.file} is set, and does nothing
+ * otherwise. A filter built with {@link #RecordingFilter(ExchangeLog.Writer)} always records into its own log.
+ */
+public final class RecordingFilter implements Filter {
+
+    static final RecordingFilter INSTANCE = new RecordingFilter(null);
+
+    private static final long EPOCH_MICROS = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    private static final long EPOCH_NANOS = System.nanoTime();
+
+    private static final LongAdder failures = new LongAdder();
+    private static volatile ExchangeLog.Writer log;
+
+    private final ExchangeLog.Writer writer;
+
+    public RecordingFilter(ExchangeLog.Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Starts appending exchanges to {@code writer}, replacing any log already being recorded.
+     *
+     * @return the previous writer, which the caller is responsible for closing, or {@code null}
+     */
+    public static synchronized ExchangeLog.Writer start(ExchangeLog.Writer writer) {
+        ExchangeLog.Writer previous = log;
+        log = writer;
+        return previous;
+    }
+
+    /**
+     * Stops recording and returns the writer, still open, or {@code null} if nothing was being recorded.
+     */
+    public static synchronized ExchangeLog.Writer stop() {
+        return start(null);
+    }
+
+    /**
+     * Exchanges that could not be appended since the class was loaded.
+     */
+    public static long failures() {
+        return failures.sum();
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        ExchangeLog.Writer writer = this.writer != null ? this.writer : log;
+        if (writer == null) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        long start = System.nanoTime();
+        Response response = ctx.next(requestSpec, responseSpec);
+        long duration = System.nanoTime() - start;
+        Map<String, String> requestHeaders = headers(requestSpec.getHeaders());
+        if (requestSpec.getContentType() != null) {
+            requestHeaders.putIfAbsent("Content-Type", requestSpec.getContentType());
+        }
+        URI uri = URI.create(requestSpec.getURI());
+        try {
+            writer.append(new ExchangeLog.Exchange(EPOCH_MICROS + TimeUnit.NANOSECONDS.toMicros(start - EPOCH_NANOS),
+                    duration, requestSpec.getMethod(), uri.getRawQuery() == null ? uri.getRawPath()
+                    : uri.getRawPath() + "?" + uri.getRawQuery(), requestHeaders, bytes(requestSpec.getBody()),
+                    response.getStatusCode(), headers(response.getHeaders()), response.asByteArray()));
+        } catch (IOException e) {
+            // A full disk should not fail the test that happened to be running
+            if (failures.sum() == 0) {
+                System.out.println("Unable to record exchange to " + writer.file() + ": " + e);
+            }
+            failures.increment();
+        }
+        return response;
+    }
+
+    private static Map<String, String> headers(Iterable<Header> headers) {
+        Map<String, String> first = new LinkedHashMap<>();
+        for (Header header : headers) {
+            first.putIfAbsent(header.getName(), header.getValue());
+        }
+        return first;
+    }
+
+    private static byte[] bytes(Object body) {
+        if (body == null) {
+            return new byte[0];
+        }
+        return body instanceof byte[] raw ? raw : body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
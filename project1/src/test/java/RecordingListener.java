@@ -0,0 +1,49 @@
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Records the suite's traffic into an {@link ExchangeLog} when the {@code exchange.record.file} system property is
+ * set. Frames are deflated unless {@code exchange.record.compress} is {@code false}. Appending to an existing log
+ * adds this run after the previous ones.
+ */
+public class RecordingListener implements ISuiteListener {
+
+    @Override
+    public synchronized void onStart(ISuite suite) {
+        String file = System.getProperty("exchange.record.file");
+        if (file == null || file.isBlank()) {
+            return;
+        }
+        int threshold = Boolean.parseBoolean(System.getProperty("exchange.record.compress", "true"))
+                ? ExchangeLog.DEFAULT_COMPRESS_THRESHOLD : Integer.MAX_VALUE;
+        try {
+            close(RecordingFilter.start(new ExchangeLog.Writer(Path.of(file), threshold)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to record exchanges to " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void onFinish(ISuite suite) {
+        ExchangeLog.Writer writer = RecordingFilter.stop();
+        if (writer != null) {
+            close(writer);
+            System.out.println("Recorded " + writer.frames() + " exchange(s), " + writer.bytes() + " bytes, to "
+                    + writer.file());
+        }
+    }
+
+    private static void close(ExchangeLog.Writer writer) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.out.println("Unable to close exchange log " + writer.file() + ": " + e);
+        }
+    }
+}
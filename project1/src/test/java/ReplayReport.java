@@ -0,0 +1,116 @@
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Results of an {@link ExchangeReplayer} run.
+ * <p>
+ * {@link #latency()} is taken from each request's scheduled time and {@link #serviceTime()} from when it was
+ * actually sent, as in {@link ArrivalRateReport}. {@link #recorded()} holds the durations captured in the log for
+ * the same requests, which is the baseline when the log was recorded against the previous server build.
+ */
+public final class ReplayReport {
+
+    private final URI target;
+    private final double speed;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+    private final LatencyHistogram recorded = new LatencyHistogram();
+    private final LatencyHistogram scheduleLag = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder mismatches = new LongAdder();
+    private final AtomicReference<String> firstError = new AtomicReference<>();
+    private final AtomicReference<String> firstMismatch = new AtomicReference<>();
+    private volatile Duration elapsed = Duration.ZERO;
+
+    ReplayReport(URI target, double speed) {
+        this.target = target;
+        this.speed = speed;
+    }
+
+    void scheduled(long lagNanos) {
+        scheduleLag.record(lagNanos);
+    }
+
+    void completed(ExchangeLog.Exchange exchange, long intendedNanos, long sentNanos, long doneNanos, int status,
+                   String error) {
+        latency.record(doneNanos - intendedNanos);
+        serviceTime.record(doneNanos - sentNanos);
+        recorded.record(exchange.durationNanos());
+        if (error != null) {
+            errors.increment();
+            firstError.compareAndSet(null, error);
+        } else if (status != exchange.status()) {
+            mismatches.increment();
+            firstMismatch.compareAndSet(null, exchange.method() + " " + exchange.path() + ": expected "
+                    + exchange.status() + " but was " + status);
+        }
+    }
+
+    void finish(Duration elapsed) {
+        this.elapsed = elapsed;
+    }
+
+    public LatencyHistogram latency() {
+        return latency;
+    }
+
+    public LatencyHistogram serviceTime() {
+        return serviceTime;
+    }
+
+    public LatencyHistogram recorded() {
+        return recorded;
+    }
+
+    public LatencyHistogram scheduleLag() {
+        return scheduleLag;
+    }
+
+    public long completed() {
+        return latency.count();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    /**
+     * Responses whose status differs from the recorded one.
+     */
+    public long mismatches() {
+        return mismatches.sum();
+    }
+
+    public String firstError() {
+        return firstError.get();
+    }
+
+    public String firstMismatch() {
+        return firstMismatch.get();
+    }
+
+    public Duration elapsed() {
+        return elapsed;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("replay against %s at %sx: completed %d, errors %d, status mismatches %d in %.1f s%n",
+                target, speed, completed(), errors(), mismatches(), elapsed.toNanos() / 1e9));
+        out.append(String.format("%-16s %9s %9s %9s %9s %9s%n", "ms", "p50", "p90", "p99", "p99.9", "max"));
+        row(out, "latency", latency);
+        row(out, "service time", serviceTime);
+        row(out, "recorded", recorded);
+        row(out, "schedule lag", scheduleLag);
+        return out.toString();
+    }
+
+    private static void row(StringBuilder out, String name, LatencyHistogram h) {
+        out.append(String.format("%-16s %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, LoadReport.millis(h.percentile(50)),
+                LoadReport.millis(h.percentile(90)), LoadReport.millis(h.percentile(99)),
+                LoadReport.millis(h.percentile(99.9)), LoadReport.millis(h.max())));
+    }
+}
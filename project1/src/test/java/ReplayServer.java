@@ -0,0 +1,128 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in that answers requests with the responses recorded in an {@link ExchangeLog}.
+ * <p>
+ * A request matches a recorded exchange with the same method, path, {@code Authorization} header and body bytes.
+ * Repeated identical requests get the recorded responses in their original order (a create and then its 208
+ * duplicate), and the last one is repeated once they run out. Anything else gets a 404 and is counted as a
+ * {@link #misses() miss}. Served with one virtual thread per exchange, like {@link BooksStubServer}.
+ */
+public final class ReplayServer implements AutoCloseable {
+
+    private static final Set<String> HOP_BY_HOP = Set.of("content-length", "transfer-encoding", "connection", "date",
+            "keep-alive");
+    private static final byte[] NO_RECORDING = "{\"error\":\"No recorded exchange\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<Request, Deque<ExchangeLog.Exchange>> responses = new HashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private ReplayServer(HttpServer server, Iterable<ExchangeLog.Exchange> exchanges) {
+        this.server = server;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        for (ExchangeLog.Exchange exchange : exchanges) {
+            responses.computeIfAbsent(Request.of(exchange), k -> new ArrayDeque<>()).add(exchange);
+        }
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public static ReplayServer start(String host, int port, Iterable<ExchangeLog.Exchange> exchanges) throws IOException {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        ReplayServer replay = new ReplayServer(HttpServer.create(new InetSocketAddress(host, port), 1024), exchanges);
+        replay.server.start();
+        return replay;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + port();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Request request = new Request(exchange.getRequestMethod(), exchange.getRequestURI().getRawPath()
+                    + (exchange.getRequestURI().getRawQuery() == null ? "" : "?" + exchange.getRequestURI().getRawQuery()),
+                    exchange.getRequestHeaders().getFirst("Authorization"),
+                    new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.ISO_8859_1));
+            ExchangeLog.Exchange recorded = next(request);
+            if (recorded == null) {
+                misses.increment();
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                send(exchange, 404, NO_RECORDING);
+                return;
+            }
+            hits.increment();
+            recorded.responseHeaders().forEach((name, value) -> {
+                if (!HOP_BY_HOP.contains(name.toLowerCase())) {
+                    exchange.getResponseHeaders().set(name, value);
+                }
+            });
+            send(exchange, recorded.status(), recorded.responseBody());
+        }
+    }
+
+    private ExchangeLog.Exchange next(Request request) {
+        Deque<ExchangeLog.Exchange> queue = responses.get(request);
+        if (queue == null) {
+            return null;
+        }
+        synchronized (queue) {
+            return queue.size() > 1 ? queue.poll() : queue.peek();
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * What a request is matched on; the body is kept as Latin-1 so that any bytes compare exactly.
+     */
+    private record Request(String method, String path, String authorization, String body) {
+
+        static Request of(ExchangeLog.Exchange exchange) {
+            return new Request(exchange.method(), exchange.path(), exchange.requestHeader("Authorization"),
+                    new String(exchange.requestBody(), StandardCharsets.ISO_8859_1));
+        }
+    }
+}
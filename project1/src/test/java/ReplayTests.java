@@ -0,0 +1,205 @@
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class ReplayTests {
+
+    @Test
+    public void testFramesRoundTripWithCompression() throws IOException {
+        Path file = Files.createTempFile("exchanges", ".bxl");
+        try {
+            String longTitle = "A".repeat(4000);
+            ExchangeLog.Exchange small = exchange(1_000, "/api/books", "{\"title\":\"t\",\"author\":\"a\"}", 201);
+            ExchangeLog.Exchange large = exchange(2_000, "/api/books", "{\"title\":\"" + longTitle + "\",\"author\":\"a\"}", 400);
+            try (ExchangeLog.Writer writer = new ExchangeLog.Writer(file, ExchangeLog.DEFAULT_COMPRESS_THRESHOLD)) {
+                writer.append(small);
+                writer.append(large);
+            }
+            try (ExchangeLog.Writer writer = new ExchangeLog.Writer(file, Integer.MAX_VALUE)) {
+                writer.append(small);
+            }
+
+            List<ExchangeLog.Exchange> exchanges = ExchangeLog.read(file);
+
+            // Assertions
+            assertEquals(exchanges.size(), 3, "Both runs should be in the log");
+            assertTrue(Files.size(file) < 2 * small.requestBody().length + longTitle.length(),
+                    "The long title should have been deflated, log is " + Files.size(file) + " bytes");
+            assertEquals(exchanges.get(1).timestampMicros(), 2_000);
+            assertEquals(new String(exchanges.get(1).requestBody(), StandardCharsets.UTF_8),
+                    new String(large.requestBody(), StandardCharsets.UTF_8));
+            assertEquals(exchanges.get(1).status(), 400);
+            assertEquals(exchanges.get(2).requestHeader("authorization"), Credentials.USER.header().getValue());
+            assertEquals(exchanges.get(2).responseHeaders(), Map.of("Content-Type", "application/json"));
+
+            try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+                raw.setLength(raw.length() - 3);
+            }
+            assertEquals(ExchangeLog.read(file).size(), 2, "A truncated last frame should be dropped");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testRejectsForeignFiles() throws IOException {
+        Path file = Files.createTempFile("exchanges", ".bxl");
+        try {
+            Files.writeString(file, "{\"not\":\"a log\"}");
+
+            // Assertions
+            IOException read = expectThrows(IOException.class, () -> ExchangeLog.read(file));
+            assertTrue(read.getMessage().contains("bad magic"), read.getMessage());
+            expectThrows(IOException.class, () -> new ExchangeLog.Writer(file, Integer.MAX_VALUE));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testRecordThenServeFromStandIn() throws IOException {
+        Path file = Files.createTempFile("exchanges", ".bxl");
+        try {
+            String book = "{\"title\":\"" + TestData.unique("Recorded") + "\",\"author\":\"Lida Leadstone\"}";
+            List<String> bodies = List.of(book, book, "{\"title\":\"No author\"}");
+            List<String> recordedBodies = new ArrayList<>();
+            try (ExchangeLog.Writer writer = new ExchangeLog.Writer(file, ExchangeLog.DEFAULT_COMPRESS_THRESHOLD)) {
+                RecordingFilter recording = new RecordingFilter(writer);
+                for (String body : bodies) {
+                    recordedBodies.add(given(RequestSpecs.user()).filter(recording)
+                            .contentType(ContentType.JSON).body(body).post().asString());
+                }
+                given(RequestSpecs.withCredentials("nobody", "wrong")).filter(recording)
+                        .contentType(ContentType.JSON).body(book).post();
+            }
+            List<ExchangeLog.Exchange> exchanges = ExchangeLog.read(file);
+
+            // Assertions
+            assertEquals(exchanges.stream().map(ExchangeLog.Exchange::status).toList(), List.of(201, 208, 400, 401));
+            assertEquals(exchanges.get(0).method(), "POST");
+            assertEquals(exchanges.get(0).path(), SuiteConfig.current().apiEndpoint());
+            assertTrue(exchanges.get(0).requestHeader("Content-Type").startsWith("application/json"),
+                    exchanges.get(0).requestHeaders().toString());
+            assertTrue(exchanges.get(0).durationNanos() > 0);
+
+            try (ReplayServer replay = ReplayServer.start("127.0.0.1", 0, exchanges)) {
+                for (int i = 0; i < bodies.size(); i++) {
+                    Response response = given(RequestSpecs.user()).baseUri(replay.baseUrl())
+                            .contentType(ContentType.JSON).body(bodies.get(i)).post();
+                    assertEquals(response.getStatusCode(), exchanges.get(i).status(), bodies.get(i));
+                    assertEquals(response.asString(), recordedBodies.get(i), "Replayed body");
+                    assertEquals(response.getContentType(), "application/json");
+                }
+                assertEquals(given(RequestSpecs.user()).baseUri(replay.baseUrl())
+                        .contentType(ContentType.JSON).body(book).post().getStatusCode(), 208,
+                        "The last recorded response should repeat");
+                assertEquals(given(RequestSpecs.admin()).baseUri(replay.baseUrl())
+                        .contentType(ContentType.JSON).body(book).post().getStatusCode(), 404,
+                        "Other credentials were never recorded");
+                assertEquals(replay.hits(), 4);
+                assertEquals(replay.misses(), 1);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testRedriveAgainstNewServer() throws IOException {
+        List<ExchangeLog.Exchange> exchanges = new ArrayList<>();
+        String book = "{\"title\":\"" + TestData.unique("Redriven") + "\",\"author\":\"Lida Leadstone\"}";
+        exchanges.add(exchange(0, SuiteConfig.current().apiEndpoint(), book, 201));
+        exchanges.add(exchange(300, SuiteConfig.current().apiEndpoint(), book, 208));
+        exchanges.add(exchange(600, SuiteConfig.current().apiEndpoint(), "[]", 400));
+        exchanges.add(exchange(900, SuiteConfig.current().apiEndpoint(), book, 201));
+
+        try (BooksStubServer server = BooksStubServer.start("127.0.0.1", 0)) {
+            // One request at a time, so the duplicate cannot overtake the create
+            ReplayReport report = ExchangeReplayer.replay(source(exchanges),
+                    URI.create(server.baseUrl()), Double.POSITIVE_INFINITY, ExchangeReplayer.DEFAULT_MAX_GAP, 1);
+
+            // Assertions
+            assertEquals(report.completed(), 4);
+            assertNull(report.firstError(), report.toString());
+            assertEquals(report.mismatches(), 1, report.toString());
+            assertEquals(report.firstMismatch(), "POST " + SuiteConfig.current().apiEndpoint() + ": expected 201 but was 208");
+            assertEquals(report.recorded().count(), 4);
+            assertEquals(server.requestCount(), 4);
+        }
+    }
+
+    @Test
+    public void testReplayKeepsScaledPace() throws IOException {
+        List<ExchangeLog.Exchange> exchanges = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            exchanges.add(exchange(i * 200_000L, "/missing", "", 404));
+        }
+        exchanges.add(exchange(3_600_000_000L, "/missing", "", 404));
+
+        try (ReplayServer replay = ReplayServer.start("127.0.0.1", 0, List.of())) {
+            ReplayReport report = ExchangeReplayer.replay(exchanges, URI.create(replay.baseUrl()), 2);
+
+            // Assertions
+            assertNull(report.firstError(), report.toString());
+            assertEquals(report.mismatches(), 0, report.toString());
+            assertTrue(report.elapsed().compareTo(Duration.ofMillis(700)) >= 0,
+                    "400 ms of recorded gaps plus the 1 s cap, at 2x: " + report);
+            assertTrue(report.elapsed().compareTo(Duration.ofSeconds(10)) < 0, "The hour-long gap should be capped: "
+                    + report);
+            assertEquals(replay.misses(), 4);
+        }
+        expectThrows(IllegalArgumentException.class,
+                () -> ExchangeReplayer.replay(exchanges, URI.create(SuiteConfig.current().baseUrl()), 0));
+    }
+
+    // mvn test -Pload -Dreplay.file=suite.bxl [-Dreplay.target=http://new-build:8080] [-Dreplay.speed=4]
+    // Record the log with -Dexchange.record.file=suite.bxl against the previous build
+    @Test(groups = "load")
+    public void testReplayRecordedLog() throws IOException {
+        String file = System.getProperty("replay.file");
+        if (file == null) {
+            throw new SkipException("Set -Dreplay.file to an exchange log recorded with -Dexchange.record.file");
+        }
+
+        ReplayReport report = ExchangeReplayer.replay(Path.of(file),
+                URI.create(System.getProperty("replay.target", SuiteConfig.current().baseUrl())),
+                Double.parseDouble(System.getProperty("replay.speed", "1")));
+
+        System.out.print(report);
+
+        // Assertions
+        assertEquals(report.errors(), 0L, "Unexpected failure: " + report.firstError());
+    }
+
+    private static ExchangeReplayer.Source source(List<ExchangeLog.Exchange> exchanges) {
+        Iterator<ExchangeLog.Exchange> iterator = exchanges.iterator();
+        return () -> iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private static ExchangeLog.Exchange exchange(long timestampMicros, String path, String body, int status) {
+        return new ExchangeLog.Exchange(timestampMicros, 1_000_000, "POST", path,
+                Map.of(Credentials.USER.header().getName(), Credentials.USER.header().getValue(),
+                        "Content-Type", "application/json"),
+                body.getBytes(StandardCharsets.UTF_8), status, Map.of("Content-Type", "application/json"),
+                "{}".getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,191 @@
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.impl.client.DefaultHttpClient;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-role request specifications for the books API.
+ * <p>
+ * Each specification is built once and never mutated afterwards, so it can be shared by any number of test
+ * threads through {@code given(spec)}. Nothing here touches the global {@link RestAssured} statics, which is
+ * what lets admin and user tests run side by side in a parallel suite.
+ * <p>
+ * Credentials are sent preemptively as a precomputed {@code Authorization} header (see {@link Credentials}), and
+ * every exchange is timed into {@link ExchangeTimings}, kept in the thread's {@link ExchangeRingBuffer} for
+ * logging if the test fails and, while {@link RecordingFilter} is started, appended to an {@link ExchangeLog}. All
+ * clients share the keep-alive connections of {@link SharedConnectionPool}.
+ * <p>
+ * Timeouts and retries follow the configured {@link ClientPolicy}; by default a call is tried once and may wait a
+ * minute for its response. With more than one attempt, a {@link RetryFilter} goes last.
+ * <p>
+ * The shared specifications follow {@link SuiteConfig#current()}: when a reload changes {@code base.url},
+ * {@code api.endpoint}, {@code targets} or the client policy they are rebuilt on next use, so a long run can be
+ * pointed at another server without restarting. With more than one target, a {@link Balancer} spreads the requests
+ * over them; see {@link #balancer()}. A balancer replaced by a reload is closed once none of its requests are
+ * outstanding any more.
+ */
+public final class RequestSpecs {
+
+    private static volatile Specs specs = new Specs(SuiteConfig.current());
+
+    /**
+     * @param version the {@link SuiteConfig#version()} last compared with, so that an unchanged configuration
+     *                costs one comparison per call
+     */
+    private record Specs(long version, String baseUrl, String apiEndpoint, List<URI> targets, ClientPolicy policy,
+                         Balancer balancer, RequestSpecification admin, RequestSpecification user) {
+
+        Specs(SuiteConfig config) {
+            this(config.version(), config.baseUrl(), config.apiEndpoint(), config.targets(),
+                    ClientPolicy.configured(config), config.targets().size() > 1 ? Balancer.configured(config) : null);
+        }
+
+        Specs(long version, String baseUrl, String apiEndpoint, List<URI> targets, ClientPolicy policy,
+              Balancer balancer) {
+            this(version, baseUrl, apiEndpoint, targets, policy, balancer,
+                    RequestSpecs.build(baseUrl, apiEndpoint, Credentials.ADMIN, balancer, policy),
+                    RequestSpecs.build(baseUrl, apiEndpoint, Credentials.USER, balancer, policy));
+        }
+
+        boolean matches(SuiteConfig config) {
+            return baseUrl.equals(config.baseUrl()) && apiEndpoint.equals(config.apiEndpoint())
+                    && targets.equals(config.targets()) && policy.equals(ClientPolicy.configured(config));
+        }
+
+        RequestSpecification build(Credentials credentials) {
+            return RequestSpecs.build(baseUrl, apiEndpoint, credentials, balancer, policy);
+        }
+
+        Specs at(long version) {
+            return new Specs(version, baseUrl, apiEndpoint, targets, policy, balancer, admin, user);
+        }
+    }
+
+    private RequestSpecs() {
+    }
+
+    public static RequestSpecification admin() {
+        return specs().admin();
+    }
+
+    public static RequestSpecification user() {
+        return specs().user();
+    }
+
+    /**
+     * The shared specification for a configured role, or a fresh one for any other credentials.
+     */
+    public static RequestSpecification of(Credentials credentials) {
+        if (credentials == Credentials.ADMIN) {
+            return admin();
+        }
+        Specs current = specs();
+        return credentials == Credentials.USER ? current.user() : current.build(credentials);
+    }
+
+    /**
+     * Builds a fresh specification for arbitrary credentials, e.g. the invalid users in the 401 tests.
+     */
+    public static RequestSpecification withCredentials(String username, String password) {
+        return specs().build(Credentials.invalid(username, password));
+    }
+
+    /**
+     * The balancer behind the shared specifications, or {@code null} when there is a single target.
+     */
+    public static Balancer balancer() {
+        return specs().balancer();
+    }
+
+    private static Specs specs() {
+        Specs current = specs;
+        SuiteConfig config = SuiteConfig.current();
+        if (current.version() != config.version()) {
+            synchronized (RequestSpecs.class) {
+                current = specs;
+                if (current.version() != config.version()) {
+                    if (current.matches(config)) {
+                        current = current.at(config.version());
+                    } else {
+                        if (current.balancer() != null) {
+                            retire(current.balancer());
+                        }
+                        current = new Specs(config);
+                    }
+                    specs = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Closes a replaced balancer once it is idle. Threads that picked up the old specifications before the reload
+     * may still be inside its {@link Balancer#filter}; closing it under them would stop the health checks that
+     * bring an ejected target back while their requests still depend on it.
+     */
+    private static void retire(Balancer balancer) {
+        CompletableFuture.delayedExecutor(1, TimeUnit.SECONDS).execute(() -> {
+            if (balancer.targets().stream().allMatch(target -> target.outstanding() == 0)) {
+                balancer.close();
+            } else {
+                retire(balancer);
+            }
+        });
+    }
+
+    /**
+     * @param balancer spreads the requests over several targets, or {@code null} to send them all to {@code baseUrl}
+     */
+    static RequestSpecification build(String baseUrl, Credentials credentials, Balancer balancer) {
+        return build(baseUrl, credentials, balancer, ClientPolicy.configured(SuiteConfig.current()));
+    }
+
+    static RequestSpecification build(String baseUrl, Credentials credentials, Balancer balancer, ClientPolicy policy) {
+        return build(baseUrl, SuiteConfig.current().apiEndpoint(), credentials, balancer, policy);
+    }
+
+    private static RequestSpecification build(String baseUrl, String apiEndpoint, Credentials credentials,
+                                              Balancer balancer, ClientPolicy policy) {
+        RequestSpecBuilder builder = new RequestSpecBuilder()
+                .setConfig(config(policy))
+                .setBaseUri(baseUrl)
+                .setBasePath(apiEndpoint)
+                .addHeader(credentials.header().getName(), credentials.header().getValue());
+        if (balancer != null) {
+            builder.addFilter(balancer);
+        }
+        builder.addFilter(TimingFilter.INSTANCE)
+                .addFilter(RingBufferLogFilter.INSTANCE)
+                .addFilter(RecordingFilter.INSTANCE);
+        if (policy.maxAttempts() > 1) {
+            builder.addFilter(new RetryFilter(policy));
+        }
+        return builder.build();
+    }
+
+    @SuppressWarnings("deprecation")
+    private static RestAssuredConfig config(ClientPolicy policy) {
+        int connectTimeout = (int) policy.connectTimeout().toMillis();
+        int readTimeout = (int) policy.readTimeout().toMillis();
+        return RestAssuredConfig.config()
+                .httpClient(HttpClientConfig.httpClientConfig().httpClientFactory(() -> {
+                    DefaultHttpClient client = new DefaultHttpClient(SharedConnectionPool.INSTANCE);
+                    client.getParams().setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT,
+                            SharedConnectionPool.LEASE_TIMEOUT_MILLIS);
+                    client.getParams().setIntParameter(CoreConnectionPNames.CONNECTION_TIMEOUT, connectTimeout);
+                    client.getParams().setIntParameter(CoreConnectionPNames.SO_TIMEOUT, readTimeout);
+                    client.addRequestInterceptor(ExchangeCounter.INSTANCE);
+                    return client;
+                }));
+    }
+}
@@ -0,0 +1,116 @@
+import json.JsonWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends one JSON line per test result to a file, as each result completes.
+ * <p>
+ * Nothing is kept after a line is written, so memory stays flat however many data-driven invocations a run has.
+ * Lines go through a 64 KB buffer that a daemon thread flushes once a second, so a crashed JVM loses at most the
+ * last second of results, even when no result has completed since. Long parameter values and messages are cut at
+ * {@link #MAX_TEXT} characters; the captured exchanges are already bounded by {@link ExchangeRingBuffer}. Read the
+ * files back with {@link ResultSummary}.
+ */
+public final class ResultStream implements AutoCloseable {
+
+    static final int MAX_TEXT = 512;
+
+    private final Path file;
+    private final OutputStream out;
+    private final ScheduledExecutorService flusher;
+    private long lines;
+
+    public ResultStream(Path file) throws IOException {
+        this(file, Duration.ofSeconds(1));
+    }
+
+    ResultStream(Path file, Duration flushInterval) throws IOException {
+        this.file = file;
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        this.out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "result-stream-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toNanos(), flushInterval.toNanos(),
+                TimeUnit.NANOSECONDS);
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public synchronized long lines() {
+        return lines;
+    }
+
+    /**
+     * @param params    the data provider row rendered as text, empty for a plain test
+     * @param error     the failure or skip reason, or {@code null}
+     * @param exchanges the exchanges the test made, rendered, or {@code null}; kept for failures only
+     */
+    public void write(String className, String method, String params, String status, long startMillis,
+                      long durationMillis, String thread, String error, String exchanges) throws IOException {
+        JsonWriter json = new JsonWriter(256 + (exchanges == null ? 0 : exchanges.length()));
+        json.beginObject()
+                .name("class").value(className)
+                .name("method").value(method);
+        if (!params.isEmpty()) {
+            json.name("params").value(abbreviate(params));
+        }
+        json.name("status").value(status)
+                .name("start_ms").value(startMillis)
+                .name("duration_ms").value(durationMillis)
+                .name("thread").value(thread);
+        if (error != null) {
+            json.name("error").value(abbreviate(error));
+        }
+        if (exchanges != null) {
+            json.name("exchanges").value(exchanges);
+        }
+        json.endObject();
+        synchronized (this) {
+            json.writeTo(out);
+            out.write('\n');
+            lines++;
+        }
+    }
+
+    public synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            // the next tick or close() tries again; close() reports a failure that persists
+        }
+    }
+
+    /**
+     * Stops the background flush and closes the file, flushing what is buffered.
+     */
+    @Override
+    public void close() throws IOException {
+        flusher.shutdownNow();
+        synchronized (this) {
+            out.close();
+        }
+    }
+
+    static String abbreviate(String text) {
+        return text.length() <= MAX_TEXT ? text : text.substring(0, MAX_TEXT - 3) + "...";
+    }
+}
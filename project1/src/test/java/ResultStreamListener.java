@@ -0,0 +1,143 @@
+import org.testng.IResultMap;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Streams every test result to a {@link ResultStream} when the {@code results.stream.dir} system property is set,
+ * one file per JVM named {@code results-<pid>.ndjson}, so the files of several worker JVMs can sit side by side
+ * for {@link ResultSummary}. Failures carry the exchanges in the thread's {@link ExchangeRingBuffer}.
+ * <p>
+ * TestNG itself still holds on to every {@link ITestResult} for its end-of-suite reports. With
+ * {@code -Dresults.stream.prune=true} passed results are dropped from the test context once streamed, which keeps
+ * the heap flat on very large data-driven runs; failures and skips stay, so the build status and the failure
+ * reports are unchanged, but TestNG's own reports then list no passed tests. TestNG only registers a result after
+ * {@link #onTestSuccess} returns, so each success drops the passed results registered before it, and the end of
+ * each test context drops the last ones. Registered through
+ * {@code META-INF/services/org.testng.ITestNGListener}.
+ */
+public class ResultStreamListener implements ITestListener, ISuiteListener {
+
+    private final String directory;
+    private final boolean prune;
+    private volatile ResultStream stream;
+
+    public ResultStreamListener() {
+        this(System.getProperty("results.stream.dir"), Boolean.getBoolean("results.stream.prune"));
+    }
+
+    /**
+     * @param directory where the results file goes, or {@code null} to stream nothing
+     */
+    ResultStreamListener(String directory, boolean prune) {
+        this.directory = directory;
+        this.prune = prune;
+    }
+
+    @Override
+    public synchronized void onStart(ISuite suite) {
+        if (directory == null || directory.isBlank() || stream != null) {
+            return;
+        }
+        Path file = Path.of(directory, "results-" + ProcessHandle.current().pid() + ".ndjson");
+        try {
+            stream = new ResultStream(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to stream results to " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void onFinish(ISuite suite) {
+        if (stream == null) {
+            return;
+        }
+        try {
+            stream.close();
+            System.out.println("Streamed " + stream.lines() + " result(s) to " + stream.file());
+        } catch (IOException e) {
+            System.out.println("Unable to close " + stream.file() + ": " + e);
+        }
+        stream = null;
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        write(result, "PASS", false);
+        prune(result.getTestContext());
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        prune(context);
+    }
+
+    private void prune(ITestContext context) {
+        if (prune && stream != null) {
+            IResultMap passed = context.getPassedTests();
+            for (ITestResult result : passed.getAllResults()) {
+                passed.removeResult(result);
+            }
+        }
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        write(result, "FAIL", true);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        write(result, "SKIP", false);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        write(result, "PASS", true);
+    }
+
+    @Override
+    public void onTestFailedWithTimeout(ITestResult result) {
+        write(result, "FAIL", true);
+    }
+
+    private void write(ITestResult result, String status, boolean withExchanges) {
+        ResultStream target = stream;
+        if (target == null) {
+            return;
+        }
+        Throwable error = result.getThrowable();
+        ExchangeRingBuffer exchanges = ExchangeRingBuffer.current();
+        try {
+            target.write(result.getTestClass().getRealClass().getName(), result.getMethod().getMethodName(),
+                    params(result.getParameters()), status, result.getStartMillis(),
+                    result.getEndMillis() - result.getStartMillis(), Thread.currentThread().getName(),
+                    error == null ? null : error.getClass().getName() + ": " + error.getMessage(),
+                    withExchanges && exchanges.size() > 0 ? exchanges.render() : null);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to stream results to " + target.file(), e);
+        }
+    }
+
+    /**
+     * Renders each parameter cut to {@link ResultStream#MAX_TEXT}, so a multi-megabyte title is never copied whole.
+     */
+    private static String params(Object[] parameters) {
+        if (parameters.length == 0) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder("[");
+        for (int i = 0; i < parameters.length; i++) {
+            Object parameter = parameters[i];
+            String text = parameter instanceof Object[] array ? Arrays.deepToString(array) : String.valueOf(parameter);
+            out.append(i == 0 ? "" : ", ").append(ResultStream.abbreviate(text));
+        }
+        return out.append(']').toString();
+    }
+}
@@ -0,0 +1,166 @@
+import org.testng.IReporter;
+import org.testng.ISuite;
+import org.testng.ISuiteResult;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlSuite;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class ResultStreamTests {
+
+    @Test
+    public void testPruningDropsPassedResultsFromTheContext() throws IOException {
+        Path kept = Files.createTempDirectory("results");
+        Path pruned = Files.createTempDirectory("results");
+        try {
+            int keptPassed = passedAtEnd(new ResultStreamListener(kept.toString(), false));
+            int prunedPassed = passedAtEnd(new ResultStreamListener(pruned.toString(), true));
+
+            // Assertions
+            assertEquals(keptPassed, DataDrivenFixture.INVOCATIONS);
+            assertEquals(prunedPassed, 0, "Pruning should leave no passed result for TestNG to hold");
+            ResultSummary summary = ResultSummary.summarize(List.of(pruned));
+            assertEquals(summary.passed(), DataDrivenFixture.INVOCATIONS, "Pruned results should still be streamed");
+        } finally {
+            for (Path directory : List.of(kept, pruned)) {
+                try (Stream<Path> files = Files.list(directory)) {
+                    for (Path file : files.toList()) {
+                        Files.delete(file);
+                    }
+                }
+                Files.delete(directory);
+            }
+        }
+    }
+
+    /**
+     * Runs {@link DataDrivenFixture} with only {@code listener} registered and counts the passed results TestNG
+     * still holds when it writes its reports.
+     */
+    private static int passedAtEnd(ResultStreamListener listener) throws IOException {
+        AtomicInteger passed = new AtomicInteger();
+        TestNG testng = new TestNG();
+        testng.setUseDefaultListeners(false);
+        try (URLClassLoader noServices = new URLClassLoader(new URL[0], null)) {
+            // keeps the suite's own listeners from being loaded into this run
+            testng.setServiceLoaderClassLoader(noServices);
+            testng.setTestClasses(new Class<?>[]{DataDrivenFixture.class});
+            testng.addListener(listener);
+            testng.addListener(new IReporter() {
+                @Override
+                public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
+                    for (ISuiteResult result : suites.get(0).getResults().values()) {
+                        passed.addAndGet(result.getTestContext().getPassedTests().size());
+                    }
+                }
+            });
+            testng.run();
+        }
+        return passed.get();
+    }
+
+    @Test
+    public void testStreamedResultsAreSummarized() throws IOException {
+        Path directory = Files.createTempDirectory("results");
+        String longTitle = "t".repeat(10_000);
+        try (ResultStream stream = new ResultStream(directory.resolve("results-1.ndjson"))) {
+            stream.write("BookTests", "testCreate", "[" + longTitle + "]", "PASS", 1_000, 12, "main", null, null);
+            stream.write("BookTests", "testCreate", "[short \"quoted\"\ttitle]", "FAIL", 1_012, 40, "main",
+                    "java.lang.AssertionError: expected [201] but was [500]", "POST /api/books -> 500");
+            stream.write("BookTests", "testDelete", "", "SKIP", 1_052, 0, "main", "depends on testCreate", null);
+        }
+        Path second = directory.resolve("results-2.ndjson");
+        try (ResultStream stream = new ResultStream(second)) {
+            stream.write("AuthTests", "testLogin", "", "PASS", 1_000, 300, "worker-1", null, null);
+        }
+        Files.writeString(second, "{\"class\":\"AuthTests\",\"method\":\"testLo", StandardOpenOption.APPEND);
+
+        ResultSummary summary = ResultSummary.summarize(List.of(directory));
+
+        // Assertions
+        assertEquals(summary.files(), 2);
+        assertEquals(summary.total(), 4);
+        assertEquals(summary.passed(), 2);
+        assertEquals(summary.failed(), 1);
+        assertEquals(summary.skipped(), 1);
+        assertEquals(summary.malformed(), 1, "A line cut off by a killed JVM should be counted, not fatal");
+        assertEquals(summary.methods().keySet(), Set.of("AuthTests.testLogin", "BookTests.testCreate",
+                "BookTests.testDelete"));
+        assertEquals(summary.methods().get("BookTests.testCreate").invocations(), 2);
+        assertEquals(summary.methods().get("BookTests.testCreate").totalMillis(), 52);
+        assertEquals(summary.slowest().get(0).method(), "testLogin");
+        assertEquals(summary.slowest().get(1).durationMillis(), 40);
+        assertNull(summary.slowest().get(1).exchanges(), "Only failures should keep their exchanges");
+
+        ResultSummary.Invocation failure = summary.failures().get(0);
+        assertEquals(failure.params(), "[short \"quoted\"\ttitle]");
+        assertEquals(failure.exchanges(), "POST /api/books -> 500");
+        assertTrue(failure.error().contains("but was [500]"));
+        String firstLine = Files.readAllLines(directory.resolve("results-1.ndjson"), StandardCharsets.UTF_8).get(0);
+        assertTrue(firstLine.length() < ResultStream.MAX_TEXT + 200, "Long parameters should be abbreviated");
+        assertTrue(summary.toString().contains("passed 2, failed 1, skipped 1"), summary.toString());
+    }
+
+    @Test
+    public void testBufferedLinesAreFlushedWithoutFurtherWrites() throws IOException, InterruptedException {
+        Path file = Files.createTempFile("results", ".ndjson");
+        try (ResultStream stream = new ResultStream(file, Duration.ofMillis(50))) {
+            stream.write("BookTests", "testCreate", "", "PASS", 1_000, 12, "main", null, null);
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (Files.size(file) == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            // Assertions
+            assertTrue(Files.size(file) > 0, "The line should reach the file while the stream is still open");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testSummaryStaysBoundedForManyInvocations() throws IOException {
+        Path file = Files.createTempFile("results", ".ndjson");
+        try {
+            try (ResultStream stream = new ResultStream(file)) {
+                for (int i = 0; i < 100_000; i++) {
+                    boolean failed = i % 10 == 0;
+                    stream.write("BookTests", "testCreate", "[title " + i + "]", failed ? "FAIL" : "PASS", i,
+                            i % 997, "main", failed ? "failure " + i : null, failed ? "exchange " + i : null);
+                }
+                assertEquals(stream.lines(), 100_000);
+            }
+
+            ResultSummary summary = ResultSummary.summarize(List.of(file));
+
+            // Assertions
+            assertEquals(summary.total(), 100_000);
+            assertEquals(summary.failed(), 10_000);
+            assertEquals(summary.methods().size(), 1);
+            assertEquals(summary.slowest().size(), 10);
+            assertEquals(summary.slowest().get(0).durationMillis(), 996);
+            assertEquals(summary.failures().size(), 20);
+            assertEquals(summary.failures().get(0).error(), "failure 0", "Failures should be kept in file order");
+            assertEquals(summary.durations().count(), 100_000);
+            assertEquals(summary.methods().get("BookTests.testCreate").maxMillis(), 996);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
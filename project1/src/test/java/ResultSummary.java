@@ -0,0 +1,294 @@
+import json.JsonPullParser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Aggregates the files written by {@link ResultStream} after a run, reading them one line at a time.
+ * <p>
+ * Memory depends on the number of distinct test methods, not on the number of invocations: per method only the
+ * counts and total duration are kept, plus one duration histogram overall, the {@code slowest} invocations in a
+ * bounded heap and the first {@code failures} failures. Directories are searched for {@code *.ndjson} files, so
+ * the worker files of a distributed run can be summarized together:
+ * <pre>
+ * java -cp target/test-classes:... ResultSummary target/distributed-reports/results
+ * </pre>
+ */
+public final class ResultSummary {
+
+    public record Invocation(String className, String method, String params, String status, long durationMillis,
+                             String thread, String error, String exchanges) {
+
+        public String name() {
+            return className + "." + method + (params == null ? "" : params);
+        }
+    }
+
+    public static final class MethodStats {
+        private long passed;
+        private long failed;
+        private long skipped;
+        private long totalMillis;
+        private long maxMillis;
+
+        public long passed() {
+            return passed;
+        }
+
+        public long failed() {
+            return failed;
+        }
+
+        public long skipped() {
+            return skipped;
+        }
+
+        public long invocations() {
+            return passed + failed + skipped;
+        }
+
+        public long totalMillis() {
+            return totalMillis;
+        }
+
+        public long maxMillis() {
+            return maxMillis;
+        }
+    }
+
+    private final int slowestLimit;
+    private final int failureLimit;
+    private final Map<String, MethodStats> methods = new TreeMap<>();
+    private final LatencyHistogram durations = new LatencyHistogram();
+    private final PriorityQueue<Invocation> slowest = new PriorityQueue<>(Comparator.comparingLong(Invocation::durationMillis));
+    private final List<Invocation> failures = new ArrayList<>();
+    private long passed;
+    private long failed;
+    private long skipped;
+    private long malformed;
+    private int files;
+
+    public ResultSummary(int slowest, int failures) {
+        this.slowestLimit = slowest;
+        this.failureLimit = failures;
+    }
+
+    /**
+     * Summarizes the given files and every {@code *.ndjson} file in the given directories, keeping the 10 slowest
+     * invocations and the first 20 failures.
+     */
+    public static ResultSummary summarize(List<Path> paths) throws IOException {
+        ResultSummary summary = new ResultSummary(10, 20);
+        for (Path path : paths) {
+            if (Files.isDirectory(path)) {
+                List<Path> found;
+                try (Stream<Path> listing = Files.list(path)) {
+                    found = listing.filter(p -> p.getFileName().toString().endsWith(".ndjson")).sorted().toList();
+                }
+                for (Path file : found) {
+                    summary.read(file);
+                }
+            } else {
+                summary.read(path);
+            }
+        }
+        return summary;
+    }
+
+    public void read(Path file) throws IOException {
+        files++;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Invocation invocation;
+                try {
+                    invocation = parse(line);
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    // typically the last line of a file whose JVM was killed mid-write
+                    malformed++;
+                    continue;
+                }
+                add(invocation);
+            }
+        }
+    }
+
+    public void add(Invocation invocation) {
+        MethodStats stats = methods.computeIfAbsent(invocation.className() + "." + invocation.method(), k -> new MethodStats());
+        switch (invocation.status()) {
+            case "PASS" -> {
+                passed++;
+                stats.passed++;
+            }
+            case "FAIL" -> {
+                failed++;
+                stats.failed++;
+                if (failures.size() < failureLimit) {
+                    failures.add(invocation);
+                }
+            }
+            default -> {
+                skipped++;
+                stats.skipped++;
+            }
+        }
+        stats.totalMillis += invocation.durationMillis();
+        stats.maxMillis = Math.max(stats.maxMillis, invocation.durationMillis());
+        durations.record(invocation.durationMillis() * 1_000_000);
+        if (slowestLimit > 0 && !"SKIP".equals(invocation.status())) {
+            if (slowest.size() < slowestLimit) {
+                slowest.add(strip(invocation));
+            } else if (slowest.peek().durationMillis() < invocation.durationMillis()) {
+                slowest.poll();
+                slowest.add(strip(invocation));
+            }
+        }
+    }
+
+    private static Invocation strip(Invocation invocation) {
+        return invocation.exchanges() == null ? invocation : new Invocation(invocation.className(),
+                invocation.method(), invocation.params(), invocation.status(), invocation.durationMillis(),
+                invocation.thread(), invocation.error(), null);
+    }
+
+    static Invocation parse(String line) {
+        JsonPullParser parser = new JsonPullParser(new ByteArrayInputStream(line.getBytes(StandardCharsets.UTF_8)),
+                Math.min(8192, line.length() + 16));
+        if (parser.next() != JsonPullParser.Token.BEGIN_OBJECT) {
+            throw new IllegalArgumentException("Not a result line: " + ResultStream.abbreviate(line));
+        }
+        String className = null;
+        String method = null;
+        String params = null;
+        String status = null;
+        long duration = 0;
+        String thread = null;
+        String error = null;
+        String exchanges = null;
+        while (parser.next() == JsonPullParser.Token.NAME) {
+            String name = parser.name();
+            if (parser.next() == JsonPullParser.Token.NULL) {
+                continue;
+            }
+            switch (name) {
+                case "class" -> className = parser.stringValue();
+                case "method" -> method = parser.stringValue();
+                case "params" -> params = parser.stringValue();
+                case "status" -> status = parser.stringValue();
+                case "duration_ms" -> duration = parser.longValue();
+                case "thread" -> thread = parser.stringValue();
+                case "error" -> error = parser.stringValue();
+                case "exchanges" -> exchanges = parser.stringValue();
+                default -> parser.skipValue();
+            }
+        }
+        if (parser.token() != JsonPullParser.Token.END_OBJECT || parser.next() != JsonPullParser.Token.END_DOCUMENT) {
+            throw new IllegalArgumentException("Trailing content after a result line");
+        }
+        if (className == null || method == null || status == null) {
+            throw new IllegalArgumentException("Missing class, method or status");
+        }
+        return new Invocation(className, method, params, status, duration, thread, error, exchanges);
+    }
+
+    public long passed() {
+        return passed;
+    }
+
+    public long failed() {
+        return failed;
+    }
+
+    public long skipped() {
+        return skipped;
+    }
+
+    public long total() {
+        return passed + failed + skipped;
+    }
+
+    /**
+     * Lines that could not be parsed and were left out of every count.
+     */
+    public long malformed() {
+        return malformed;
+    }
+
+    public int files() {
+        return files;
+    }
+
+    public Map<String, MethodStats> methods() {
+        return methods;
+    }
+
+    public LatencyHistogram durations() {
+        return durations;
+    }
+
+    /**
+     * The slowest invocations, slowest first, without their exchanges.
+     */
+    public List<Invocation> slowest() {
+        List<Invocation> sorted = new ArrayList<>(slowest);
+        sorted.sort(Comparator.comparingLong(Invocation::durationMillis).reversed());
+        return sorted;
+    }
+
+    /**
+     * The first failures in file order, with their exchanges.
+     */
+    public List<Invocation> failures() {
+        return failures;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%d result(s) from %d file(s): passed %d, failed %d, skipped %d%s%n", total(), files,
+                passed, failed, skipped, malformed == 0 ? "" : ", malformed lines " + malformed));
+        out.append(String.format("duration ms: p50 %.0f, p90 %.0f, p99 %.0f, max %.0f%n",
+                LoadReport.millis(durations.percentile(50)), LoadReport.millis(durations.percentile(90)),
+                LoadReport.millis(durations.percentile(99)), LoadReport.millis(durations.max())));
+        out.append(String.format("%n%-70s %8s %6s %6s %10s %8s%n", "method", "runs", "failed", "skip", "total ms", "max ms"));
+        methods.forEach((name, stats) -> out.append(String.format("%-70s %8d %6d %6d %10d %8d%n", name,
+                stats.invocations(), stats.failed, stats.skipped, stats.totalMillis, stats.maxMillis)));
+        if (!slowest.isEmpty()) {
+            out.append(String.format("%nslowest:%n"));
+            for (Invocation invocation : slowest()) {
+                out.append(String.format("%8d ms  %s%n", invocation.durationMillis(), invocation.name()));
+            }
+        }
+        if (!failures.isEmpty()) {
+            out.append(String.format("%nfailures%s:%n", failed > failures.size() ? " (first " + failures.size() + ")" : ""));
+            for (Invocation invocation : failures) {
+                out.append(String.format("  %s%n    %s%n", invocation.name(), invocation.error()));
+            }
+        }
+        return out.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ResultSummary <file-or-directory>...");
+            System.exit(2);
+        }
+        ResultSummary summary = summarize(Stream.of(args).map(Path::of).toList());
+        System.out.print(summary);
+        System.exit(summary.failed() > 0 ? 1 : 0);
+    }
+}
@@ -0,0 +1,81 @@
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.internal.filter.SendRequestFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries a call that failed without a complete response, or with a 502, 503 or 504, up to the attempts of its
+ * {@link ClientPolicy}, sleeping a jittered exponential backoff in between. Must be the last filter of a
+ * specification: RestAssured walks its filter chain only once, so each retry goes straight to the
+ * {@link SendRequestFilter} that ends the chain. The filters before this one see a single call lasting as long as
+ * all its attempts, which is the latency a caller gets.
+ * <p>
+ * {@link SendRequestFilter} is internal to RestAssured, not part of its API, so a RestAssured upgrade may move or
+ * change it without notice; {@code FaultInjectionTests.testRetryResendsThroughTheEndOfTheChain} checks that a
+ * retry still reaches the server.
+ * <p>
+ * The body is read within each attempt, so that a response cut off halfway is retried like any other failure
+ * rather than failing later in the test. Every retry is counted in {@link SuiteMetrics}.
+ */
+public final class RetryFilter implements Filter {
+
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(502, 503, 504);
+    private static final Filter SEND = new SendRequestFilter();
+
+    private final ClientPolicy policy;
+
+    RetryFilter(ClientPolicy policy) {
+        this.policy = policy;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        if (!policy.retries(requestSpec.getMethod())) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        for (int attempt = 1; ; attempt++) {
+            boolean last = attempt == policy.maxAttempts();
+            try {
+                Response response = attempt == 1 ? ctx.next(requestSpec, responseSpec)
+                        : SEND.filter(requestSpec, responseSpec, ctx);
+                response.asByteArray();
+                if (last || !RETRYABLE_STATUSES.contains(response.getStatusCode())) {
+                    return response;
+                }
+            } catch (Throwable e) {
+                // RestAssured rethrows checked I/O exceptions undeclared, often wrapped
+                if (last || !transportFailure(e)) {
+                    throw e;
+                }
+            }
+            SuiteMetrics.INSTANCE.retried();
+            sleep(policy.backoff(attempt, ThreadLocalRandom.current()));
+        }
+    }
+
+    private static boolean transportFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void sleep(Duration backoff) {
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted between retries", e);
+        }
+    }
+}
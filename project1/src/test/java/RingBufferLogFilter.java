@@ -0,0 +1,31 @@
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Records every exchange into the calling thread's {@link ExchangeRingBuffer} instead of logging it.
+ * {@link FailureLogListener} prints the buffer only when a test fails.
+ */
+public final class RingBufferLogFilter implements Filter {
+
+    static final RingBufferLogFilter INSTANCE = new RingBufferLogFilter();
+
+    private RingBufferLogFilter() {
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long start = System.nanoTime();
+        Response response = ctx.next(requestSpec, responseSpec);
+        // Reading the bytes releases the pooled connection even if the test never looks at the body; decoding
+        // them is left to the test, or to the failure report
+        response.asByteArray();
+        ExchangeRingBuffer.current().record(requestSpec.getMethod(), requestSpec.getURI(), requestSpec.getHeaders(),
+                requestSpec.getBody(), response.getStatusLine(), response.getHeaders(), response.getBody(),
+                System.nanoTime() - start);
+        return response;
+    }
+}
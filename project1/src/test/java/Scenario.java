@@ -0,0 +1,67 @@
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * One unit of books API traffic: a short sequence of POSTs with the outcome each one must produce, sent with the
+ * given role's credentials.
+ * <p>
+ * {@code steps} is asked for fresh bodies on every iteration so repeated runs do not trip the duplicate checks
+ * unless the scenario means to. {@code weight} is the scenario's relative share in a {@link Workload}. Scenarios can
+ * run through RestAssured ({@link #execute()}) or {@link AsyncBooksClient}; both apply {@link Step#check}.
+ */
+public record Scenario(String name, int weight, Credentials credentials, Supplier<List<Step>> steps) {
+
+    /**
+     * @param expectedBodyFragment text the response body must contain, or {@code null} for no body check
+     */
+    public record Step(String body, int expectedStatus, String expectedBodyFragment) {
+
+        public Step(String body, int expectedStatus) {
+            this(body, expectedStatus, null);
+        }
+
+        /**
+         * The assertions the test classes make: the status code, a JSON content type on success, and the
+         * expected body content.
+         *
+         * @return {@code null} if the response passes, otherwise what was wrong with it
+         */
+        public String check(int status, String contentType, String responseBody) {
+            if (status != expectedStatus) {
+                return "expected status " + expectedStatus + " but was " + status;
+            }
+            if (status < 300 && (contentType == null || !contentType.startsWith("application/json"))) {
+                return "expected a JSON content type but was " + contentType;
+            }
+            if (expectedBodyFragment != null && (responseBody == null || !responseBody.contains(expectedBodyFragment))) {
+                return "response body should contain " + expectedBodyFragment + " but was " + responseBody;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Sends one iteration of the scenario through RestAssured.
+     *
+     * @return {@code null} when every step passed {@link Step#check}, otherwise a description of the first failure
+     */
+    public String execute() {
+        for (Step step : steps.get()) {
+            Response response = given(RequestSpecs.of(credentials))
+                    .contentType(ContentType.JSON)
+                    .body(step.body())
+                    .post();
+            String error = step.check(response.getStatusCode(), response.getContentType(),
+                    step.expectedBodyFragment() == null ? null : response.getBody().asString());
+            if (error != null) {
+                return name + ": " + error;
+            }
+        }
+        return null;
+    }
+}
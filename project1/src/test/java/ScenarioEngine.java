@@ -0,0 +1,276 @@
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import json.JsonTemplate;
+import json.JsonWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Compiles a declarative file of book test cases into immutable {@link Case}s that can be run from any thread.
+ * <p>
+ * The file is a JSON object with a {@code cases} array. Each case has a {@code name}, who sends it and either one
+ * {@code body}/{@code status} pair or a {@code steps} array of them:
+ * <pre>
+ * {"name": "duplicate data", "roles": ["admin", "user"], "steps": [
+ *     {"body": {"title": "Chattahoochee #${tag}", "author": "Allin Cannicott"}, "status": 201},
+ *     {"body": {"title": "Chattahoochee #${tag}", "author": "Allin Cannicott"}, "status": 208}]}
+ * </pre>
+ * <ul>
+ *     <li>{@code role} ({@code admin} or {@code user}), {@code roles} to run the case once per role, or
+ *     {@code credentials} ({@code username}/{@code password}) for anyone else. Each role becomes its own case,
+ *     named {@code "<name> [<role>]"}.</li>
+ *     <li>{@code body} is a JSON value sent as is, or a string for bodies that are not valid JSON.</li>
+ *     <li>Holes: {@code ${tag}} and {@code ${id}} draw a fresh {@link TestData#tag()} / {@link TestData#id()} once
+ *     per run, shared by all steps of that run. A string that is exactly {@code "${id}"} is sent as a number.
+ *     {@code ${text:N}} is replaced at compile time by N characters of filler text.</li>
+ *     <li>{@code contains} is text the response must contain; {@code ${body}} stands for the request body.</li>
+ *     <li>{@code "book": true} validates the response against {@link JsonSchema#book()} and checks that it echoes
+ *     the string, number and boolean fields of the request body, which must then be an object.</li>
+ * </ul>
+ * Compiling does all the parsing, serialization and spec lookup up front; a run only fills holes into the
+ * pre-encoded body and checks the response with {@link Scenario.Step#check}.
+ */
+public final class ScenarioEngine {
+
+    private static final String FILLER = "In a quaint village nestled between rolling hills, the townspeople gather "
+            + "at the local market every Saturday morning. ";
+
+    private static final ThreadLocal<JsonWriter> WRITERS = ThreadLocal.withInitial(JsonWriter::new);
+
+    private ScenarioEngine() {
+    }
+
+    /**
+     * One compiled case. Immutable; {@link #run()} may be called concurrently.
+     */
+    public record Case(String name, Credentials credentials, List<CaseStep> steps) {
+
+        /**
+         * Sends every step in order.
+         *
+         * @return {@code null} when all steps passed, otherwise a description of the first failure
+         */
+        public String run() {
+            RequestSpecification spec = RequestSpecs.of(credentials);
+            String id = String.valueOf(TestData.id());
+            String tag = TestData.tag();
+            for (int i = 0; i < steps.size(); i++) {
+                CaseStep step = steps.get(i);
+                byte[] body = step.render(id, tag);
+                Response response = given(spec)
+                        .contentType(ContentType.JSON)
+                        .body(body)
+                        .post();
+                String fragment = step.containsBody() ? new String(body, StandardCharsets.UTF_8) : step.contains();
+                String error = new Scenario.Step(null, step.status(), fragment).check(response.getStatusCode(),
+                        response.getContentType(), fragment == null ? null : response.getBody().asString());
+                if (error == null && step.book() != null) {
+                    String bookError = JsonSchema.book().validate(response.getBody().asInputStream(),
+                            step.book(id, tag));
+                    error = bookError == null ? null : "response body should be the created book: " + bookError;
+                }
+                if (error != null) {
+                    return "step " + (i + 1) + ": " + error;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * @param holes for each hole in {@code body}, whether it takes the run's id ({@code true}) or tag
+     * @param book  the fields of the request body the created book must echo, with their holes still in, or
+     *              {@code null} for no book check
+     */
+    public record CaseStep(JsonTemplate body, boolean[] holes, int status, String contains, boolean containsBody,
+                           Map<String, Object> book) {
+
+        byte[] render(String id, String tag) {
+            String[] values = new String[holes.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = holes[i] ? id : tag;
+            }
+            return body.render(WRITERS.get(), values);
+        }
+
+        Map<String, Object> book(String id, String tag) {
+            Map<String, Object> expected = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> field : book.entrySet()) {
+                Object value = field.getValue();
+                expected.put(field.getKey(), "${id}".equals(value) ? Long.valueOf(id)
+                        : value instanceof String text ? text.replace("${tag}", tag) : value);
+            }
+            return expected;
+        }
+    }
+
+    /**
+     * Loads and compiles a scenario file from the test classpath.
+     *
+     * @throws IllegalArgumentException if the file is missing or malformed, naming the offending case
+     */
+    public static List<Case> load(String resource) {
+        try (InputStream in = ScenarioEngine.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No scenario file " + resource + " on the classpath");
+            }
+            return compile(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read " + resource, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static List<Case> compile(String text) {
+        if (!(BookJson.parse(text) instanceof Map<?, ?> file) || !(file.get("cases") instanceof List<?> cases)) {
+            throw new IllegalArgumentException("Expected an object with a \"cases\" array");
+        }
+        List<Case> compiled = new ArrayList<>();
+        for (int index = 0; index < cases.size(); index++) {
+            if (!(cases.get(index) instanceof Map<?, ?> entry)) {
+                throw new IllegalArgumentException("Case " + (index + 1) + " is not an object");
+            }
+            Map<String, Object> definition = (Map<String, Object>) entry;
+            String name = String.valueOf(definition.get("name"));
+            try {
+                List<CaseStep> steps = compileSteps(definition);
+                for (Credentials credentials : credentials(definition)) {
+                    compiled.add(new Case(name + " [" + credentials.role() + "]", credentials, steps));
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid case \"" + name + "\": " + e.getMessage(), e);
+            }
+        }
+        return List.copyOf(compiled);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Credentials> credentials(Map<String, Object> definition) {
+        if (definition.get("credentials") instanceof Map<?, ?> credentials) {
+            return List.of(Credentials.invalid((String) credentials.get("username"), (String) credentials.get("password")));
+        }
+        List<Object> roles = definition.containsKey("roles")
+                ? (List<Object>) definition.get("roles") : List.of(definition.getOrDefault("role", "user"));
+        List<Credentials> result = new ArrayList<>();
+        for (Object role : roles) {
+            result.add(switch (String.valueOf(role)) {
+                case "admin" -> Credentials.ADMIN;
+                case "user" -> Credentials.USER;
+                default -> throw new IllegalArgumentException("Unknown role " + role);
+            });
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<CaseStep> compileSteps(Map<String, Object> definition) {
+        Object steps = definition.containsKey("steps") ? definition.get("steps") : List.of(definition);
+        if (!(steps instanceof List<?> list)) {
+            throw new IllegalArgumentException("\"steps\" must be an array");
+        }
+        List<CaseStep> compiled = new ArrayList<>();
+        for (Object step : list) {
+            if (!(step instanceof Map<?, ?>)) {
+                throw new IllegalArgumentException("Every step must be an object");
+            }
+            Map<String, Object> fields = (Map<String, Object>) step;
+            if (!(fields.get("status") instanceof Long status)) {
+                throw new IllegalArgumentException("Every step needs an integer \"status\"");
+            }
+            Object body = fields.get("body");
+            String template = expandFiller(body instanceof String raw ? raw : serialize(body));
+            JsonTemplate compiledBody = JsonTemplate.compile(template);
+            boolean[] holes = new boolean[compiledBody.holes().size()];
+            for (int i = 0; i < holes.length; i++) {
+                String hole = compiledBody.holes().get(i);
+                if (!hole.equals("id") && !hole.equals("tag")) {
+                    throw new IllegalArgumentException("Unknown hole ${" + hole + "}");
+                }
+                holes[i] = hole.equals("id");
+            }
+            String contains = (String) fields.get("contains");
+            boolean containsBody = "${body}".equals(contains);
+            Map<String, Object> book = Boolean.TRUE.equals(fields.get("book")) ? book(body) : null;
+            compiled.add(new CaseStep(compiledBody, holes, status.intValue(), containsBody ? null : contains,
+                    containsBody, book));
+        }
+        return List.copyOf(compiled);
+    }
+
+    private static Map<String, Object> book(Object body) {
+        if (!(body instanceof Map<?, ?> object)) {
+            throw new IllegalArgumentException("\"book\" needs an object body");
+        }
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> field : object.entrySet()) {
+            if (field.getValue() instanceof String text) {
+                fields.put((String) field.getKey(), expandFiller(text));
+            } else if (field.getValue() instanceof Long || field.getValue() instanceof Boolean) {
+                fields.put((String) field.getKey(), field.getValue());
+            }
+        }
+        return Map.copyOf(fields);
+    }
+
+    private static String serialize(Object value) {
+        JsonWriter writer = WRITERS.get().reset();
+        serialize(value, writer);
+        return new String(writer.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static void serialize(Object value, JsonWriter out) {
+        if (value instanceof Map<?, ?> object) {
+            out.beginObject();
+            for (Map.Entry<?, ?> field : object.entrySet()) {
+                serialize(field.getValue(), out.name((String) field.getKey()));
+            }
+            out.endObject();
+        } else if (value instanceof List<?> array) {
+            out.beginArray();
+            for (Object element : array) {
+                serialize(element, out);
+            }
+            out.endArray();
+        } else if ("${id}".equals(value) || value instanceof Number) {
+            out.rawValue(value.toString());
+        } else if (value instanceof Boolean flag) {
+            out.value(flag);
+        } else {
+            out.value((String) value);
+        }
+    }
+
+    private static String expandFiller(String template) {
+        int open;
+        while ((open = template.indexOf("${text:")) >= 0) {
+            int close = template.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unterminated ${text: at offset " + open);
+            }
+            int length;
+            try {
+                length = Integer.parseInt(template.substring(open + 7, close));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid filler length in " + template.substring(open, close + 1));
+            }
+            template = template.substring(0, open) + FILLER.repeat(length / FILLER.length() + 1).substring(0, length)
+                    + template.substring(close + 1);
+        }
+        return template;
+    }
+}
@@ -0,0 +1,87 @@
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class ScenarioFileTests {
+
+    private static final List<ScenarioEngine.Case> BOOKS = ScenarioEngine.load("scenarios/books.json");
+
+    @DataProvider(name = "books", parallel = true)
+    public static Object[][] books() {
+        return BOOKS.stream().map(c -> new Object[]{c}).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "books")
+    public void testCase(ScenarioEngine.Case c) {
+        String error = c.run();
+
+        // Assertions
+        assertNull(error, c.name() + " failed: " + error);
+    }
+
+    @Test
+    public void testCompile() {
+        List<ScenarioEngine.Case> cases = ScenarioEngine.compile("{\"cases\":[{\"name\":\"both\",\"roles\":[\"admin\",\"user\"],"
+                + "\"body\":{\"id\":\"${id}\",\"title\":\"T #${tag}\",\"author\":\"${text:3}\"},\"status\":201}]}");
+
+        // Assertions
+        assertEquals(cases.size(), 2, "Expected one case per role");
+        assertEquals(cases.get(0).name(), "both [admin]");
+        assertEquals(cases.get(1).credentials(), Credentials.USER);
+        String body = new String(cases.get(0).steps().get(0).render("42", "x1"));
+        assertEquals(body, "{\"id\":42,\"title\":\"T #x1\",\"author\":\"In \"}");
+    }
+
+    @Test
+    public void testCompileExpectsTheBookToEchoTheBody() {
+        List<ScenarioEngine.Case> cases = ScenarioEngine.compile("{\"cases\":[{\"name\":\"echo\",\"book\":true,"
+                + "\"body\":{\"id\":\"${id}\",\"title\":\"T #${tag}\",\"tags\":[\"x\"]},\"status\":201}]}");
+        IllegalArgumentException notAnObject = expectThrows(IllegalArgumentException.class,
+                () -> ScenarioEngine.compile("{\"cases\":[{\"name\":\"raw\",\"book\":true,\"body\":\"{\","
+                        + "\"status\":201}]}"));
+
+        // Assertions
+        assertEquals(cases.get(0).steps().get(0).book("42", "x1"), Map.of("id", 42L, "title", "T #x1"));
+        assertTrue(notAnObject.getMessage().contains("raw"), notAnObject.getMessage());
+    }
+
+    @Test
+    public void testCompileRejectsUnknownHoles() {
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> ScenarioEngine.compile(
+                "{\"cases\":[{\"name\":\"typo\",\"body\":{\"title\":\"${tga}\"},\"status\":201}]}"));
+
+        // Assertions
+        assertTrue(e.getMessage().contains("typo") && e.getMessage().contains("${tga}"), e.getMessage());
+    }
+
+    @Test
+    public void testCompileNamesTheCaseOfAParseError() {
+        IllegalArgumentException unterminated = expectThrows(IllegalArgumentException.class, () -> ScenarioEngine.compile(
+                "{\"cases\":[{\"name\":\"long title\",\"body\":{\"title\":\"${text:230\"},\"status\":400}]}"));
+        IllegalArgumentException notAnObject = expectThrows(IllegalArgumentException.class,
+                () -> ScenarioEngine.compile("{\"cases\":[{\"name\":\"ok\",\"status\":400},\"oops\"]}"));
+
+        // Assertions
+        assertTrue(unterminated.getMessage().contains("long title") && unterminated.getMessage().contains("${text:"),
+                unterminated.getMessage());
+        assertEquals(notAnObject.getMessage(), "Case 2 is not an object");
+    }
+}
+
+//Bugs Founded
+//create book with optional id: When you provide an ID number for optional attribute, system not take that as an
+//                               input. System automatically increasingly adding the ID number. Whether it provided
+//                               or not.
+//create book with empty mandatory parameters: Even you haven't provide mandatory parameters, system return
+//                                             success codes. Even they are null system get it as a input.
+//create book with non-integer id: When you provide invalid id which non integer, string still the system accept
+//                                 the request without giving error, and create the book with auto generated id number.
+//create book with invalid mandatory parameters: Even you provide integers for mandatory parameters, system return
+//                                               success codes.
@@ -0,0 +1,159 @@
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Suite-wide keep-alive connection pool behind every client built from {@link RequestSpecs}.
+ * <p>
+ * RestAssured creates a new {@code HttpClient} per request, which by default means a new TCP connection per
+ * request and a {@code TIME_WAIT} socket left behind by each one. Handing all of those clients this manager lets
+ * them reuse pooled connections instead. Sizing and eviction come from system properties:
+ * <ul>
+ *     <li>{@code http.pool.maxPerRoute} (default 64) and {@code http.pool.maxTotal} (default 200); open-loop runs with
+ *     many requests outstanding need at least that many connections, or the lease wait shows up as latency</li>
+ *     <li>{@code http.pool.idleSeconds} (default 30): idle connections older than this are closed by a daemon
+ *     thread, which also drops connections the server has closed</li>
+ *     <li>{@code http.pool.leaseTimeoutMillis} (default 10000): how long a caller waits for a free connection</li>
+ * </ul>
+ * Every lease is recorded: whether it got an already open connection, and how long it waited for it.
+ */
+@SuppressWarnings("deprecation")
+public final class SharedConnectionPool implements ClientConnectionManager {
+
+    static final SharedConnectionPool INSTANCE = new SharedConnectionPool(
+            Integer.getInteger("http.pool.maxPerRoute", 64),
+            Integer.getInteger("http.pool.maxTotal", 200),
+            Long.getLong("http.pool.idleSeconds", 30));
+
+    static final long LEASE_TIMEOUT_MILLIS = Long.getLong("http.pool.leaseTimeoutMillis", 10_000);
+
+    private static final ThreadLocal<long[]> OPENED_PER_THREAD = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final PoolingClientConnectionManager delegate;
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LatencyHistogram leaseWait = new LatencyHistogram();
+
+    private SharedConnectionPool(int maxPerRoute, int maxTotal, long idleSeconds) {
+        delegate = new PoolingClientConnectionManager(SchemeRegistryFactory.createDefault());
+        delegate.setDefaultMaxPerRoute(maxPerRoute);
+        delegate.setMaxTotal(maxTotal);
+
+        ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, idleSeconds / 2);
+        evictor.scheduleWithFixedDelay(() -> {
+            delegate.closeExpiredConnections();
+            delegate.closeIdleConnections(idleSeconds, TimeUnit.SECONDS);
+        }, period, period, TimeUnit.SECONDS);
+    }
+
+    public long leases() {
+        return leases.sum();
+    }
+
+    /**
+     * Leases that got a connection which was already open, i.e. skipped the TCP handshake.
+     */
+    public long reused() {
+        return reused.sum();
+    }
+
+    public long opened() {
+        return leases() - reused();
+    }
+
+    /**
+     * Time callers spent waiting for a connection, in nanoseconds.
+     */
+    public LatencyHistogram leaseWait() {
+        return leaseWait;
+    }
+
+    /**
+     * Connections the calling thread had to open since its last {@link #resetCurrentThread()}.
+     */
+    public static long openedByCurrentThread() {
+        return OPENED_PER_THREAD.get()[0];
+    }
+
+    public static void resetCurrentThread() {
+        OPENED_PER_THREAD.get()[0] = 0;
+    }
+
+    @Override
+    public String toString() {
+        long leases = leases();
+        return String.format("%d leases, %d reused (%.1f%%), %d opened; lease wait p50 %.3f ms, p99 %.3f ms, max %.3f ms; %s",
+                leases, reused(), leases == 0 ? 0.0 : 100.0 * reused() / leases, opened(),
+                LoadReport.millis(leaseWait.percentile(50)), LoadReport.millis(leaseWait.percentile(99)),
+                LoadReport.millis(leaseWait.max()), delegate.getTotalStats());
+    }
+
+    @Override
+    public SchemeRegistry getSchemeRegistry() {
+        return delegate.getSchemeRegistry();
+    }
+
+    @Override
+    public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+        ClientConnectionRequest request = delegate.requestConnection(route, state);
+        return new ClientConnectionRequest() {
+            @Override
+            public ManagedClientConnection getConnection(long timeout, TimeUnit unit)
+                    throws InterruptedException, ConnectionPoolTimeoutException {
+                long start = System.nanoTime();
+                ManagedClientConnection connection = request.getConnection(timeout, unit);
+                leaseWait.record(System.nanoTime() - start);
+                leases.increment();
+                if (connection.isOpen()) {
+                    reused.increment();
+                } else {
+                    OPENED_PER_THREAD.get()[0]++;
+                }
+                return connection;
+            }
+
+            @Override
+            public void abortRequest() {
+                request.abortRequest();
+            }
+        };
+    }
+
+    @Override
+    public void releaseConnection(ManagedClientConnection connection, long validDuration, TimeUnit timeUnit) {
+        delegate.releaseConnection(connection, validDuration, timeUnit);
+    }
+
+    @Override
+    public void closeIdleConnections(long idleTime, TimeUnit timeUnit) {
+        delegate.closeIdleConnections(idleTime, timeUnit);
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+        delegate.closeExpiredConnections();
+    }
+
+    /**
+     * Ignored: clients are thrown away after each request and must not take the shared pool down with them.
+     * The pool lives as long as the JVM.
+     */
+    @Override
+    public void shutdown() {
+    }
+}
@@ -0,0 +1,92 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A latency limit such as "p99 of POST /api/books &lt; 50 ms", checked against {@link ExchangeTimings}.
+ * <p>
+ * {@link SlaTests} declares the limits with {@link #require} and fails the suite after all tests ran if any of
+ * them is breached. A limit covers every status and, unless {@code role} is given, every role.
+ * <p>
+ * A limit is only judged once at least {@value #TAIL_SAMPLES} exchanges lie beyond its percentile, e.g. 1000 for a
+ * p99; with fewer, the percentile is little more than the slowest exchange. Such a limit is neither met nor
+ * breached but reported by {@link #insufficient()}.
+ *
+ * @param role {@code null} to cover all roles
+ */
+public record Sla(String method, String endpoint, String role, double percentile, long limitMillis) {
+
+    public static final int TAIL_SAMPLES = 10;
+
+    private static final Set<Sla> REQUIRED = ConcurrentHashMap.newKeySet();
+
+    public static Sla require(String method, String endpoint, double percentile, long limitMillis) {
+        return require(method, endpoint, null, percentile, limitMillis);
+    }
+
+    public static Sla require(String method, String endpoint, String role, double percentile, long limitMillis) {
+        Sla sla = new Sla(method, endpoint, role, percentile, limitMillis);
+        REQUIRED.add(sla);
+        return sla;
+    }
+
+    public static Set<Sla> required() {
+        return Set.copyOf(REQUIRED);
+    }
+
+    /**
+     * Every declared limit that the recorded exchanges breach, each as a readable message.
+     */
+    public static List<String> breaches() {
+        List<String> breaches = new ArrayList<>();
+        for (Sla sla : REQUIRED) {
+            String breach = sla.check(ExchangeTimings.merged(sla.method, sla.endpoint, sla.role));
+            if (breach != null) {
+                breaches.add(breach);
+            }
+        }
+        return breaches;
+    }
+
+    /**
+     * Every declared limit with too few exchanges to be judged, each as a readable message.
+     */
+    public static List<String> insufficient() {
+        List<String> insufficient = new ArrayList<>();
+        for (Sla sla : REQUIRED) {
+            long count = ExchangeTimings.merged(sla.method, sla.endpoint, sla.role).count();
+            if (count < sla.minSamples()) {
+                insufficient.add(String.format("%s: insufficient samples, %d of %d exchanges", sla, count,
+                        sla.minSamples()));
+            }
+        }
+        return insufficient;
+    }
+
+    /**
+     * The fewest exchanges that put {@value #TAIL_SAMPLES} of them beyond the percentile.
+     */
+    public long minSamples() {
+        return percentile >= 100 ? TAIL_SAMPLES : (long) Math.ceil(TAIL_SAMPLES * 100 / (100 - percentile));
+    }
+
+    /**
+     * @return {@code null} if {@code histogram} is within this limit or has fewer than {@link #minSamples()}
+     *         exchanges, otherwise what was breached
+     */
+    public String check(LatencyHistogram histogram) {
+        if (histogram.count() < minSamples()) {
+            return null;
+        }
+        double actual = LoadReport.millis(histogram.percentile(percentile));
+        return actual < limitMillis ? null
+                : String.format("%s breached: %.3f ms over %d exchanges", this, actual, histogram.count());
+    }
+
+    @Override
+    public String toString() {
+        String p = percentile % 1 == 0 ? Long.toString((long) percentile) : Double.toString(percentile);
+        return "p" + p + " of " + method + " " + endpoint + (role == null ? "" : " [" + role + "]") + " < " + limitMillis + " ms";
+    }
+}
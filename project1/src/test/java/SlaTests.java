@@ -0,0 +1,106 @@
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.testng.annotations.AfterSuite;
+import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class SlaTests {
+
+    private static final int WARM_UP_CALLS = 10;
+
+    /**
+     * The suite-wide limit for creating books, whose tail includes the deliberately concurrent race and load tests,
+     * so it bounds the median, and the p99 of admin creates, judged once a run makes enough of them. The
+     * {@code sla.post.p50.ms} and {@code sla.admin.p99.ms} settings tighten or relax them per environment.
+     */
+    @BeforeSuite
+    public void declareSlas() {
+        SuiteConfig config = SuiteConfig.current();
+        Sla.require("POST", config.apiEndpoint(), 50, config.getLong("sla.post.p50.ms", 250));
+        Sla.require("POST", config.apiEndpoint(), Credentials.ADMIN.role(), 99,
+                config.getLong("sla.admin.p99.ms", 250));
+        warmUp();
+    }
+
+    /**
+     * The first calls of a run pay for class loading and JIT compilation in RestAssured and the stub. They are sent
+     * untimed, so that they do not become the p99 of a role that only makes a few exchanges.
+     */
+    private static void warmUp() {
+        for (int i = 0; i < WARM_UP_CALLS; i++) {
+            for (RequestSpecification spec : List.of(RequestSpecs.admin(), RequestSpecs.user())) {
+                String requestBody = "{\"title\":\"" + TestData.unique("Warm-up") + "\",\"author\":\"Tim Keeper\"}";
+                try {
+                    given(spec).noFiltersOfType(TimingFilter.class).contentType(ContentType.JSON).body(requestBody)
+                            .post().asByteArray();
+                } catch (Exception e) {
+                    // an unreachable server is reported by the tests themselves
+                    return;
+                }
+            }
+        }
+    }
+
+    @AfterSuite
+    public void verifySlas() {
+        List<String> breaches = Sla.breaches();
+        Sla.insufficient().forEach(message -> System.out.println("SLA not judged: " + message));
+
+        // Assertions
+        assertTrue(breaches.isEmpty(), "SLA breached: " + breaches);
+    }
+
+    @Test
+    public void testSlaCheck() {
+        Sla sla = new Sla("POST", SuiteConfig.current().apiEndpoint(), null, 99, 50);
+        LatencyHistogram few = new LatencyHistogram();
+        for (int i = 0; i < 20; i++) {
+            few.record(80_000_000L);
+        }
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 990; i++) {
+            histogram.record(10_000_000L);
+        }
+
+        // Assertions
+        assertEquals(sla.toString(), "p99 of POST " + SuiteConfig.current().apiEndpoint() + " < 50 ms");
+        assertEquals(sla.minSamples(), 1000);
+        assertEquals(new Sla("POST", "/", null, 50, 50).minSamples(), 20);
+        assertNull(sla.check(new LatencyHistogram()), "An empty histogram has nothing to breach");
+        assertNull(sla.check(few), "20 exchanges are too few to judge a p99");
+        histogram.record(80_000_000L);
+        histogram.record(80_000_000L);
+        assertNull(sla.check(histogram), "10 ms is within a 50 ms limit");
+        for (int i = 0; i < 18; i++) {
+            histogram.record(80_000_000L);
+        }
+        assertNotNull(sla.check(histogram), "20 of 1010 exchanges at 80 ms put p99 over 50 ms");
+    }
+
+    @Test
+    public void testExchangesAreTimed() {
+        String requestBody = "{\"title\":\"" + TestData.unique("The Measured Pace") + "\",\"author\":\"Tim Keeper\"}";
+        long before = ExchangeTimings.merged("POST", SuiteConfig.current().apiEndpoint(), "user").count();
+
+        Response response = given(RequestSpecs.user())
+                .contentType(ContentType.JSON)
+                .body(requestBody)
+                .post();
+
+        // Assertions
+        assertEquals(response.getStatusCode(), 201, "Expected status code 201");
+        assertTrue(ExchangeTimings.merged("POST", SuiteConfig.current().apiEndpoint(), "user").count() > before,
+                "Expected the create to be timed under the user role");
+        assertTrue(ExchangeTimings.snapshot().containsKey(
+                new ExchangeTimings.Key("POST", SuiteConfig.current().apiEndpoint(), "user", 201)), "Expected a user/201 histogram");
+    }
+}
@@ -0,0 +1,387 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Immutable snapshot of the suite configuration, layered from lowest to highest precedence:
+ * <ol>
+ *     <li>{@code config.properties} on the classpath;</li>
+ *     <li>one {@code config-<profile>.properties} classpath resource per profile named in {@code config.profiles}
+ *     (comma-separated, later profiles win), e.g. {@code -Dconfig.profiles=cluster};</li>
+ *     <li>environment variables, {@code base.url} being read from {@code BASE_URL};</li>
+ *     <li>system properties;</li>
+ *     <li>the file named by {@code config.file}, if any, which is watched and reloaded when it changes.</li>
+ * </ol>
+ * {@link #current()} is a single volatile read, and every reload publishes a whole new snapshot, so a reader never
+ * sees half of an update. A long load run can switch its rate or targets by editing the watched file: code that
+ * reads {@code current()} per request picks the change up, see {@link RateProfile#configured} and
+ * {@link RequestSpecs}. Credentials are fixed at their first use.
+ * <p>
+ * {@code targets} lists several base URLs, comma-separated, to spread traffic over several server instances;
+ * it defaults to {@code base.url}, which in turn defaults to the first target.
+ */
+public final class SuiteConfig {
+
+    static final String RESOURCE = "config.properties";
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+    private static final long SETTLE_MILLIS = 200;
+    private static volatile SuiteConfig current;
+
+    private final long version;
+    private final List<String> profiles;
+    private final List<Layer> layers;
+    private final Map<String, String> fileValues;
+    private final List<URI> targets;
+    private final String baseUrl;
+    private final String apiEndpoint;
+
+    private record Layer(String name, Function<String, String> values) {
+    }
+
+    private SuiteConfig(List<String> profiles, List<Layer> layers, Map<String, String> fileValues) {
+        this.version = VERSIONS.incrementAndGet();
+        this.profiles = List.copyOf(profiles);
+        this.layers = List.copyOf(layers);
+        this.fileValues = fileValues;
+        String targetList = get("targets");
+        String base = get("base.url");
+        if (targetList == null || targetList.isBlank()) {
+            if (base == null) {
+                throw new IllegalStateException("Neither base.url nor targets is configured");
+            }
+            targetList = base;
+        }
+        this.targets = Arrays.stream(targetList.split(",")).map(String::trim).filter(t -> !t.isEmpty())
+                .map(t -> URI.create(t.endsWith("/") ? t.substring(0, t.length() - 1) : t)).toList();
+        this.baseUrl = base != null ? base : targets.get(0).toString();
+        this.apiEndpoint = get("api.endpoint", "/api/books");
+    }
+
+    /**
+     * The latest snapshot. The first call loads the configuration and, when {@code config.file} is set, starts
+     * watching that file.
+     */
+    public static SuiteConfig current() {
+        SuiteConfig config = current;
+        return config != null ? config : initialize();
+    }
+
+    private static synchronized SuiteConfig initialize() {
+        if (current == null) {
+            current = load();
+            String file = current.get("config.file");
+            if (file != null && !file.isBlank()) {
+                try {
+                    watch(Path.of(file));
+                } catch (IOException e) {
+                    throw new IllegalStateException("Unable to watch " + file, e);
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Loads a fresh snapshot from the classpath, the environment, the system properties and {@code config.file},
+     * without publishing it.
+     */
+    public static SuiteConfig load() {
+        Map<String, String> system = new LinkedHashMap<>();
+        System.getProperties().forEach((key, value) -> system.put(String.valueOf(key), String.valueOf(value)));
+        String file = system.get("config.file");
+        if (file == null) {
+            file = System.getenv(environmentName("config.file"));
+        }
+        return load(name -> resource(SuiteConfig.class.getClassLoader(), name), System.getenv(), system,
+                file == null || file.isBlank() ? null : Path.of(file));
+    }
+
+    /**
+     * @param resources   looks up a classpath-style properties resource by name, {@code null} when missing
+     * @param environment environment variables
+     * @param system      system properties
+     * @param file        the watched file, or {@code null}; a missing file is treated as empty
+     */
+    static SuiteConfig load(Function<String, Map<String, String>> resources, Map<String, String> environment,
+                            Map<String, String> system, Path file) {
+        Map<String, String> base = resources.apply(RESOURCE);
+        if (base == null) {
+            throw new IllegalStateException("Unable to find " + RESOURCE + " on the classpath");
+        }
+        Map<String, String> overrides = file == null ? Map.of() : read(file);
+        List<Layer> layers = new ArrayList<>();
+        if (file != null) {
+            layers.add(new Layer(file.toString(), overrides::get));
+        }
+        layers.add(new Layer("system properties", system::get));
+        layers.add(new Layer("environment", key -> environment.get(environmentName(key))));
+        String profileList = firstNonNull(overrides.get("config.profiles"), system.get("config.profiles"),
+                environment.get(environmentName("config.profiles")), base.get("config.profiles"));
+        List<String> profiles = profileList == null ? List.of() : Arrays.stream(profileList.split(","))
+                .map(String::trim).filter(p -> !p.isEmpty()).toList();
+        for (String profile : profiles.reversed()) {
+            String name = "config-" + profile + ".properties";
+            Map<String, String> values = resources.apply(name);
+            if (values == null) {
+                throw new IllegalArgumentException("Unknown profile " + profile + ": no " + name + " on the classpath");
+            }
+            layers.add(new Layer(name, values::get));
+        }
+        layers.add(new Layer(RESOURCE, base::get));
+        return new SuiteConfig(profiles, layers, overrides);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public List<String> profiles() {
+        return profiles;
+    }
+
+    public String get(String key) {
+        for (Layer layer : layers) {
+            String value = layer.values().apply(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    public String get(String key, String defaultValue) {
+        String value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = get(key);
+        return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = get(key);
+        return value != null ? Long.parseLong(value.trim()) : defaultValue;
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        String value = get(key);
+        return value != null ? Double.parseDouble(value.trim()) : defaultValue;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key);
+        return value != null ? Boolean.parseBoolean(value.trim()) : defaultValue;
+    }
+
+    /**
+     * Where the effective value of {@code key} comes from, or {@code null} when it is not set.
+     */
+    public String source(String key) {
+        for (Layer layer : layers) {
+            if (layer.values().apply(key) != null) {
+                return layer.name();
+            }
+        }
+        return null;
+    }
+
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    public String apiEndpoint() {
+        return apiEndpoint;
+    }
+
+    /**
+     * The base URLs to send traffic to, never empty.
+     */
+    public List<URI> targets() {
+        return targets;
+    }
+
+    public String adminUsername() {
+        return get("admin.username");
+    }
+
+    public String adminPassword() {
+        return get("admin.password");
+    }
+
+    public String userUsername() {
+        return get("user.username");
+    }
+
+    public String userPassword() {
+        return get("user.password");
+    }
+
+    /**
+     * The keys whose effective values differ between this snapshot and {@code other}, among {@code keys}.
+     */
+    public List<String> changed(SuiteConfig other, Iterable<String> keys) {
+        List<String> changed = new ArrayList<>();
+        for (String key : keys) {
+            if (!Objects.equals(get(key), other.get(key))) {
+                changed.add(key);
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public String toString() {
+        return "config v" + version + (profiles.isEmpty() ? "" : " " + profiles) + " targets " + targets;
+    }
+
+    /**
+     * Starts watching {@code file} and publishes a new snapshot through {@link #current()} whenever it changes. A
+     * file that fails to load, e.g. one caught half-written, leaves the previous snapshot in place.
+     */
+    public static Watcher watch(Path file) throws IOException {
+        return watch(file, SuiteConfig::reload);
+    }
+
+    static Watcher watch(Path file, Runnable onChange) throws IOException {
+        return new Watcher(file.toAbsolutePath(), onChange);
+    }
+
+    /**
+     * Reloads the configuration now and publishes it; the watcher calls this on every change of the file.
+     */
+    public static synchronized SuiteConfig reload() {
+        SuiteConfig previous = current;
+        SuiteConfig next = load();
+        current = next;
+        if (previous != null) {
+            TreeSet<String> keys = new TreeSet<>(List.of("base.url", "targets", "config.profiles"));
+            keys.addAll(previous.fileValues.keySet());
+            keys.addAll(next.fileValues.keySet());
+            System.out.println("Reloaded " + next + ", changed " + next.changed(previous, keys));
+        }
+        return next;
+    }
+
+    /**
+     * Background thread reloading the configuration when the watched file is created or modified. Events are
+     * allowed to settle for {@value #SETTLE_MILLIS} ms first, so that an editor truncating the file before writing
+     * it does not publish a snapshot of the empty file.
+     */
+    public static final class Watcher implements AutoCloseable {
+
+        private final Path file;
+        private final Runnable onChange;
+        private final WatchService service;
+        private final Thread thread;
+
+        private Watcher(Path file, Runnable onChange) throws IOException {
+            this.file = file;
+            this.onChange = onChange;
+            this.service = file.getFileSystem().newWatchService();
+            file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            this.thread = Thread.ofPlatform().daemon().name("config-watcher").start(this::run);
+        }
+
+        private void run() {
+            try {
+                while (true) {
+                    boolean touched = false;
+                    WatchKey key = service.take();
+                    while (key != null) {
+                        for (WatchEvent<?> event : key.pollEvents()) {
+                            touched |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                                    || file.getFileName().equals(event.context());
+                        }
+                        key.reset();
+                        key = touched ? service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS) : null;
+                    }
+                    if (touched) {
+                        try {
+                            onChange.run();
+                        } catch (RuntimeException e) {
+                            System.out.println("Ignoring unreadable " + file + ": " + e);
+                        }
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // closed
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            service.close();
+            thread.interrupt();
+        }
+    }
+
+    static String environmentName(String key) {
+        return key.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_');
+    }
+
+    private static Map<String, String> resource(ClassLoader loader, String name) {
+        try (InputStream input = loader.getResourceAsStream(name)) {
+            if (input == null) {
+                return null;
+            }
+            Properties properties = new Properties();
+            properties.load(input);
+            return toMap(properties);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read " + name, e);
+        }
+    }
+
+    private static Map<String, String> read(Path file) {
+        if (!Files.exists(file)) {
+            return Map.of();
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Properties properties = new Properties();
+            properties.load(reader);
+            return toMap(properties);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read " + file, e);
+        }
+    }
+
+    private static Map<String, String> toMap(Properties properties) {
+        Map<String, String> values = new LinkedHashMap<>();
+        properties.forEach((key, value) -> values.put(String.valueOf(key), String.valueOf(value).trim()));
+        return Collections.unmodifiableMap(values);
+    }
+
+    @SafeVarargs
+    private static <T> T firstNonNull(T... values) {
+        for (T value : values) {
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,86 @@
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class SuiteConfigTests {
+
+    private static final Map<String, Map<String, String>> RESOURCES = Map.of(
+            SuiteConfig.RESOURCE, Map.of("base.url", "http://127.0.0.1:7081", "api.endpoint", "/api/books",
+                    "load.users", "32", "admin.username", "admin"),
+            "config-cluster.properties", Map.of("targets", "http://10.0.0.1:7081, http://10.0.0.2:7081/",
+                    "load.users", "256"),
+            "config-soak.properties", Map.of("load.users", "64", "load.seconds", "3600"));
+
+    @Test
+    public void testLayersOverrideInOrder() {
+        SuiteConfig config = SuiteConfig.load(RESOURCES::get, Map.of("LOAD_SECONDS", "600", "ADMIN_USERNAME", "ops"),
+                Map.of("config.profiles", "cluster,soak", "admin.username", "root"), null);
+
+        // Assertions
+        assertEquals(config.profiles(), List.of("cluster", "soak"));
+        assertEquals(config.getInt("load.users", 0), 64, "The later profile should win");
+        assertEquals(config.source("load.users"), "config-soak.properties");
+        assertEquals(config.getLong("load.seconds", 0), 600, "Environment should override profiles");
+        assertEquals(config.source("load.seconds"), "environment");
+        assertEquals(config.adminUsername(), "root", "System properties should override the environment");
+        assertEquals(config.apiEndpoint(), "/api/books");
+        assertEquals(config.targets(), List.of(URI.create("http://10.0.0.1:7081"), URI.create("http://10.0.0.2:7081")));
+        assertEquals(config.baseUrl(), "http://127.0.0.1:7081");
+        assertNull(config.get("missing"));
+        assertEquals(config.getDouble("missing", 1.5), 1.5);
+    }
+
+    @Test
+    public void testTargetsDefaultToBaseUrl() {
+        SuiteConfig config = SuiteConfig.load(RESOURCES::get, Map.of(), Map.of(), null);
+
+        // Assertions
+        assertEquals(config.targets(), List.of(URI.create("http://127.0.0.1:7081")));
+        assertEquals(config.profiles(), List.of());
+        IllegalArgumentException unknown = expectThrows(IllegalArgumentException.class,
+                () -> SuiteConfig.load(RESOURCES::get, Map.of("CONFIG_PROFILES", "clustr"), Map.of(), null));
+        assertTrue(unknown.getMessage().contains("config-clustr.properties"), unknown.getMessage());
+    }
+
+    @Test
+    public void testWatchedFileOverridesEverythingAndReloads() throws Exception {
+        Path directory = Files.createTempDirectory("config");
+        Path file = directory.resolve("load.properties");
+        Files.writeString(file, "arrival.rate=100\n");
+        Map<String, String> system = Map.of("arrival.rate", "50");
+        CountDownLatch changed = new CountDownLatch(1);
+        SuiteConfig.Watcher watcher = SuiteConfig.watch(file, changed::countDown);
+        try {
+            SuiteConfig before = SuiteConfig.load(RESOURCES::get, Map.of(), system, file);
+
+            Files.writeString(file, "arrival.rate=400\ntargets=http://10.0.0.3:7081\n");
+
+            // Assertions
+            assertTrue(changed.await(30, TimeUnit.SECONDS), "Expected the watcher to notice the change");
+            SuiteConfig after = SuiteConfig.load(RESOURCES::get, Map.of(), system, file);
+            assertEquals(before.getDouble("arrival.rate", 0), 100.0);
+            assertEquals(after.getDouble("arrival.rate", 0), 400.0);
+            assertEquals(after.source("arrival.rate"), file.toString());
+            assertEquals(after.targets(), List.of(URI.create("http://10.0.0.3:7081")));
+            assertTrue(after.version() > before.version());
+            assertEquals(after.changed(before, List.of("arrival.rate", "base.url", "targets")),
+                    List.of("arrival.rate", "targets"));
+            assertEquals(before.getDouble("arrival.rate", 0), 100.0, "A snapshot should never change");
+        } finally {
+            watcher.close();
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters for every RestAssured call in the suite, meant to be watched while a long run is in progress.
+ * <p>
+ * {@link TimingFilter} reports each call here. The hot path only touches striped {@link LongAdder}s and the
+ * lock-free {@link LatencyHistogram}, so reporting costs a few uncontended increments even with hundreds of
+ * threads. Readers are JMX ({@link SuiteMetricsMXBean}) and the Prometheus endpoint ({@link MetricsEndpoint}).
+ */
+public final class SuiteMetrics implements SuiteMetricsMXBean {
+
+    public static final String OBJECT_NAME = "books.tests:type=SuiteMetrics";
+
+    static final SuiteMetrics INSTANCE = new SuiteMetrics();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final ConcurrentHashMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private SuiteMetrics() {
+    }
+
+    void started() {
+        inFlight.increment();
+    }
+
+    void completed(int status, long nanos) {
+        inFlight.decrement();
+        requests.increment();
+        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        latency.record(nanos);
+    }
+
+    void failed(long nanos) {
+        inFlight.decrement();
+        requests.increment();
+        errors.increment();
+        latency.record(nanos);
+    }
+
+    void retried() {
+        retries.increment();
+    }
+
+    LatencyHistogram latency() {
+        return latency;
+    }
+
+    /**
+     * Registers this registry with the platform MBean server; calling it again is harmless.
+     */
+    public static void registerMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // registered by an earlier suite in this JVM
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to register " + OBJECT_NAME, e);
+        }
+    }
+
+    @Override
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    @Override
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    @Override
+    public Map<String, Long> getStatusCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(String.valueOf(status), count.sum()));
+        return counts;
+    }
+
+    @Override
+    public double getLatencyMeanMillis() {
+        return latency.mean() / 1e6;
+    }
+
+    @Override
+    public double getLatencyP50Millis() {
+        return LoadReport.millis(latency.percentile(50));
+    }
+
+    @Override
+    public double getLatencyP99Millis() {
+        return LoadReport.millis(latency.percentile(99));
+    }
+
+    @Override
+    public double getLatencyMaxMillis() {
+        return LoadReport.millis(latency.max());
+    }
+}
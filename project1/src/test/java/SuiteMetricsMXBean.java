@@ -0,0 +1,31 @@
+import java.util.Map;
+
+/**
+ * JMX view of {@link SuiteMetrics}, registered as {@value SuiteMetrics#OBJECT_NAME}.
+ */
+public interface SuiteMetricsMXBean {
+
+    long getRequestCount();
+
+    long getInFlight();
+
+    /**
+     * Calls that failed without a response, e.g. connection refused or a pool timeout.
+     */
+    long getErrorCount();
+
+    /**
+     * Attempts repeated by {@link RetryFilter}; a call that is retried still counts once in the request count.
+     */
+    long getRetryCount();
+
+    Map<String, Long> getStatusCounts();
+
+    double getLatencyMeanMillis();
+
+    double getLatencyP50Millis();
+
+    double getLatencyP99Millis();
+
+    double getLatencyMaxMillis();
+}
@@ -0,0 +1,128 @@
+import org.example.WorkerProtocol;
+import org.testng.IConfigurationListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Worker JVM of the distributed runner ({@code org.example.Coordinator}): connects back to the coordinator, runs
+ * the shard of test classes it is given in one TestNG suite, and streams each result over the socket as soon as
+ * the test finishes.
+ * <p>
+ * Arguments: coordinator host, port, worker index and an output directory for this worker's own TestNG reports.
+ */
+public final class SuiteWorker {
+
+    private SuiteWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            System.err.println("Usage: SuiteWorker <host> <port> <index> <outputDir>");
+            System.exit(2);
+        }
+        int status;
+        try (WorkerProtocol.Connection connection = new WorkerProtocol.Connection(new Socket(args[0], Integer.parseInt(args[1])))) {
+            connection.send(WorkerProtocol.HELLO, args[2]);
+            String[] run = connection.receive();
+            if (run == null || run.length != 4 || !WorkerProtocol.RUN.equals(run[0])) {
+                throw new IllegalStateException("Expected a RUN message but got " + Arrays.toString(run));
+            }
+            List<Class<?>> classes = new ArrayList<>();
+            for (String name : run[1].split(",")) {
+                try {
+                    classes.add(Class.forName(name));
+                } catch (ClassNotFoundException e) {
+                    long now = System.currentTimeMillis();
+                    connection.send(new WorkerProtocol.TestResult("FAIL", name, "<load>", false, now, now, "",
+                            e.getClass().getName(), String.valueOf(e.getMessage()), stackTrace(e)).fields());
+                }
+            }
+            TestNG testng = new TestNG();
+            testng.setTestClasses(classes.toArray(new Class<?>[0]));
+            if (!run[2].isEmpty()) {
+                testng.setGroups(run[2]);
+            }
+            if (!run[3].isEmpty()) {
+                testng.setExcludedGroups(run[3]);
+            }
+            testng.setOutputDirectory(args[3]);
+            testng.addListener(new Streamer(connection));
+            testng.run();
+            status = testng.getStatus();
+            connection.send(WorkerProtocol.FINISHED, Integer.toString(status));
+        }
+        System.exit(status);
+    }
+
+    private static String stackTrace(Throwable throwable) {
+        StringWriter trace = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(trace));
+        return trace.toString();
+    }
+
+    /**
+     * Sends every finished test, and every configuration method that failed or was skipped, to the coordinator.
+     */
+    private static final class Streamer implements ITestListener, IConfigurationListener {
+
+        private final WorkerProtocol.Connection connection;
+
+        Streamer(WorkerProtocol.Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public void onTestSuccess(ITestResult result) {
+            send(result, "PASS", false);
+        }
+
+        @Override
+        public void onTestFailure(ITestResult result) {
+            send(result, "FAIL", false);
+        }
+
+        @Override
+        public void onTestSkipped(ITestResult result) {
+            send(result, "SKIP", false);
+        }
+
+        @Override
+        public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+            send(result, "PASS", false);
+        }
+
+        @Override
+        public void onConfigurationFailure(ITestResult result) {
+            send(result, "FAIL", true);
+        }
+
+        @Override
+        public void onConfigurationSkip(ITestResult result) {
+            send(result, "SKIP", true);
+        }
+
+        private void send(ITestResult result, String status, boolean config) {
+            Throwable throwable = result.getThrowable();
+            String parameters = result.getParameters().length == 0 ? "" : Arrays.deepToString(result.getParameters());
+            try {
+                connection.send(new WorkerProtocol.TestResult(status, result.getTestClass().getName(),
+                        result.getMethod().getMethodName(), config, result.getStartMillis(), result.getEndMillis(),
+                        parameters, throwable == null ? "" : throwable.getClass().getName(),
+                        throwable == null ? "" : String.valueOf(throwable.getMessage()),
+                        throwable == null ? "" : stackTrace(throwable)).fields());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Lost the coordinator", e);
+            }
+        }
+    }
+}
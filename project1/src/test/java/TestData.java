@@ -0,0 +1,63 @@
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unique ids and titles for tests that create books, so repeated and parallel runs against one server never
+ * trip each other's duplicate checks.
+ * <p>
+ * Every value carries a per-run salt: the minute the run started in its high bits and ten random bits below, so
+ * runs started in different minutes of the same year never share one and runs started in the same minute rarely
+ * do. Override it with {@code testdata.salt}; the distributed coordinator gives each worker JVM its own.
+ * <p>
+ * Within a run, uniqueness comes from shared counters, one for ids and one for tags: their contention is negligible
+ * next to the HTTP call each value is made for, and unlike per-thread blocks they do not waste a block on every
+ * short-lived (virtual) thread, which the arrival-rate driver starts per request. Ids are
+ * {@code salt << SEQUENCE_BITS | sequence}, which stays below 2^53 and therefore survives JSON number handling in any
+ * client; that leaves 24 bits for the sequence, about 16 million ids per run. Tags have no such limit.
+ */
+public final class TestData {
+
+    static final int SEQUENCE_BITS = 24;
+    static final int SALT_BITS = 53 - SEQUENCE_BITS;
+    private static final int RANDOM_SALT_BITS = 10;
+
+    private static final long SALT = Long.getLong("testdata.salt",
+            System.currentTimeMillis() / 60_000 << RANDOM_SALT_BITS | new SecureRandom().nextInt(1 << RANDOM_SALT_BITS))
+            & ((1L << SALT_BITS) - 1);
+    private static final String SALT_TAG = Long.toString(SALT, 36);
+
+    private static final AtomicLong IDS = new AtomicLong(1);
+    private static final AtomicLong TAGS = new AtomicLong(1);
+
+    private TestData() {
+    }
+
+    public static long salt() {
+        return SALT;
+    }
+
+    /**
+     * A book id no other call in this run (or, barring a salt clash, any other run) returns.
+     */
+    public static long id() {
+        long next = IDS.getAndIncrement();
+        if (next >= 1L << SEQUENCE_BITS) {
+            throw new IllegalStateException("Test data id sequence exhausted for this run");
+        }
+        return SALT << SEQUENCE_BITS | next;
+    }
+
+    /**
+     * A short token unique to this call, e.g. {@code 3kq1-7f}.
+     */
+    public static String tag() {
+        return SALT_TAG + "-" + Long.toString(TAGS.getAndIncrement(), 36);
+    }
+
+    /**
+     * {@code base} with a unique tag appended, e.g. {@code "Chattahoochee #3kq1-7f"}.
+     */
+    public static String unique(String base) {
+        return base + " #" + tag();
+    }
+}
@@ -0,0 +1,54 @@
+import org.testng.annotations.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestDataTests {
+
+    @Test
+    public void testIdsAndTagsAreUniqueAcrossThreads() {
+        int threads = 8;
+        int perThread = 5_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        Set<String> tags = ConcurrentHashMap.newKeySet();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            IntStream.range(0, threads).forEach(t -> executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(TestData.id());
+                    tags.add(TestData.tag());
+                }
+            }));
+        }
+
+        // Assertions
+        assertEquals(ids.size(), threads * perThread, "Expected no duplicate ids");
+        assertEquals(tags.size(), threads * perThread, "Expected no duplicate tags");
+        assertTrue(ids.stream().allMatch(id -> id > 0 && id < 1L << 53), "Ids must be positive and JSON-safe");
+        assertTrue(ids.stream().allMatch(id -> id >>> TestData.SEQUENCE_BITS == TestData.salt()),
+                "Ids must carry the run salt");
+    }
+
+    @Test
+    public void testShortLivedThreadsDoNotWasteTheSequence() {
+        int threads = 1_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            IntStream.range(0, threads).forEach(t -> executor.submit(() -> ids.add(TestData.id())));
+        }
+
+        // Assertions
+        long mask = (1L << TestData.SEQUENCE_BITS) - 1;
+        long low = ids.stream().mapToLong(id -> id & mask).min().orElseThrow();
+        long high = ids.stream().mapToLong(id -> id & mask).max().orElseThrow();
+        assertEquals(ids.size(), threads);
+        assertTrue(high - low < 100_000, "One id per thread should not use up a block each: spread " + (high - low));
+    }
+}
@@ -0,0 +1,120 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-test duration and failure history, kept in a small tab-separated file between runs.
+ * <p>
+ * Each line is {@code key runs durationMillis failureScore}. Both numbers are exponentially weighted so recent
+ * runs count most: a test that fails gets a score of at least one half, and every pass halves it again, so a fixed
+ * test drops back among the others after a handful of green runs. Keys are {@code Class.method}; the invocations
+ * of a data-driven method make up one run, timed from the first start to the last end.
+ */
+public final class TestHistory {
+
+    static final double WEIGHT = 0.5;
+    static final double FORGOTTEN_SCORE = 0.01;
+
+    private final Map<String, Entry> entries;
+
+    private TestHistory(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    public static TestHistory empty() {
+        return new TestHistory(new TreeMap<>());
+    }
+
+    /**
+     * Reads {@code file}, or returns an empty history if it does not exist. Lines that do not parse are skipped,
+     * since a stale format should cost one run of ordering, not the build.
+     */
+    public static TestHistory load(Path file) throws IOException {
+        TestHistory history = empty();
+        if (!Files.exists(file)) {
+            return history;
+        }
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] fields = line.split("\t");
+            if (fields.length != 4 || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                history.entries.put(fields[0], new Entry(Long.parseLong(fields[1]), Double.parseDouble(fields[2]),
+                        Double.parseDouble(fields[3])));
+            } catch (NumberFormatException e) {
+                // skipped, see above
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Writes to a temporary file and moves it into place, so a concurrent reader never sees half a history.
+     */
+    public synchronized void save(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                out.write("# test\truns\tduration ms\tfailure score\n");
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    Entry e = entry.getValue();
+                    // Locale.ROOT: a decimal comma would not parse back in load
+                    out.write(String.format(Locale.ROOT, "%s\t%d\t%.3f\t%.4f\n", entry.getKey(), e.runs(),
+                            e.durationMillis(), e.failureScore()));
+                }
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Folds one run of {@code key} into the history.
+     */
+    public synchronized void record(String key, double durationMillis, boolean failed) {
+        Entry previous = entries.get(key);
+        double outcome = failed ? 1 : 0;
+        if (previous == null) {
+            entries.put(key, new Entry(1, durationMillis, outcome * WEIGHT));
+            return;
+        }
+        double score = WEIGHT * outcome + (1 - WEIGHT) * previous.failureScore();
+        entries.put(key, new Entry(previous.runs() + 1,
+                WEIGHT * durationMillis + (1 - WEIGHT) * previous.durationMillis(),
+                score < FORGOTTEN_SCORE ? 0 : score));
+    }
+
+    public synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * The median recorded duration, used as the estimate for tests that have never run; 0 if nothing has.
+     */
+    public synchronized double medianDurationMillis() {
+        double[] durations = entries.values().stream().mapToDouble(Entry::durationMillis).sorted().toArray();
+        return durations.length == 0 ? 0 : durations[durations.length / 2];
+    }
+
+    public record Entry(long runs, double durationMillis, double failureScore) {
+    }
+}
@@ -0,0 +1,67 @@
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.net.URI;
+
+/**
+ * Records the latency of every exchange into {@link ExchangeTimings}, keyed by method, endpoint path, role and
+ * status. Measured with {@link System#nanoTime()} around the call rather than {@code Response.time()}, which
+ * only has millisecond resolution. Every call is also counted in {@link SuiteMetrics}, including calls that fail
+ * without a response.
+ * <p>
+ * Only exchanges with one of the configured {@link SuiteConfig#targets()} are timed into {@link ExchangeTimings}.
+ * Tests that start a stub or proxy of their own often slow it down on purpose, and that latency says nothing about
+ * the API the suite's SLAs are about.
+ */
+public final class TimingFilter implements Filter {
+
+    static final TimingFilter INSTANCE = new TimingFilter();
+
+    private TimingFilter() {
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        SuiteMetrics.INSTANCE.started();
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (Throwable e) {
+            // RestAssured also rethrows checked I/O exceptions undeclared; precise rethrow passes them on unchanged
+            SuiteMetrics.INSTANCE.failed(System.nanoTime() - start);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        SuiteMetrics.INSTANCE.completed(response.getStatusCode(), elapsed);
+        URI uri = URI.create(requestSpec.getURI());
+        if (configuredTarget(uri)) {
+            ExchangeTimings.record(new ExchangeTimings.Key(requestSpec.getMethod(), uri.getPath(),
+                    role(requestSpec.getHeaders().getValue("Authorization")), response.getStatusCode()), elapsed);
+        }
+        return response;
+    }
+
+    private static boolean configuredTarget(URI uri) {
+        for (URI target : SuiteConfig.current().targets()) {
+            if (target.getAuthority().equalsIgnoreCase(uri.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String role(String authorization) {
+        if (authorization == null) {
+            return "anonymous";
+        }
+        if (authorization.equals(Credentials.ADMIN.header().getValue())) {
+            return Credentials.ADMIN.role();
+        }
+        return authorization.equals(Credentials.USER.header().getValue()) ? Credentials.USER.role() : "invalid";
+    }
+}
@@ -0,0 +1,41 @@
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A weighted mix of {@link Scenario}s; {@link #pick()} draws one in proportion to its weight.
+ */
+public final class Workload {
+
+    private final List<Scenario> scenarios;
+    private final int[] cumulativeWeights;
+
+    public Workload(List<Scenario> scenarios) {
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("A workload needs at least one scenario");
+        }
+        this.scenarios = List.copyOf(scenarios);
+        this.cumulativeWeights = new int[scenarios.size()];
+        int total = 0;
+        for (int i = 0; i < scenarios.size(); i++) {
+            if (scenarios.get(i).weight() <= 0) {
+                throw new IllegalArgumentException("Scenario weight must be positive: " + scenarios.get(i).name());
+            }
+            total += scenarios.get(i).weight();
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public List<Scenario> scenarios() {
+        return scenarios;
+    }
+
+    public Scenario pick() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return scenarios.get(i);
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+}
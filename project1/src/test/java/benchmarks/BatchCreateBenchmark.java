@@ -0,0 +1,181 @@
+package benchmarks;
+
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Creating books one POST at a time against creating them through the batch endpoint of the books stub, in books
+ * per second (the {@code books} counter). A {@code batchSize} of 1 posts to {@code /api/books} itself rather than a
+ * batch of one. Both reuse keep-alive connections, like the suite's shared pool, so the difference is the work per
+ * request rather than connection setup.
+ * <p>
+ * The stub runs in a separate JVM so that its CPU time can be told apart from the client's: after every
+ * iteration the server CPU time per book created is printed. Every book is new, so all creates take the 201 path;
+ * a batch counts only if every item in it came back 201.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchCreateBenchmark {
+
+    private static final String CREATED_ITEM = "{\"status\":201,";
+
+    @Param({"1", "10", "100"})
+    public int batchSize;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder created = new LongAdder();
+    private Process server;
+    private KeptAlivePool pool;
+    private RequestSpecification spec;
+    private long cpuNanosAtStart;
+    private long createdAtStart;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Books {
+        public long books;
+    }
+
+    @Setup
+    @SuppressWarnings("deprecation")
+    public void setup() throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        server = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), "BooksStubServer", "127.0.0.1", "0")
+                .redirectErrorStream(true).start();
+        String baseUrl = awaitBaseUrl(server);
+
+        Properties config = new Properties();
+        try (InputStream in = BatchCreateBenchmark.class.getClassLoader().getResourceAsStream("config.properties")) {
+            config.load(in);
+        }
+        String credentials = config.getProperty("admin.username") + ":" + config.getProperty("admin.password");
+        pool = new KeptAlivePool();
+        pool.setDefaultMaxPerRoute(8);
+        spec = new RequestSpecBuilder()
+                .setConfig(RestAssuredConfig.config().httpClient(HttpClientConfig.httpClientConfig()
+                        .httpClientFactory(() -> new DefaultHttpClient(pool))))
+                .setBaseUri(baseUrl)
+                .setBasePath(config.getProperty("api.endpoint", "/api/books"))
+                .addHeader("Authorization", "Basic " + Base64.getEncoder()
+                        .encodeToString(credentials.getBytes(StandardCharsets.UTF_8)))
+                .setContentType(ContentType.JSON)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.close();
+        server.destroy();
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        cpuNanosAtStart = serverCpuNanos();
+        createdAtStart = created.sum();
+    }
+
+    @TearDown(Level.Iteration)
+    public void endIteration() {
+        long books = created.sum() - createdAtStart;
+        double micros = (serverCpuNanos() - cpuNanosAtStart) / 1e3 / Math.max(1, books);
+        System.out.printf("  [server CPU %.1f us per book, %d books]%n", micros, books);
+    }
+
+    @Benchmark
+    public byte[] create(Books books) {
+        Response response;
+        if (batchSize == 1) {
+            response = given(spec).body(book()).post();
+        } else {
+            StringBuilder body = new StringBuilder(batchSize * 72).append('[');
+            for (int i = 0; i < batchSize; i++) {
+                body.append(i == 0 ? "" : ",").append(book());
+            }
+            response = given(spec).body(body.append(']').toString()).post("/batch");
+        }
+        int expected = batchSize == 1 ? 201 : 200;
+        if (response.getStatusCode() != expected) {
+            throw new IllegalStateException("Expected status " + expected + " but got " + response.getStatusCode()
+                    + ": " + response.asString());
+        }
+        // reading the body to the end is what hands the connection back to the pool
+        byte[] body = response.asByteArray();
+        if (batchSize > 1 && createdItems(new String(body, StandardCharsets.UTF_8)) != batchSize) {
+            // the envelope is 200 whatever happened to the items
+            throw new IllegalStateException("Expected " + batchSize + " items with status 201 but got "
+                    + response.asString());
+        }
+        books.books += batchSize;
+        created.add(batchSize);
+        return body;
+    }
+
+    /**
+     * Items of a batch response answered 201. The stub writes each item as {@code {"status":N,"body":...}}, and a
+     * quote inside a body is escaped, so the marker cannot occur anywhere else.
+     */
+    private static int createdItems(String response) {
+        int count = 0;
+        for (int at = response.indexOf(CREATED_ITEM); at >= 0; at = response.indexOf(CREATED_ITEM, at + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private String book() {
+        return "{\"title\":\"Sherlock Holmes in Washington " + sequence.incrementAndGet() + "\",\"author\":\"Dun Colegate\"}";
+    }
+
+    private long serverCpuNanos() {
+        return server.toHandle().info().totalCpuDuration().map(Duration::toNanos).orElse(0L);
+    }
+
+    private static String awaitBaseUrl(Process process) throws IOException {
+        BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        String prefix = "Started books stub at ";
+        for (String line = out.readLine(); line != null; line = out.readLine()) {
+            if (line.startsWith(prefix)) {
+                return line.substring(prefix.length());
+            }
+        }
+        throw new IllegalStateException("Books stub exited with status " + process.onExit().join().exitValue());
+    }
+}
@@ -0,0 +1,19 @@
+package benchmarks;
+
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+
+/**
+ * A connection pool for RestAssured clients in benchmarks. RestAssured shuts the connection manager down after
+ * every request, which would make each call open a new connection; this one stays open until {@link #close}.
+ */
+@SuppressWarnings("deprecation")
+final class KeptAlivePool extends PoolingClientConnectionManager {
+
+    @Override
+    public void shutdown() {
+    }
+
+    void close() {
+        super.shutdown();
+    }
+}
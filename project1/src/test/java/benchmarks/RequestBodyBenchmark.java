@@ -0,0 +1,73 @@
+package benchmarks;
+
+import json.JsonTemplate;
+import json.JsonWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of producing a create-book request body, from the {@code String} concatenation the test classes use to a
+ * pre-split byte template and a streaming writer into a reused buffer. Run with {@code -prof gc} to compare
+ * allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestBodyBenchmark {
+
+    private static final JsonTemplate BOOK = JsonTemplate.compile("{\"title\":\"${title}\",\"author\":\"${author}\"}");
+
+    @Param({"29", "600"})
+    public int titleLength;
+
+    private String title;
+    private final String author = "Dun Colegate";
+    private final JsonWriter writer = new JsonWriter();
+
+    @Setup
+    public void setup() {
+        title = "Sherlock Holmes in Washington ".repeat(titleLength / 30 + 1).substring(0, titleLength);
+    }
+
+    /**
+     * What the tests do today: build a {@code String}, which RestAssured then encodes to bytes.
+     */
+    @Benchmark
+    public byte[] stringConcatenation() {
+        String body = "{\"title\":\"" + title + "\",\"author\":\"" + author + "\"}";
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] byteTemplate() {
+        return BOOK.render(writer, title, author);
+    }
+
+    /**
+     * Encodes into the writer's reused buffer; a real sender would stream it out with {@link JsonWriter#writeTo}.
+     */
+    @Benchmark
+    public int streamingWriter() {
+        writer.reset()
+                .beginObject()
+                .name("title").value(title)
+                .name("author").value(author)
+                .endObject();
+        return writer.size();
+    }
+}
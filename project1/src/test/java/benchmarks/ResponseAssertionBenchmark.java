@@ -0,0 +1,64 @@
+package benchmarks;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of checking a create-book response the ways the tests do: {@code asString().contains(...)}, the
+ * {@code then()} assertion DSL, and field lookups through {@link JsonPath}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResponseAssertionBenchmark {
+
+    private static final String BOOK = "{\"id\":80,\"title\":\"Ambulance, The\",\"author\":\"Lida Leadstone\"}";
+
+    private Response response;
+
+    @Setup
+    public void setup() {
+        response = new ResponseBuilder()
+                .setStatusCode(201)
+                .setStatusLine("HTTP/1.1 201 Created")
+                .setContentType(ContentType.JSON)
+                .setBody(BOOK)
+                .build();
+    }
+
+    @Benchmark
+    public boolean asStringContains() {
+        return response.getBody().asString().contains(BOOK);
+    }
+
+    @Benchmark
+    public Object thenAssertions() {
+        return response.then().statusCode(201).contentType(ContentType.JSON);
+    }
+
+    @Benchmark
+    public void jsonPathFields(Blackhole blackhole) {
+        JsonPath json = response.jsonPath();
+        blackhole.consume(json.getLong("id"));
+        blackhole.consume(json.getString("title"));
+        blackhole.consume(json.getString("author"));
+    }
+}
@@ -0,0 +1,375 @@
+package json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Pull parser that reads JSON token by token straight from an {@link InputStream}.
+ * <p>
+ * Memory use does not depend on the document: the parser holds one small read buffer and the nesting stack.
+ * String values are not decoded until asked for. {@link #consumeString(String)} compares a value with an expected
+ * string and measures its length in one streaming pass, so even a multi-megabyte title costs no allocation;
+ * {@link #stringValue()} materializes it when that is really wanted, and {@link #next()} skips it otherwise.
+ * <pre>
+ * JsonPullParser parser = new JsonPullParser(in);
+ * parser.next();                                   // BEGIN_OBJECT
+ * while (parser.next() == Token.NAME) {
+ *     String name = parser.name();
+ *     Token value = parser.next();                 // then stringValue(), longValue(), skipValue() ...
+ * }
+ * </pre>
+ * Malformed input fails with {@link IllegalArgumentException} naming the byte offset. Not thread-safe.
+ */
+public final class JsonPullParser {
+
+    public enum Token { BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, TRUE, FALSE, NULL, END_DOCUMENT }
+
+    private static final byte TOP = 0, TOP_DONE = 1, OBJECT_FIRST = 2, OBJECT_NEXT = 3, OBJECT_VALUE = 4,
+            ARRAY_FIRST = 5, ARRAY_NEXT = 6;
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    private long offset;
+
+    private byte[] stack = new byte[32];
+    private int depth;
+
+    private final StringBuilder text = new StringBuilder();
+    private boolean stringPending;
+    private boolean matched;
+    private Token token;
+
+    public JsonPullParser(InputStream in) {
+        this(in, 8192);
+    }
+
+    public JsonPullParser(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+        stack[0] = TOP;
+    }
+
+    public Token token() {
+        return token;
+    }
+
+    /**
+     * Nesting depth of the current token; 0 outside the top-level value.
+     */
+    public int depth() {
+        return depth;
+    }
+
+    public Token next() {
+        if (stringPending) {
+            consumeString(null);
+        }
+        int c = skipWhitespace();
+        switch (stack[depth]) {
+            case TOP -> {
+                stack[depth] = TOP_DONE;
+                return token = value(c);
+            }
+            case TOP_DONE -> {
+                if (c != -1) {
+                    throw error("Unexpected data after the document");
+                }
+                return token = Token.END_DOCUMENT;
+            }
+            case OBJECT_FIRST, OBJECT_NEXT -> {
+                if (c == '}') {
+                    depth--;
+                    return token = Token.END_OBJECT;
+                }
+                if (stack[depth] == OBJECT_NEXT) {
+                    expect(c, ',');
+                    c = skipWhitespace();
+                }
+                expect(c, '"');
+                text.setLength(0);
+                readString(null, true);
+                expect(skipWhitespace(), ':');
+                stack[depth] = OBJECT_VALUE;
+                return token = Token.NAME;
+            }
+            case OBJECT_VALUE -> {
+                stack[depth] = OBJECT_NEXT;
+                return token = value(c);
+            }
+            default -> {
+                if (c == ']') {
+                    depth--;
+                    return token = Token.END_ARRAY;
+                }
+                if (stack[depth] == ARRAY_NEXT) {
+                    expect(c, ',');
+                    c = skipWhitespace();
+                }
+                stack[depth] = ARRAY_NEXT;
+                return token = value(c);
+            }
+        }
+    }
+
+    /**
+     * The field name of the current {@link Token#NAME}.
+     */
+    public String name() {
+        return text.toString();
+    }
+
+    /**
+     * Decodes the current {@link Token#STRING}. Only call this for values that are known to be small.
+     */
+    public String stringValue() {
+        if (stringPending) {
+            text.setLength(0);
+            readString(null, true);
+            stringPending = false;
+        }
+        return text.toString();
+    }
+
+    /**
+     * Reads the rest of the current {@link Token#STRING} without keeping it, comparing it with {@code expected}
+     * on the way; see {@link #matched()}.
+     *
+     * @return the length of the value in UTF-16 code units, like {@link String#length()}
+     */
+    public long consumeString(String expected) {
+        if (!stringPending) {
+            throw new IllegalStateException("No unread string value at " + token);
+        }
+        stringPending = false;
+        return readString(expected, false);
+    }
+
+    /**
+     * Whether the value read by the last {@link #consumeString(String)} equals its {@code expected} argument.
+     */
+    public boolean matched() {
+        return matched;
+    }
+
+    /**
+     * The literal text of the current {@link Token#NUMBER}.
+     */
+    public String numberText() {
+        return text.toString();
+    }
+
+    public boolean isIntegral() {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '.' || c == 'e' || c == 'E') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @throws NumberFormatException if the current number is not an integer that fits a {@code long}
+     */
+    public long longValue() {
+        return Long.parseLong(text, 0, text.length(), 10);
+    }
+
+    /**
+     * Skips the value that the current token starts, including everything nested in it.
+     */
+    public void skipValue() {
+        if (token == Token.BEGIN_OBJECT || token == Token.BEGIN_ARRAY) {
+            int target = depth - 1;
+            while (depth > target) {
+                next();
+            }
+        } else if (stringPending) {
+            consumeString(null);
+        }
+    }
+
+    private Token value(int c) {
+        switch (c) {
+            case '{' -> {
+                push(OBJECT_FIRST);
+                return Token.BEGIN_OBJECT;
+            }
+            case '[' -> {
+                push(ARRAY_FIRST);
+                return Token.BEGIN_ARRAY;
+            }
+            case '"' -> {
+                stringPending = true;
+                return Token.STRING;
+            }
+            case 't' -> {
+                literal("rue");
+                return Token.TRUE;
+            }
+            case 'f' -> {
+                literal("alse");
+                return Token.FALSE;
+            }
+            case 'n' -> {
+                literal("ull");
+                return Token.NULL;
+            }
+            default -> {
+                if (c != '-' && (c < '0' || c > '9')) {
+                    throw error(c == -1 ? "Unexpected end of input" : "Unexpected character '" + (char) c + "'");
+                }
+                text.setLength(0);
+                text.append((char) c);
+                while ((c = peek()) != -1 && (c >= '0' && c <= '9' || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-')) {
+                    text.append((char) read());
+                }
+                return Token.NUMBER;
+            }
+        }
+    }
+
+    /**
+     * Reads up to the closing quote, decoding UTF-8 and escapes. Appends to {@link #text} when {@code keep},
+     * compares with {@code expected} when given, and returns the decoded length.
+     */
+    private long readString(String expected, boolean keep) {
+        long length = 0;
+        boolean equal = true;
+        while (true) {
+            int b = read();
+            int c;
+            if (b == '"') {
+                break;
+            } else if (b == '\\') {
+                c = escape(read());
+            } else if (b < 0x80) {
+                if (b < 0x20) {
+                    throw error(b == -1 ? "Unterminated string" : "Control character in string");
+                }
+                c = b;
+            } else if (b >= 0xF0) {
+                c = (b & 0x07) << 18 | continuation() << 12 | continuation() << 6 | continuation();
+            } else if (b >= 0xE0) {
+                c = (b & 0x0F) << 12 | continuation() << 6 | continuation();
+            } else {
+                c = (b & 0x1F) << 6 | continuation();
+            }
+            if (c >= 0x10000) {
+                char high = Character.highSurrogate(c);
+                char low = Character.lowSurrogate(c);
+                equal &= expected != null && length + 1 < expected.length()
+                        && expected.charAt((int) length) == high && expected.charAt((int) length + 1) == low;
+                if (keep) {
+                    text.append(high).append(low);
+                }
+                length += 2;
+            } else {
+                equal &= expected != null && length < expected.length() && expected.charAt((int) length) == c;
+                if (keep) {
+                    text.append((char) c);
+                }
+                length++;
+            }
+        }
+        matched = equal && expected != null && length == expected.length();
+        return length;
+    }
+
+    private int escape(int c) {
+        return switch (c) {
+            case '"', '\\', '/' -> c;
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case 'u' -> {
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) {
+                        throw error("Bad \\u escape");
+                    }
+                    value = value << 4 | digit;
+                }
+                yield value;
+            }
+            default -> throw error("Bad escape \\" + (char) c);
+        };
+    }
+
+    private int continuation() {
+        int b = read();
+        if ((b & 0xC0) != 0x80) {
+            throw error("Malformed UTF-8");
+        }
+        return b & 0x3F;
+    }
+
+    private void literal(String rest) {
+        for (int i = 0; i < rest.length(); i++) {
+            if (read() != rest.charAt(i)) {
+                throw error("Bad literal");
+            }
+        }
+    }
+
+    private void push(byte context) {
+        if (++depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth] = context;
+    }
+
+    private void expect(int c, char expected) {
+        if (c != expected) {
+            throw error("Expected '" + expected + "' but found " + (c == -1 ? "end of input" : "'" + (char) c + "'"));
+        }
+    }
+
+    private int skipWhitespace() {
+        int c;
+        do {
+            c = read();
+        } while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+        return c;
+    }
+
+    private int peek() {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position] & 0xFF;
+    }
+
+    private int read() {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        offset++;
+        return buffer[position++] & 0xFF;
+    }
+
+    private boolean fill() {
+        try {
+            int n = in.read(buffer, 0, buffer.length);
+            if (n <= 0) {
+                return false;
+            }
+            position = 0;
+            limit = n;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at byte " + offset);
+    }
+}
@@ -0,0 +1,73 @@
+package json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A JSON document with {@code ${name}} holes, split once into pre-encoded UTF-8 segments.
+ * <p>
+ * Rendering copies the fixed segments and JSON-escapes each value into its hole, so a hole inside quotes takes a
+ * string and a hole outside quotes takes a number:
+ * <pre>
+ * JsonTemplate book = JsonTemplate.compile("{\"id\":${id},\"title\":\"${title}\"}");
+ * byte[] body = book.render(new JsonWriter(), "80", "Ambulance, The");
+ * </pre>
+ * Templates are immutable and can be shared between threads.
+ */
+public final class JsonTemplate {
+
+    private final byte[][] segments;
+    private final List<String> holes;
+
+    private JsonTemplate(byte[][] segments, List<String> holes) {
+        this.segments = segments;
+        this.holes = holes;
+    }
+
+    public static JsonTemplate compile(String template) {
+        List<byte[]> segments = new ArrayList<>();
+        List<String> holes = new ArrayList<>();
+        int from = 0;
+        int open;
+        while ((open = template.indexOf("${", from)) >= 0) {
+            int close = template.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unterminated hole at offset " + open + " in " + template);
+            }
+            segments.add(template.substring(from, open).getBytes(StandardCharsets.UTF_8));
+            holes.add(template.substring(open + 2, close));
+            from = close + 1;
+        }
+        segments.add(template.substring(from).getBytes(StandardCharsets.UTF_8));
+        return new JsonTemplate(segments.toArray(new byte[0][]), List.copyOf(holes));
+    }
+
+    /**
+     * Hole names in the order {@link #render} expects their values.
+     */
+    public List<String> holes() {
+        return holes;
+    }
+
+    /**
+     * Renders into {@code writer} (after resetting it) and returns a copy of the encoded document.
+     */
+    public byte[] render(JsonWriter writer, String... values) {
+        renderTo(writer.reset(), values);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Appends the rendered document to {@code writer} without resetting it.
+     */
+    public void renderTo(JsonWriter writer, String... values) {
+        if (values.length != holes.size()) {
+            throw new IllegalArgumentException("Expected " + holes.size() + " values for " + holes + " but got " + values.length);
+        }
+        for (int i = 0; i < values.length; i++) {
+            writer.raw(segments[i]).escaped(values[i]);
+        }
+        writer.raw(segments[values.length]);
+    }
+}
@@ -0,0 +1,209 @@
+package json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Streaming JSON writer that encodes straight into a reusable UTF-8 byte buffer.
+ * <p>
+ * Nothing is built as an intermediate {@link String}; call {@link #reset()} to reuse the same buffer for the next
+ * document. The writer tracks commas itself but does not validate nesting. Not thread-safe; keep one per thread.
+ */
+public final class JsonWriter {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    private byte[] buffer;
+    private int size;
+    private boolean needsComma;
+
+    public JsonWriter() {
+        this(256);
+    }
+
+    public JsonWriter(int initialCapacity) {
+        buffer = new byte[initialCapacity];
+    }
+
+    public JsonWriter reset() {
+        size = 0;
+        needsComma = false;
+        return this;
+    }
+
+    public JsonWriter beginObject() {
+        separator();
+        put((byte) '{');
+        needsComma = false;
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        put((byte) '}');
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        separator();
+        put((byte) '[');
+        needsComma = false;
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        put((byte) ']');
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter name(String name) {
+        separator();
+        string(name);
+        put((byte) ':');
+        needsComma = false;
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        separator();
+        if (value == null) {
+            ascii("null");
+        } else {
+            string(value);
+        }
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        separator();
+        ascii(Long.toString(value));
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        separator();
+        ascii(value ? "true" : "false");
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * Appends a value that is already valid JSON, such as a number literal, as-is.
+     */
+    public JsonWriter rawValue(String json) {
+        separator();
+        raw(json.getBytes(StandardCharsets.UTF_8));
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * Appends the JSON-escaped UTF-8 form of {@code value} without surrounding quotes.
+     */
+    @SuppressWarnings("deprecation")
+    public JsonWriter escaped(String value) {
+        int length = value.length();
+        ensure(length);
+        int i = 0;
+        // fast path: the plain ASCII prefix is bulk-copied without per-byte capacity checks
+        while (i < length) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c >= 0x80 || c == '"' || c == '\\') {
+                break;
+            }
+            i++;
+        }
+        value.getBytes(0, i, buffer, size);
+        size += i;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                put((byte) '\\');
+                put((byte) c);
+            } else if (c < 0x20) {
+                put((byte) '\\');
+                put((byte) 'u');
+                put((byte) '0');
+                put((byte) '0');
+                put(HEX[c >> 4]);
+                put(HEX[c & 0xf]);
+            } else if (c < 0x80) {
+                put((byte) c);
+            } else if (c < 0x800) {
+                put((byte) (0xc0 | (c >> 6)));
+                put((byte) (0x80 | (c & 0x3f)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                put((byte) (0xf0 | (cp >> 18)));
+                put((byte) (0x80 | ((cp >> 12) & 0x3f)));
+                put((byte) (0x80 | ((cp >> 6) & 0x3f)));
+                put((byte) (0x80 | (cp & 0x3f)));
+            } else {
+                put((byte) (0xe0 | (c >> 12)));
+                put((byte) (0x80 | ((c >> 6) & 0x3f)));
+                put((byte) (0x80 | (c & 0x3f)));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Appends bytes that are already valid JSON (or part of it) as-is.
+     */
+    public JsonWriter raw(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    private void string(String value) {
+        put((byte) '"');
+        escaped(value);
+        put((byte) '"');
+    }
+
+    private void ascii(String text) {
+        ensure(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer[size++] = (byte) text.charAt(i);
+        }
+    }
+
+    private void separator() {
+        if (needsComma) {
+            put((byte) ',');
+        }
+    }
+
+    private void put(byte b) {
+        if (size == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        buffer[size++] = b;
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}